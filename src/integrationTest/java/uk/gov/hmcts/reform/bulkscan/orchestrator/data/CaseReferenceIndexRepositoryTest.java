@@ -0,0 +1,72 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.IntegrationTest;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.CaseReferenceIndexRepository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.ENVELOPE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
+
+@ActiveProfiles({"nosb", "db-test"})
+@IntegrationTest
+public class CaseReferenceIndexRepositoryTest {
+
+    private static final String SERVICE = "bulkscan";
+
+    @Autowired private CaseReferenceIndexRepository repo;
+    @Autowired private DbHelper dbHelper;
+
+    @BeforeEach
+    void setUp() {
+        dbHelper.deleteAll();
+    }
+
+    @Test
+    void should_find_case_ids_by_reference() {
+        // given
+        repo.insert(ENVELOPE_ID, "envelope-id", SERVICE, 2L);
+        repo.insert(ENVELOPE_ID, "envelope-id", SERVICE, 1L);
+
+        // when
+        var caseIds = repo.findCaseIds(ENVELOPE_ID, "envelope-id", SERVICE);
+
+        // then
+        assertThat(caseIds).containsExactly(1L, 2L);
+        assertThat(repo.findCaseIds(LEGACY_ID, "envelope-id", SERVICE)).isEmpty();
+        assertThat(repo.findCaseIds(ENVELOPE_ID, "envelope-id", "other-service")).isEmpty();
+    }
+
+    @Test
+    void should_ignore_repeated_entry() {
+        // given
+        repo.insert(LEGACY_ID, "legacy-id", SERVICE, 1L);
+
+        // when
+        repo.insert(LEGACY_ID, "legacy-id", SERVICE, 1L);
+
+        // then
+        assertThat(repo.findCaseIds(LEGACY_ID, "legacy-id", SERVICE)).containsExactly(1L);
+    }
+
+    @Test
+    void should_delete_entries_created_before_cutoff() {
+        // given
+        repo.insert(LEGACY_ID, "legacy-id", SERVICE, 1L);
+
+        // when
+        int deletedBeforeNow = repo.deleteCreatedBefore(Instant.now().minus(1, ChronoUnit.HOURS));
+        int deletedAfterNow = repo.deleteCreatedBefore(Instant.now().plus(1, ChronoUnit.HOURS));
+
+        // then
+        assertThat(deletedBeforeNow).isZero();
+        assertThat(deletedAfterNow).isEqualTo(1);
+        assertThat(repo.findCaseIds(LEGACY_ID, "legacy-id", SERVICE)).isEmpty();
+    }
+}
@@ -30,6 +30,9 @@ public class DbHelper {
 
     public void deleteAll() {
         jdbcTemplate.update("DELETE FROM callback_result", new MapSqlParameterSource());
+        jdbcTemplate.update("DELETE FROM processed_envelope_outbox", new MapSqlParameterSource());
+        jdbcTemplate.update("DELETE FROM envelope_processing_ledger", new MapSqlParameterSource());
+        jdbcTemplate.update("DELETE FROM case_reference_index", new MapSqlParameterSource());
     }
 
     public List<CallbackResult> getAllCallbackResults() {
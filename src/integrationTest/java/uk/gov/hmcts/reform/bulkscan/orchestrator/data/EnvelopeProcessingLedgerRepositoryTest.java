@@ -0,0 +1,113 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.IntegrationTest;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.EnvelopeProcessingLedgerRepository;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CASE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CCD_WRITE_STARTED;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.DOCUMENT_HASHES;
+
+@ActiveProfiles({"nosb", "db-test"})
+@IntegrationTest
+public class EnvelopeProcessingLedgerRepositoryTest {
+
+    private static final String ENVELOPE_ID = "envelope-id";
+
+    @Autowired private EnvelopeProcessingLedgerRepository repo;
+    @Autowired private DbHelper dbHelper;
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        dbHelper.deleteAll();
+    }
+
+    @Test
+    void should_find_recorded_step_output() {
+        // given
+        repo.upsert(ENVELOPE_ID, CASE_ID, "123");
+
+        // when
+        var output = repo.findOutput(ENVELOPE_ID, CASE_ID);
+
+        // then
+        assertThat(output).contains("123");
+        assertThat(repo.findOutput(ENVELOPE_ID, DOCUMENT_HASHES)).isEmpty();
+        assertThat(repo.findOutput("other-envelope-id", CASE_ID)).isEmpty();
+    }
+
+    @Test
+    void should_overwrite_output_of_recorded_step() {
+        // given
+        repo.upsert(ENVELOPE_ID, CASE_ID, "123");
+
+        // when
+        repo.upsert(ENVELOPE_ID, CASE_ID, "456");
+
+        // then
+        assertThat(repo.findOutput(ENVELOPE_ID, CASE_ID)).contains("456");
+    }
+
+    @Test
+    void should_delete_entries_created_before_cutoff() {
+        // given
+        repo.upsert(ENVELOPE_ID, CASE_ID, "123");
+
+        // when
+        Instant hourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
+        Instant inHour = Instant.now().plus(1, ChronoUnit.HOURS);
+        int deletedBeforeNow = repo.deleteCreatedBefore(hourAgo, hourAgo);
+        int deletedAfterNow = repo.deleteCreatedBefore(inHour, inHour);
+
+        // then
+        assertThat(deletedBeforeNow).isZero();
+        assertThat(deletedAfterNow).isEqualTo(1);
+        assertThat(repo.findOutput(ENVELOPE_ID, CASE_ID)).isEmpty();
+    }
+
+    @Test
+    void should_keep_ccd_write_started_entries_until_their_own_cutoff() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repo, objectMapper, true, true);
+        ledger.recordCcdWriteStarted(ENVELOPE_ID);
+        repo.upsert(ENVELOPE_ID, CASE_ID, "123");
+
+        // when
+        int deleted = repo.deleteCreatedBefore(
+            Instant.now().plus(1, ChronoUnit.HOURS),
+            Instant.now().minus(1, ChronoUnit.HOURS)
+        );
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repo.findOutput(ENVELOPE_ID, CASE_ID)).isEmpty();
+        assertThat(repo.findOutput(ENVELOPE_ID, CCD_WRITE_STARTED)).isPresent();
+        assertThat(ledger.canSkipCcdSearch(ENVELOPE_ID)).isFalse();
+    }
+
+    @Test
+    void should_delete_ccd_write_started_entries_created_before_their_cutoff() {
+        // given
+        repo.upsert(ENVELOPE_ID, CCD_WRITE_STARTED, "\"2024-01-01T00:00:00Z\"");
+
+        // when
+        int deleted = repo.deleteCreatedBefore(
+            Instant.now().minus(1, ChronoUnit.HOURS),
+            Instant.now().plus(1, ChronoUnit.HOURS)
+        );
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repo.findOutput(ENVELOPE_ID, CCD_WRITE_STARTED)).isEmpty();
+    }
+}
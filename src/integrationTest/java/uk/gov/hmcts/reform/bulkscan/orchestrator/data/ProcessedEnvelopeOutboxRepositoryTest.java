@@ -0,0 +1,67 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.IntegrationTest;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.NewProcessedEnvelopeNotification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeOutboxRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.AUTO_CREATED_CASE;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.EXCEPTION_RECORD;
+
+@ActiveProfiles({"nosb", "db-test"})
+@IntegrationTest
+public class ProcessedEnvelopeOutboxRepositoryTest {
+
+    @Autowired private ProcessedEnvelopeOutboxRepository repo;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private DbHelper dbHelper;
+
+    @BeforeEach
+    void setUp() {
+        dbHelper.deleteAll();
+    }
+
+    @Test
+    void should_find_pending_notifications_in_order_of_creation() {
+        // given
+        UUID id1 = repo.insert(new NewProcessedEnvelopeNotification("envelope-1", 1L, AUTO_CREATED_CASE));
+        UUID id2 = repo.insert(new NewProcessedEnvelopeNotification("envelope-2", null, EXCEPTION_RECORD));
+        repo.insert(new NewProcessedEnvelopeNotification("envelope-3", 3L, EXCEPTION_RECORD));
+
+        // when
+        var pending = transactionTemplate.execute(status -> repo.findPendingForUpdate(2));
+
+        // then
+        assertThat(pending)
+            .extracting(res -> tuple(res.id, res.envelopeId, res.ccdId, res.envelopeCcdAction))
+            .containsExactly(
+                tuple(id1, "envelope-1", 1L, AUTO_CREATED_CASE),
+                tuple(id2, "envelope-2", null, EXCEPTION_RECORD)
+            );
+    }
+
+    @Test
+    void should_delete_notifications_by_ids() {
+        // given
+        UUID id1 = repo.insert(new NewProcessedEnvelopeNotification("envelope-1", 1L, AUTO_CREATED_CASE));
+        UUID id2 = repo.insert(new NewProcessedEnvelopeNotification("envelope-2", 2L, EXCEPTION_RECORD));
+
+        // when
+        int deleted = repo.delete(List.of(id1));
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(transactionTemplate.execute(status -> repo.findPendingForUpdate(10)))
+            .extracting(res -> res.id)
+            .containsExactly(id2);
+    }
+}
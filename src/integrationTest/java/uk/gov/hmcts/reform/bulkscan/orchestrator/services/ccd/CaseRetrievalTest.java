@@ -11,6 +11,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.config.IntegrationTest;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdCallException;
@@ -51,9 +52,21 @@ class CaseRetrievalTest {
     @Autowired
     private CoreCaseDataApi coreCaseDataApi;
 
+    @Autowired
+    private CcdCaseIdSearchApi caseIdSearchApi;
+
     @MockitoSpyBean
     private ServiceConfigProvider serviceConfigProvider;
 
+    @Autowired
+    private CaseReadCache caseReadCache;
+
+    @Autowired
+    private CcdCallGuard callGuard;
+
+    @Autowired
+    private CcdEventConflictRetry conflictRetry;
+
     private CcdApi ccdApi;
 
     private static final CcdAuthenticator CCD_AUTHENTICATOR =
@@ -66,7 +79,15 @@ class CaseRetrievalTest {
     @BeforeEach
     public void setUp() {
         WireMock.reset();
-        ccdApi = new CcdApi(coreCaseDataApi, authenticatorFactory, serviceConfigProvider);
+        ccdApi = new CcdApi(
+            coreCaseDataApi,
+            caseIdSearchApi,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            conflictRetry
+        );
     }
 
     @Test
@@ -96,7 +117,7 @@ class CaseRetrievalTest {
 
         // then
         WireMock.verify(getRequestedFor(urlEqualTo(GET_CASE_URL)));
-        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION);
+        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION, CCD_AUTHENTICATOR.getUserToken());
     }
 
     @Test
@@ -126,7 +147,7 @@ class CaseRetrievalTest {
 
         // then
         WireMock.verify(postRequestedFor(urlEqualTo(CASE_SEARCH_URL)));
-        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION);
+        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION, CCD_AUTHENTICATOR.getUserToken());
     }
 
     @Test
@@ -177,7 +198,7 @@ class CaseRetrievalTest {
 
         // then
         WireMock.verify(postRequestedFor(urlEqualTo(EXCEPTION_RECORD_SEARCH_URL)));
-        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION);
+        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION, CCD_AUTHENTICATOR.getUserToken());
     }
 
     @Test
@@ -258,7 +279,7 @@ class CaseRetrievalTest {
             .hasMessageContaining(errorMessage);
 
         // and
-        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION);
+        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION, CCD_AUTHENTICATOR.getUserToken());
     }
 
     @ParameterizedTest
@@ -285,6 +306,6 @@ class CaseRetrievalTest {
             .hasMessageContaining("Could not attach documents for case ref: 2 Error: " + status);
 
         // and
-        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION);
+        Mockito.verify(authenticatorFactory).removeFromCache(JURISDICTION, CCD_AUTHENTICATOR.getUserToken());
     }
 }
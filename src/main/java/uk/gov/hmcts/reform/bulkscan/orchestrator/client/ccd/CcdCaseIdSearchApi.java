@@ -0,0 +1,41 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseEnvelopeIdsSearchResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseIdSearchResult;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * CCD case search which reads only IDs of the found cases, and optionally envelope IDs they refer to.
+ *
+ * <p>Unlike {@code CoreCaseDataApi.searchCases}, the response is not mapped to full case details,
+ * so searches should limit returned fields to keep the response small.</p>
+ */
+@FeignClient(
+    name = "ccdCaseIdSearchApi",
+    url = "${core_case_data.api.url}"
+)
+public interface CcdCaseIdSearchApi {
+
+    @PostMapping(value = "/searchCases", consumes = APPLICATION_JSON_VALUE)
+    CaseIdSearchResult searchCaseIds(
+        @RequestHeader(AUTHORIZATION) String authorisation,
+        @RequestHeader("ServiceAuthorization") String serviceAuthorization,
+        @RequestParam("ctid") String caseType,
+        @RequestBody String searchString
+    );
+
+    @PostMapping(value = "/searchCases", consumes = APPLICATION_JSON_VALUE)
+    CaseEnvelopeIdsSearchResult searchCaseEnvelopeIds(
+        @RequestHeader(AUTHORIZATION) String authorisation,
+        @RequestHeader("ServiceAuthorization") String serviceAuthorization,
+        @RequestParam("ctid") String caseType,
+        @RequestBody String searchString
+    );
+}
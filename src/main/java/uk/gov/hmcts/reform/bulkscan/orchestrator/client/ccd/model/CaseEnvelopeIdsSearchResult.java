@@ -0,0 +1,86 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Result of CCD case search which reads IDs of the found cases together with IDs of envelopes they were created
+ * from, i.e. {@code envelopeId} of exception records and {@code bulkScanEnvelopes} of service cases.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CaseEnvelopeIdsSearchResult {
+
+    public final List<FoundCase> cases;
+
+    public CaseEnvelopeIdsSearchResult(@JsonProperty("cases") List<FoundCase> cases) {
+        this.cases = cases == null ? emptyList() : cases;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FoundCase {
+
+        public final Long id;
+        public final CaseData data;
+
+        public FoundCase(
+            @JsonProperty("id") Long id,
+            @JsonProperty("case_data") CaseData data
+        ) {
+            this.id = id;
+            this.data = data;
+        }
+
+        /**
+         * Returns IDs of all envelopes the case refers to.
+         */
+        public Stream<String> envelopeIds() {
+            if (data == null) {
+                return Stream.empty();
+            }
+            return Stream.concat(
+                Stream.ofNullable(data.envelopeId),
+                data.bulkScanEnvelopes.stream().map(envelope -> envelope.value == null ? null : envelope.value.id)
+            );
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CaseData {
+
+        public final String envelopeId;
+        public final List<EnvelopeElement> bulkScanEnvelopes;
+
+        public CaseData(
+            @JsonProperty("envelopeId") String envelopeId,
+            @JsonProperty("bulkScanEnvelopes") List<EnvelopeElement> bulkScanEnvelopes
+        ) {
+            this.envelopeId = envelopeId;
+            this.bulkScanEnvelopes = bulkScanEnvelopes == null ? emptyList() : bulkScanEnvelopes;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class EnvelopeElement {
+
+        public final EnvelopeId value;
+
+        public EnvelopeElement(@JsonProperty("value") EnvelopeId value) {
+            this.value = value;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class EnvelopeId {
+
+        public final String id;
+
+        public EnvelopeId(@JsonProperty("id") String id) {
+            this.id = id;
+        }
+    }
+}
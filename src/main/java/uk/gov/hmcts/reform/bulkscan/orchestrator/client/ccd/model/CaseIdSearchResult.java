@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CaseIdSearchResult {
+
+    public final List<FoundCase> cases;
+
+    public CaseIdSearchResult(@JsonProperty("cases") List<FoundCase> cases) {
+        this.cases = cases == null ? emptyList() : cases;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FoundCase {
+
+        public final Long id;
+
+        public FoundCase(@JsonProperty("id") Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.client.cdam;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.cache.IdamCachedClient;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.config.DownstreamCallExecutorConfig.DOWNSTREAM_CALL_EXECUTOR;
 
 @Component
 public class CdamApiClient {
@@ -22,7 +37,11 @@ public class CdamApiClient {
     private final CdamApi cdamApi;
     private final AuthTokenGenerator s2sTokenGenerator;
     private final IdamCachedClient idamCachedClient;
-
+    private final DocumentHashCache documentHashCache;
+    private final Timer hashRequestTimer;
+    private final int parallelism;
+    // CDAM calls for a list of documents are made concurrently, each of them blocking its thread
+    private final Executor hashLoader;
 
     @Value("${cdam.api.enabled}")
     private boolean cdamEnabled;
@@ -30,51 +49,113 @@ public class CdamApiClient {
     public CdamApiClient(
         CdamApi cdamApi,
         AuthTokenGenerator s2sTokenGenerator,
-        IdamCachedClient idamCachedClient
+        IdamCachedClient idamCachedClient,
+        DocumentHashCache documentHashCache,
+        MeterRegistry meterRegistry,
+        @Value("${cdam.document-hash.parallelism}") int parallelism,
+        @Qualifier(DOWNSTREAM_CALL_EXECUTOR) Executor hashLoader
     ) {
         this.cdamApi = cdamApi;
         this.s2sTokenGenerator = s2sTokenGenerator;
         this.idamCachedClient = idamCachedClient;
+        this.documentHashCache = documentHashCache;
+        this.hashRequestTimer = meterRegistry.timer("cdam.document_hash.request");
+        this.parallelism = parallelism;
+        this.hashLoader = hashLoader;
     }
 
     public Map<String, String> getDocumentHash(
         String jurisdiction,
         List<Document> documentList
     ) {
+        return getDocumentHashes(
+            jurisdiction,
+            documentList.stream().filter(Objects::nonNull).map(document -> document.uuid).collect(toList())
+        );
+    }
 
+    /**
+     * Returns hashes of the documents, by document UUID. Hashes which are not cached are retrieved
+     * from CDAM concurrently, with at most the configured number of requests in flight.
+     */
+    public Map<String, String> getDocumentHashes(
+        String jurisdiction,
+        Collection<String> documentUuids
+    ) {
         if (!cdamEnabled) {
             log.info("CDAM not enabled returning empty Map, get by doc list");
             return emptyMap();
         }
-        var s2sToken = s2sTokenGenerator.generate();
-        var idamCredential = idamCachedClient.getIdamCredentials(jurisdiction);
 
-        Map<String, String> hashTokenMap = new HashMap<>();
-        for (Document document : documentList) {
-            if (document != null) {
-                String docHashToken = cdamApi.getDocumentHash(s2sToken, idamCredential.accessToken, document.uuid);
-                hashTokenMap.put(document.uuid, docHashToken);
+        Map<String, String> hashes = new HashMap<>();
+        Queue<String> uuidsToRetrieve = new ConcurrentLinkedQueue<>();
+        for (String uuid : new LinkedHashSet<>(documentUuids)) {
+            if (uuid == null) {
+                continue;
+            }
+            String cachedHash = documentHashCache.get(uuid);
+            if (cachedHash == null) {
+                uuidsToRetrieve.add(uuid);
+            } else {
+                hashes.put(uuid, cachedHash);
             }
         }
-        return hashTokenMap;
-    }
 
-    public String getDocumentHash(
-        String jurisdiction,
-        String uuid
-    ) {
-        if (!cdamEnabled) {
-            log.info("CDAM not enabled returning empty Map, get by UUID= {}", uuid);
-            return null;
+        if (!uuidsToRetrieve.isEmpty()) {
+            hashes.putAll(retrieveHashes(jurisdiction, uuidsToRetrieve));
         }
+        return hashes;
+    }
 
+    public void setCdamEnabled(boolean cdamEnabled) {
+        this.cdamEnabled = cdamEnabled;
+    }
+
+    private Map<String, String> retrieveHashes(String jurisdiction, Queue<String> uuids) {
         var s2sToken = s2sTokenGenerator.generate();
         var idamCredential = idamCachedClient.getIdamCredentials(jurisdiction);
 
-        return cdamApi.getDocumentHash(s2sToken, idamCredential.accessToken, uuid);
+        Map<String, String> hashes = new ConcurrentHashMap<>();
+        Runnable worker = () -> {
+            try {
+                String uuid;
+                while ((uuid = uuids.poll()) != null) {
+                    String hash = retrieveHash(s2sToken, idamCredential.accessToken, uuid);
+                    if (hash != null) {
+                        hashes.put(uuid, hash);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                // stop the other workers from taking further documents
+                uuids.clear();
+                throw ex;
+            }
+        };
+
+        int workerCount = Math.min(parallelism, uuids.size());
+        if (workerCount <= 1) {
+            worker.run();
+            return hashes;
+        }
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(CompletableFuture.runAsync(worker, hashLoader));
+        }
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return hashes;
     }
 
-    public void setCdamEnabled(boolean cdamEnabled) {
-        this.cdamEnabled = cdamEnabled;
+    private String retrieveHash(String s2sToken, String idamToken, String uuid) {
+        String hash = hashRequestTimer.record(() -> cdamApi.getDocumentHash(s2sToken, idamToken, uuid));
+        documentHashCache.put(uuid, hash);
+        return hash;
     }
 }
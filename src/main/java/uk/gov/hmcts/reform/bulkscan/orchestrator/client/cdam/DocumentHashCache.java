@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.client.cdam;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Document hashes issued by CDAM, by document UUID.
+ *
+ * <p>CDAM never changes the hash of a document once issued, so entries are only evicted to bound the size
+ * of the cache.</p>
+ */
+@Component
+public class DocumentHashCache {
+
+    private final boolean enabled;
+    private final Cache<String, String> hashes;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public DocumentHashCache(
+        @Value("${cdam.document-hash.cache.enabled}") boolean enabled,
+        @Value("${cdam.document-hash.cache.max-size}") long maxSize,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.hashes = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .build();
+        this.hitCounter = meterRegistry.counter("cdam.document_hash.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("cdam.document_hash.cache", "result", "miss");
+    }
+
+    /**
+     * Returns the cached hash of the document, or null if it is not cached.
+     */
+    public String get(String documentUuid) {
+        if (!enabled) {
+            return null;
+        }
+
+        String hash = hashes.getIfPresent(documentUuid);
+        if (hash == null) {
+            missCounter.increment();
+        } else {
+            hitCounter.increment();
+        }
+        return hash;
+    }
+
+    public void put(String documentUuid, String hash) {
+        if (enabled && hash != null) {
+            hashes.put(documentUuid, hash);
+        }
+    }
+}
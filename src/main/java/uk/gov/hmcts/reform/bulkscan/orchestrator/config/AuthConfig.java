@@ -1,5 +1,7 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
@@ -8,8 +10,15 @@ import org.springframework.context.annotation.Primary;
 import uk.gov.hmcts.reform.authorisation.ServiceAuthorisationApi;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGeneratorFactory;
+import uk.gov.hmcts.reform.authorisation.generators.ServiceAuthTokenGenerator;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.S2sTokenHolder;
 import uk.gov.hmcts.reform.idam.client.IdamApi;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.config.DownstreamCallExecutorConfig.DOWNSTREAM_CALL_EXECUTOR;
+
 
 @Configuration
 @EnableFeignClients(clients = IdamApi.class)
@@ -20,8 +29,23 @@ public class AuthConfig {
     public AuthTokenGenerator authTokenGenerator(
         @Value("${idam.s2s-auth.secret}") String secret,
         @Value("${idam.s2s-auth.name}") String name,
-        ServiceAuthorisationApi serviceAuthorisationApi
+        @Value("${idam.s2s-auth.refresh-ahead.enabled}") boolean refreshAheadEnabled,
+        @Value("${idam.s2s-auth.refresh-ahead.refresh-before-expiry}") Duration refreshBeforeExpiry,
+        ServiceAuthorisationApi serviceAuthorisationApi,
+        MeterRegistry meterRegistry,
+        @Qualifier(DOWNSTREAM_CALL_EXECUTOR) Executor refresher
     ) {
-        return AuthTokenGeneratorFactory.createDefaultGenerator(secret, name, serviceAuthorisationApi);
+        if (!refreshAheadEnabled) {
+            return AuthTokenGeneratorFactory.createDefaultGenerator(secret, name, serviceAuthorisationApi);
+        }
+
+        S2sTokenHolder tokenHolder = new S2sTokenHolder(
+            new ServiceAuthTokenGenerator(secret, name, serviceAuthorisationApi),
+            refreshBeforeExpiry,
+            meterRegistry,
+            refresher
+        );
+        tokenHolder.start();
+        return tokenHolder;
     }
 }
@@ -0,0 +1,78 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import feign.RetryableException;
+import feign.Retryer;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries failed calls with exponential backoff and full jitter, as long as the retry budget of the
+ * downstream service allows.
+ *
+ * <p>Calls which failed on I/O are only retried if they are idempotent, or if they never reached the service.</p>
+ */
+public class BudgetedRetryer implements Retryer {
+
+    private final RetryBudget budget;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+
+    private int attempt = 1;
+
+    public BudgetedRetryer(RetryBudget budget, int maxAttempts, Duration backoff, Duration maxBackoff) {
+        this.budget = budget;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (attempt >= maxAttempts || !isRetryable(e) || !budget.tryAcquireRetry()) {
+            throw e;
+        }
+
+        try {
+            Thread.sleep(delayMillis(e));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        attempt++;
+    }
+
+    // Feign clones the retryer once per call, before its first attempt, so each call gets its own retryer,
+    // all of them sharing the budget. Request interceptors would also count retries towards the budget.
+    @Override
+    public Retryer clone() {
+        budget.recordRequest();
+        return new BudgetedRetryer(budget, maxAttempts, backoff, maxBackoff);
+    }
+
+    private long delayMillis(RetryableException e) {
+        if (e.retryAfter() != null) {
+            return Math.clamp(e.retryAfter() - System.currentTimeMillis(), 0, maxBackoff.toMillis());
+        }
+
+        long ceiling = Math.min(maxBackoff.toMillis(), backoff.toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRetryable(RetryableException e) {
+        if (e.status() > 0) {
+            // error decoder has already checked whether the response can be retried
+            return true;
+        }
+
+        Throwable cause = e.getCause();
+        return RetryableErrorDecoder.isIdempotent(e.method())
+            || cause instanceof ConnectException
+            || cause instanceof ConnectTimeoutException
+            || cause instanceof ConnectionRequestTimeoutException;
+    }
+}
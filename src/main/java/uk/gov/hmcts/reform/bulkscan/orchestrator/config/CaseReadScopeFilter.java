@@ -0,0 +1,34 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseReadCache;
+
+import java.io.IOException;
+
+/**
+ * Handles each CCD callback within its own scope of case reads, see {@link CaseReadCache}.
+ */
+@Component
+public class CaseReadScopeFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/callback/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        try (var scope = CaseReadCache.openScope()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for calls to downstream services made in the background or concurrently with the caller,
+ * e.g. refreshing IDAM credentials and S2S tokens ahead of expiry, or retrieving document hashes from CDAM.
+ */
+@Configuration
+public class DownstreamCallExecutorConfig {
+
+    public static final String DOWNSTREAM_CALL_EXECUTOR = "downstream-call-executor";
+
+    private static final String THREAD_NAME_PREFIX = "downstream-call-";
+
+    // shut down with the application context, without waiting for calls in flight
+    @Bean(name = DOWNSTREAM_CALL_EXECUTOR, destroyMethod = "shutdownNow")
+    public ExecutorService downstreamCallExecutor(
+        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled
+    ) {
+        if (virtualThreadsEnabled) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().name(THREAD_NAME_PREFIX, 0).daemon().factory());
+    }
+}
@@ -2,13 +2,35 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 
 import feign.Retryer;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 
+import java.time.Duration;
+
+/**
+ * Configuration of Feign clients which retry failed calls. Each client gets its own retry budget.
+ */
 public class FeignConfiguration {
 
     @Bean
-    public Retryer retryer() {
-        return new Retryer.Default(1000, 3000, 3);
+    public RetryBudget retryBudget(
+        @Value("${spring.cloud.openfeign.client.name}") String clientName,
+        @Value("${downstream-retry.budget.ratio}") double ratio,
+        @Value("${downstream-retry.budget.max-tokens}") int maxTokens,
+        MeterRegistry meterRegistry
+    ) {
+        return new RetryBudget(clientName, ratio, maxTokens, meterRegistry);
+    }
+
+    @Bean
+    public Retryer retryer(
+        RetryBudget retryBudget,
+        @Value("${downstream-retry.max-attempts}") int maxAttempts,
+        @Value("${downstream-retry.backoff}") Duration backoff,
+        @Value("${downstream-retry.max-backoff}") Duration maxBackoff
+    ) {
+        return new BudgetedRetryer(retryBudget, maxAttempts, backoff, maxBackoff);
     }
 
     @Bean
@@ -1,13 +1,39 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 
+import feign.Client;
 import feign.Logger;
+import feign.Request;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit.ConcurrencyLimitingInterceptor;
 
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP clients of downstream services. RestTemplate and all Feign clients share a single connection pool,
+ * so that connections to each service are kept alive and reused, and all of them use the same timeouts.
+ */
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class HttpConfiguration {
 
     @Bean
@@ -16,28 +42,92 @@ public class HttpConfiguration {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate(clientHttpRequestFactory());
+    public RestTemplate restTemplate(
+        ConcurrencyLimitingInterceptor concurrencyLimitingInterceptor,
+        HttpComponentsClientHttpRequestFactory clientHttpRequestFactory
+    ) {
+        RestTemplate restTemplate = new RestTemplate(clientHttpRequestFactory);
+        restTemplate.setInterceptors(List.of(concurrencyLimitingInterceptor));
+        return restTemplate;
     }
 
     @Bean
-    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory() {
-        return new HttpComponentsClientHttpRequestFactory(getHttp5Client());
+    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
 
+    @Bean
+    public Client feignClient(CloseableHttpClient httpClient) {
+        return new ApacheHttp5Client(httpClient);
+    }
 
+    // Feign sets timeouts of each request, overriding the ones of the http client
+    @Bean
+    public Request.Options feignRequestOptions(HttpClientProperties properties) {
+        return new Request.Options(
+            properties.getConnectTimeout().toMillis(),
+            TimeUnit.MILLISECONDS,
+            properties.getReadTimeout().toMillis(),
+            TimeUnit.MILLISECONDS,
+            true
+        );
+    }
 
-    private org.apache.hc.client5.http.classic.HttpClient getHttp5Client() {
-        org.apache.hc.client5.http.config.RequestConfig config =
-            org.apache.hc.client5.http.config.RequestConfig.custom()
-                .setConnectionRequestTimeout(Timeout.ofSeconds(30))
-                .build();
+    @Bean
+    public CloseableHttpClient httpClient(
+        PoolingHttpClientConnectionManager connectionManager,
+        HttpClientProperties properties
+    ) {
+        RequestConfig config = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+            .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+            // used when the response does not say how long the connection can be kept alive for
+            .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+            .build();
 
-        return org.apache.hc.client5.http.impl.classic.HttpClientBuilder
+        return HttpClientBuilder
             .create()
             .useSystemProperties()
+            .setConnectionManager(connectionManager)
             .setDefaultRequestConfig(config)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+            .build();
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+        HttpClientProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+            .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+            .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+            .build();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder
+            .create()
+            .useSystemProperties()
+            .setMaxConnTotal(properties.getMaxTotal())
+            .setMaxConnPerRoute(properties.getMaxPerRoute())
+            .setDefaultConnectionConfig(connectionConfig)
             .build();
+
+        properties.getRoutes().forEach(
+            route -> connectionManager.setMaxPerRoute(toHttpRoute(route.getUrl()), route.getMaxConnections())
+        );
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "downstream").bindTo(meterRegistry);
+
+        return connectionManager;
     }
 
+    static HttpRoute toHttpRoute(String url) {
+        URI uri = URI.create(url);
+        boolean secure = URIScheme.HTTPS.same(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
 }
@@ -0,0 +1,37 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Jackson configuration shared by the application.
+ *
+ * <p>All mappers register the Blackbird module, which replaces reflection with generated
+ * lambdas when reading and writing bean properties. Mappers are expensive to create and
+ * cache serializers per instance, so they are built once and reused.</p>
+ */
+public final class JsonMappers {
+
+    /**
+     * Mapper used to read envelopes from the queue and scanned documents from CCD case data.
+     */
+    public static final JsonMapper ENVELOPES = builder()
+        .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+        .build();
+
+    /**
+     * Creates a builder with the modules shared by all mappers of the application.
+     */
+    public static JsonMapper.Builder builder() {
+        return JsonMapper
+            .builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new BlackbirdModule());
+    }
+
+    private JsonMappers() {
+        // utility class
+    }
+}
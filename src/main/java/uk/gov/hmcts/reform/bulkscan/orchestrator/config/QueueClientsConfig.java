@@ -7,12 +7,15 @@ import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.EnvelopeMessageProcessor;
 
+import java.time.Duration;
+
 @Configuration
 @Profile("!nosb") // do not register handler for the nosb (test) profile
 @ConditionalOnExpression("!${jms.enabled}")
@@ -32,6 +35,8 @@ public class QueueClientsConfig {
     @Bean("envelopes")
     public ServiceBusProcessorClient envelopesMessageReceiver(
         @Qualifier("envelopes-queue-config")QueueConfigurationProperties queueProperties,
+        @Value("${azure.servicebus.envelopes.max-concurrent-calls}") int maxConcurrentCalls,
+        @Value("${azure.servicebus.envelopes.max-auto-lock-renew-duration}") Duration maxAutoLockRenewDuration,
         EnvelopeMessageProcessor messageHandler
     ) {
         return new ServiceBusClientBuilder()
@@ -40,6 +45,8 @@ public class QueueClientsConfig {
             .queueName(queueProperties.getQueueName())
             .receiveMode(ServiceBusReceiveMode.PEEK_LOCK)
             .disableAutoComplete()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxAutoLockRenewDuration(maxAutoLockRenewDuration)
             .processMessage(messageHandler::processMessage)
             .processError(messageHandler::processException)
             .buildProcessorClient();
@@ -58,6 +65,23 @@ public class QueueClientsConfig {
         return createSendClient(queueProperties);
     }
 
+    @Bean("envelopes-retry-queue-config")
+    @ConfigurationProperties(prefix = "azure.servicebus.envelopes-retry")
+    protected QueueConfigurationProperties envelopesRetryQueueConfig() {
+        return new QueueConfigurationProperties();
+    }
+
+    /**
+     * Client used to send envelopes back to the envelopes queue, to be redelivered after a backoff delay.
+     */
+    @Bean("envelopes-retry")
+    @ConditionalOnProperty(name = "azure.servicebus.envelopes.retry.enabled", havingValue = "true")
+    public ServiceBusSenderClient envelopesRetryQueueClient(
+        @Qualifier("envelopes-retry-queue-config") QueueConfigurationProperties queueProperties
+    ) {
+        return createSendClient(queueProperties);
+    }
+
     private ServiceBusSenderClient createSendClient(
         QueueConfigurationProperties queueProperties
     ) {
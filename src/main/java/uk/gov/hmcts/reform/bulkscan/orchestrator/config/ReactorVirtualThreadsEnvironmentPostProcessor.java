@@ -0,0 +1,36 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Runs Service Bus message handlers on virtual threads when virtual threads are enabled.
+ *
+ * <p>The processor client dispatches messages to {@code EnvelopeMessageProcessor} on the reactor
+ * bounded elastic scheduler, which reactor backs with virtual threads when the
+ * {@value #BOUNDED_ELASTIC_ON_VIRTUAL_THREADS} system property is set. Reactor reads it when its schedulers
+ * are first used, so it is set before the application context is created. A property set on the command line
+ * is left as it is.</p>
+ */
+public class ReactorVirtualThreadsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String BOUNDED_ELASTIC_ON_VIRTUAL_THREADS = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+
+    private final Log log;
+
+    public ReactorVirtualThreadsEnvironmentPostProcessor(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(ReactorVirtualThreadsEnvironmentPostProcessor.class);
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (Threading.VIRTUAL.isActive(environment) && System.getProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS) == null) {
+            System.setProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS, "true");
+            log.info("Service Bus message handlers will run on virtual threads");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket limiting retries of calls to a downstream service to a fraction of the calls made to it.
+ *
+ * <p>Each call made (its retries aside) adds a fraction of a token to the bucket and each retry takes a whole token,
+ * so when most calls fail, e.g. during an outage of the service, retries stop instead of multiplying
+ * the load on it. The bucket starts full, so that occasional failures are retried even under low traffic.</p>
+ */
+public class RetryBudget {
+
+    private final double tokensPerRequest;
+    private final double maxTokens;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+
+    private final Counter retriedCounter;
+    private final Counter exhaustedCounter;
+
+    public RetryBudget(String downstream, double ratio, int maxTokens, MeterRegistry meterRegistry) {
+        this.tokensPerRequest = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+
+        this.retriedCounter = meterRegistry.counter("downstream.retries", "client", downstream, "result", "retried");
+        this.exhaustedCounter = meterRegistry.counter(
+            "downstream.retries",
+            "client",
+            downstream,
+            "result",
+            "budget_exhausted"
+        );
+        Gauge.builder("downstream.retry_budget.tokens", this, RetryBudget::getTokens)
+            .tag("client", downstream)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Records a call made to the service. Must be called once per call, not for each of its attempts,
+     * so that retries do not earn budget for further retries.
+     */
+    public void recordRequest() {
+        lock.lock();
+        try {
+            tokens = Math.min(maxTokens, tokens + tokensPerRequest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a token for a retry.
+     *
+     * @return false if there are no tokens left, in which case the call must not be retried
+     */
+    public boolean tryAcquireRetry() {
+        boolean acquired;
+        lock.lock();
+        try {
+            acquired = tokens >= 1;
+            if (acquired) {
+                tokens -= 1;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (acquired) {
+            retriedCounter.increment();
+        } else {
+            exhaustedCounter.increment();
+        }
+        return acquired;
+    }
+
+    public double getTokens() {
+        lock.lock();
+        try {
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
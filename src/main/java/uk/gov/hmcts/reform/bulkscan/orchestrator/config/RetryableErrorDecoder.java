@@ -1,23 +1,67 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 
+import feign.Request.HttpMethod;
 import feign.Response;
 import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 
+import java.util.Collection;
+import java.util.Set;
+
+import static feign.Request.HttpMethod.DELETE;
+import static feign.Request.HttpMethod.GET;
+import static feign.Request.HttpMethod.HEAD;
+import static feign.Request.HttpMethod.OPTIONS;
+import static feign.Request.HttpMethod.PUT;
+
+/**
+ * Makes responses with transient error statuses retryable.
+ *
+ * <p>Calls which are not idempotent are only retried when the downstream service rejected the request
+ * without processing it.</p>
+ */
 public class RetryableErrorDecoder implements ErrorDecoder {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(GET, HEAD, OPTIONS, PUT, DELETE);
+
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 429, 502, 503, 504);
+    private static final Set<Integer> REJECTED_STATUSES = Set.of(429);
+
     private final ErrorDecoder defaultDecoder = new Default();
 
     @Override
     public Exception decode(String methodKey, Response response) {
-        if (response.status() >= 300) {
+        if (isRetryable(response.request().httpMethod(), response.status())) {
             return new RetryableException(
                 response.status(),
                 "Retrying due to status: " + response.status(),
                 response.request().httpMethod(),
-                Long.getLong("100"),
+                retryAfter(response),
                 response.request()
             );
         }
         return defaultDecoder.decode(methodKey, response);
     }
+
+    static boolean isIdempotent(HttpMethod method) {
+        return IDEMPOTENT_METHODS.contains(method);
+    }
+
+    private static boolean isRetryable(HttpMethod method, int status) {
+        return isIdempotent(method) ? TRANSIENT_STATUSES.contains(status) : REJECTED_STATUSES.contains(status);
+    }
+
+    // time to retry at, in epoch millis, when the response says after how many seconds to retry
+    private static Long retryAfter(Response response) {
+        Collection<String> values = response.headers().get("Retry-After");
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return System.currentTimeMillis() + Long.parseLong(values.iterator().next().trim()) * 1000;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.jms.annotation.EnableJms;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.jms.config.JmsListenerContainerFactory;
@@ -42,6 +43,9 @@ public class JmsConfiguration {
     @Value("${jms.idleTimeout}")
     private Long idleTimeout;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
     @Value("${jms.amqp-connection-string-template}")
     public String amqpConnectionStringTemplate;
 
@@ -79,6 +83,11 @@ public class JmsConfiguration {
         factory.setSessionTransacted(Boolean.TRUE);
         factory.setSessionAcknowledgeMode(Session.SESSION_TRANSACTED);
         factory.setMessageConverter(new CustomMessageConverter());
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("jms-listener-");
+            taskExecutor.setVirtualThreads(true);
+            factory.setTaskExecutor(taskExecutor);
+        }
         return factory;
     }
 
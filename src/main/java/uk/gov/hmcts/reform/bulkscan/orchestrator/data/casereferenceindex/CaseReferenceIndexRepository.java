@@ -0,0 +1,52 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public class CaseReferenceIndexRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CaseReferenceIndexRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(ReferenceType referenceType, String reference, String service, long caseId) {
+        jdbcTemplate.update(
+            "INSERT INTO case_reference_index (reference_type, reference, service, case_id, created_at) "
+                + "VALUES (:referenceType, :reference, :service, :caseId, CURRENT_TIMESTAMP) "
+                + "ON CONFLICT (reference_type, reference, service, case_id) DO NOTHING",
+            params(referenceType, reference, service)
+                .addValue("caseId", caseId)
+        );
+    }
+
+    public List<Long> findCaseIds(ReferenceType referenceType, String reference, String service) {
+        return jdbcTemplate.queryForList(
+            "SELECT case_id FROM case_reference_index "
+                + "WHERE reference_type = :referenceType AND reference = :reference AND service = :service "
+                + "ORDER BY case_id",
+            params(referenceType, reference, service),
+            Long.class
+        );
+    }
+
+    public int deleteCreatedBefore(Instant cutoff) {
+        return jdbcTemplate.update(
+            "DELETE FROM case_reference_index WHERE created_at < :cutoff",
+            new MapSqlParameterSource("cutoff", Timestamp.from(cutoff))
+        );
+    }
+
+    private static MapSqlParameterSource params(ReferenceType referenceType, String reference, String service) {
+        return new MapSqlParameterSource()
+            .addValue("referenceType", referenceType.name())
+            .addValue("reference", reference)
+            .addValue("service", service);
+    }
+}
@@ -0,0 +1,7 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex;
+
+public enum ReferenceType {
+    ENVELOPE_ID,
+    EXCEPTION_RECORD_ID,
+    LEGACY_ID
+}
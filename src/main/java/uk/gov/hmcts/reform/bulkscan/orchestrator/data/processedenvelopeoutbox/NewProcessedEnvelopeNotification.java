@@ -0,0 +1,19 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox;
+
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction;
+
+public class NewProcessedEnvelopeNotification {
+    public final String envelopeId;
+    public final Long ccdId;
+    public final EnvelopeCcdAction envelopeCcdAction;
+
+    public NewProcessedEnvelopeNotification(
+        String envelopeId,
+        Long ccdId,
+        EnvelopeCcdAction envelopeCcdAction
+    ) {
+        this.envelopeId = envelopeId;
+        this.ccdId = ccdId;
+        this.envelopeCcdAction = envelopeCcdAction;
+    }
+}
@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox;
+
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ProcessedEnvelopeNotification {
+    public final UUID id;
+    public final Instant createdAt;
+    public final String envelopeId;
+    public final Long ccdId;
+    public final EnvelopeCcdAction envelopeCcdAction;
+
+    public ProcessedEnvelopeNotification(
+        UUID id,
+        Instant createdAt,
+        String envelopeId,
+        Long ccdId,
+        EnvelopeCcdAction envelopeCcdAction
+    ) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.envelopeId = envelopeId;
+        this.ccdId = ccdId;
+        this.envelopeCcdAction = envelopeCcdAction;
+    }
+}
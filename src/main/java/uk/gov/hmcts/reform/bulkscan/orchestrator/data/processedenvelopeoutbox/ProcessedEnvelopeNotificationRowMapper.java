@@ -0,0 +1,24 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@Component
+public class ProcessedEnvelopeNotificationRowMapper implements RowMapper<ProcessedEnvelopeNotification> {
+
+    @Override
+    public ProcessedEnvelopeNotification mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ProcessedEnvelopeNotification(
+            UUID.fromString(rs.getString("id")),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getString("envelope_id"),
+            rs.getObject("ccd_id", Long.class),
+            EnvelopeCcdAction.valueOf(rs.getString("envelope_ccd_action"))
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class ProcessedEnvelopeOutboxRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProcessedEnvelopeNotificationRowMapper rowMapper;
+
+    public ProcessedEnvelopeOutboxRepository(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        ProcessedEnvelopeNotificationRowMapper rowMapper
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowMapper = rowMapper;
+    }
+
+    public UUID insert(NewProcessedEnvelopeNotification notification) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO processed_envelope_outbox (id, envelope_id, ccd_id, envelope_ccd_action, created_at) "
+                + "VALUES (:id, :envelopeId, :ccdId, :envelopeCcdAction, CURRENT_TIMESTAMP)",
+            new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("envelopeId", notification.envelopeId)
+                .addValue("ccdId", notification.ccdId)
+                .addValue("envelopeCcdAction", notification.envelopeCcdAction.name())
+        );
+        return id;
+    }
+
+    /**
+     * Finds the oldest notifications which have not been sent yet and locks them until the end of transaction.
+     * Notifications locked by another transaction are skipped, so that dispatchers running on multiple
+     * instances do not send the same notifications.
+     */
+    public List<ProcessedEnvelopeNotification> findPendingForUpdate(int limit) {
+        return jdbcTemplate.query(
+            "SELECT * FROM processed_envelope_outbox "
+                + "ORDER BY created_at "
+                + "LIMIT :limit "
+                + "FOR UPDATE SKIP LOCKED",
+            new MapSqlParameterSource("limit", limit),
+            rowMapper
+        );
+    }
+
+    public int delete(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+            "DELETE FROM processed_envelope_outbox WHERE id IN (:ids)",
+            new MapSqlParameterSource("ids", ids)
+        );
+    }
+}
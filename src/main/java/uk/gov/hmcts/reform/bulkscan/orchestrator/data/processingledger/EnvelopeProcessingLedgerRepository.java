@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public class EnvelopeProcessingLedgerRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public EnvelopeProcessingLedgerRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsert(String envelopeId, ProcessingStep step, String output) {
+        jdbcTemplate.update(
+            "INSERT INTO envelope_processing_ledger (envelope_id, step, output, created_at) "
+                + "VALUES (:envelopeId, :step, :output, CURRENT_TIMESTAMP) "
+                + "ON CONFLICT (envelope_id, step) DO UPDATE "
+                + "SET output = EXCLUDED.output, created_at = EXCLUDED.created_at",
+            new MapSqlParameterSource()
+                .addValue("envelopeId", envelopeId)
+                .addValue("step", step.name())
+                .addValue("output", output)
+        );
+    }
+
+    public Optional<String> findOutput(String envelopeId, ProcessingStep step) {
+        return jdbcTemplate.queryForList(
+            "SELECT output FROM envelope_processing_ledger WHERE envelope_id = :envelopeId AND step = :step",
+            new MapSqlParameterSource()
+                .addValue("envelopeId", envelopeId)
+                .addValue("step", step.name()),
+            String.class
+        ).stream().findFirst();
+    }
+
+    /**
+     * Deletes entries created before the cutoff, except records of writes to CCD being started, which are
+     * deleted only when created before their own cutoff. A missing record allows the envelope to skip searching
+     * CCD for cases created from it, so those records have to be kept for as long as the envelope can be
+     * delivered again.
+     */
+    public int deleteCreatedBefore(Instant cutoff, Instant ccdWriteStartedCutoff) {
+        return jdbcTemplate.update(
+            "DELETE FROM envelope_processing_ledger "
+                + "WHERE (step <> :ccdWriteStarted AND created_at < :cutoff) "
+                + "OR (step = :ccdWriteStarted AND created_at < :ccdWriteStartedCutoff)",
+            new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.from(cutoff))
+                .addValue("ccdWriteStartedCutoff", Timestamp.from(ccdWriteStartedCutoff))
+                .addValue("ccdWriteStarted", ProcessingStep.CCD_WRITE_STARTED.name())
+        );
+    }
+}
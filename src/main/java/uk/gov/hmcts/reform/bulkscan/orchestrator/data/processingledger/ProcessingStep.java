@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger;
+
+public enum ProcessingStep {
+    CASE_ID,
+    DOCUMENT_HASHES,
+    CASE_UPDATED,
+    CCD_WRITE_STARTED
+}
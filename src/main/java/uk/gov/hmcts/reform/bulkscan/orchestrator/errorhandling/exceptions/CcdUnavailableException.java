@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a call to CCD was not made, because CCD is failing or overloaded for the jurisdiction and case type.
+ */
+public class CcdUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 8236541967523580934L;
+
+    private final Duration retryAfter;
+
+    public CcdUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Time after which the call is worth retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
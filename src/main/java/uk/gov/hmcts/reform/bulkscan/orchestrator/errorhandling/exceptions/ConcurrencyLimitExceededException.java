@@ -0,0 +1,10 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 4617735250834214902L;
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions;
+
+public class ProcessingDeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = -3297452618342906271L;
+
+    public ProcessingDeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -16,13 +16,14 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.env
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
-import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.ExceptionRecordFields.SCANNED_DOCUMENTS;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.ServiceCaseFields.BULK_SCAN_ENVELOPES;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.util.Util.getDocumentUuid;
@@ -48,33 +49,36 @@ public class CaseDataUpdater {
     ) {
         var updatedCaseData = newHashMap(caseData);
 
-        List<String> exceptionRecordDcns =
+        Set<String> exceptionRecordDcns =
             exceptionRecord
                 .scannedDocuments
                 .stream()
                 .map(doc -> doc.controlNumber)
-                .collect(toList());
-        List<Map<String, ScannedDocument>> updatedScannedDocuments =
-            getScannedDocuments(caseData)
+                .collect(toSet());
+        // documents not received with the exception record are left as they are
+        var scannedDocuments = ScannedDocumentsCollection.of(caseData.get(SCANNED_DOCUMENTS));
+        Map<Integer, ScannedDocument> exceptionRecordDocuments =
+            scannedDocuments.findByControlNumbers(exceptionRecordDcns);
+        Map<String, String> documentHashes = cdamApiClient.getDocumentHashes(
+            exceptionRecord.poBoxJurisdiction,
+            exceptionRecordDocuments
+                .values()
                 .stream()
-                .map(doc -> {
-                    if (exceptionRecordDcns.contains(doc.controlNumber)) {
-                        // set exceptionReference if the document received with the exception record
-                        return getScannedDocumentWithDocumentHash(
-                            doc,
-                            exceptionRecord.poBoxJurisdiction,
-                            getDocumentUuid(doc.url.documentUrl),
-                            exceptionRecord.id
-                        );
-                    } else {
-                        // do not update the document if it was received with some previous exception record
-                        return Map.of("value", doc);
-                    }
-                })
-                .collect(toList());
+                .map(doc -> getDocumentUuid(doc.url.documentUrl))
+                .collect(toList())
+        );
+        // set exceptionReference if the document received with the exception record
+        exceptionRecordDocuments.forEach((index, doc) -> scannedDocuments.replace(
+            index,
+            getScannedDocumentWithDocumentHash(
+                doc,
+                documentHashes.get(getDocumentUuid(doc.url.documentUrl)),
+                exceptionRecord.id
+            )
+        ));
 
         // replace scanned docs list
-        updatedCaseData.put(SCANNED_DOCUMENTS, updatedScannedDocuments);
+        updatedCaseData.put(SCANNED_DOCUMENTS, scannedDocuments.toCcdValue());
 
         return updatedCaseData;
     }
@@ -90,30 +94,34 @@ public class CaseDataUpdater {
                 .stream()
                 .collect(toMap(doc -> doc.controlNumber, Function.identity()));
 
-        List<Map<String, ScannedDocument>> updatedScannedDocuments =
-            getScannedDocuments(transformedCaseData)
+        // documents not received with the envelope are left as they are
+        var scannedDocuments = ScannedDocumentsCollection.of(transformedCaseData.get(SCANNED_DOCUMENTS));
+        Map<Integer, ScannedDocument> envelopeDocuments = scannedDocuments.findByControlNumbers(envelopeDocs.keySet());
+        Map<String, String> documentHashes = cdamApiClient.getDocumentHashes(
+            envelope.jurisdiction,
+            envelopeDocuments
+                .values()
                 .stream()
-                .map(doc -> {
-                    Document document = envelopeDocs.get(doc.controlNumber);
-                    if (document != null) {
-                        // set document hash if the document received with the envelope
-                        log.info("Set document hash for DCN {}", document.controlNumber);
-                        return getScannedDocumentWithDocumentHash(
-                            doc,
-                            envelope.jurisdiction,
-                            document.uuid,
-                            null
-                        );
-                    } else {
-                        // do not update the document if it was received with some previous exception record
-                        return Map.of("value", doc);
-                    }
-                })
-                .collect(toList());
+                .map(doc -> envelopeDocs.get(doc.controlNumber).uuid)
+                .collect(toList())
+        );
+        envelopeDocuments.forEach((index, doc) -> {
+            Document document = envelopeDocs.get(doc.controlNumber);
+            // set document hash if the document received with the envelope
+            log.info("Set document hash for DCN {}", document.controlNumber);
+            scannedDocuments.replace(
+                index,
+                getScannedDocumentWithDocumentHash(
+                    doc,
+                    document.uuid == null ? null : documentHashes.get(document.uuid),
+                    null
+                )
+            );
+        });
 
         var updatedCaseData = newHashMap(transformedCaseData);
 
-        updatedCaseData.put(SCANNED_DOCUMENTS, updatedScannedDocuments);
+        updatedCaseData.put(SCANNED_DOCUMENTS, scannedDocuments.toCcdValue());
 
         return updatedCaseData;
 
@@ -143,8 +151,7 @@ public class CaseDataUpdater {
 
     private Map<String, ScannedDocument> getScannedDocumentWithDocumentHash(
         ScannedDocument doc,
-        String poBoxJurisdiction,
-        String documentUuid,
+        String documentHash,
         String exceptionRecordId
     ) {
         return Map.of("value", new ScannedDocument(
@@ -153,26 +160,9 @@ public class CaseDataUpdater {
             doc.type,
             doc.subtype,
             doc.scannedDate,
-            new CcdDocument(
-                doc.url.documentUrl,
-                cdamApiClient.getDocumentHash(
-                    poBoxJurisdiction,
-                    documentUuid
-                )
-            ),
+            new CcdDocument(doc.url.documentUrl, documentHash),
             doc.deliveryDate,
             exceptionRecordId
         ));
     }
-
-    @SuppressWarnings("unchecked")
-    private List<ScannedDocument> getScannedDocuments(Map<String, Object> caseData) {
-        var scannedDocuments = (List<Map<String, Object>>) caseData.get(SCANNED_DOCUMENTS);
-
-        return scannedDocuments == null
-            ? emptyList()
-            : scannedDocuments.stream()
-            .map(ScannedDocumentsHelper::createScannedDocumentWithCcdData)
-            .collect(toList());
-    }
 }
@@ -0,0 +1,98 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Scanned documents collection of a case, with documents appended to it or updated in it.
+ *
+ * <p>Cases can have thousands of scanned documents, and CCD needs the whole collection to be sent back
+ * with each event. Elements read from the case are kept untouched, as CCD returned them, and only the documents
+ * being updated are converted to {@link ScannedDocument}. The list sent to CCD is a view over the original
+ * elements, the replaced ones and the appended ones, so old elements are neither converted nor copied.</p>
+ */
+public final class ScannedDocumentsCollection {
+
+    private final List<?> existingElements;
+    private final Map<Integer, Object> replacedElements = new HashMap<>();
+    private final List<Object> appendedElements = new ArrayList<>();
+
+    private ScannedDocumentsCollection(List<?> existingElements) {
+        this.existingElements = existingElements;
+    }
+
+    /**
+     * Creates the collection from the value of the scanned documents field, as read from case data.
+     */
+    public static ScannedDocumentsCollection of(Object scannedDocumentsField) {
+        return new ScannedDocumentsCollection(
+            scannedDocumentsField == null ? emptyList() : (List<?>) scannedDocumentsField
+        );
+    }
+
+    /**
+     * Finds existing documents with given control numbers. Only the documents found are converted.
+     *
+     * @return documents found, by their position in the collection
+     */
+    public Map<Integer, ScannedDocument> findByControlNumbers(Collection<String> controlNumbers) {
+        Map<Integer, ScannedDocument> found = new LinkedHashMap<>();
+        for (int i = 0; i < existingElements.size(); i++) {
+            if (controlNumbers.contains(getControlNumber(existingElements.get(i)))) {
+                found.put(i, ScannedDocumentsHelper.createScannedDocumentWithCcdData(element(i)));
+            }
+        }
+        return found;
+    }
+
+    public void replace(int index, Object element) {
+        replacedElements.put(index, element);
+    }
+
+    public void append(Collection<?> elements) {
+        appendedElements.addAll(elements);
+    }
+
+    /**
+     * Value of the scanned documents field to send to CCD.
+     */
+    public List<Object> toCcdValue() {
+        return new AbstractList<>() {
+            @Override
+            public Object get(int index) {
+                if (index < existingElements.size()) {
+                    Object replaced = replacedElements.get(index);
+                    return replaced != null ? replaced : existingElements.get(index);
+                }
+                return appendedElements.get(index - existingElements.size());
+            }
+
+            @Override
+            public int size() {
+                return existingElements.size() + appendedElements.size();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> element(int index) {
+        return (Map<String, Object>) existingElements.get(index);
+    }
+
+    // reads the control number without converting the whole element
+    private static String getControlNumber(Object element) {
+        return element instanceof Map<?, ?> map && map.get("value") instanceof Map<?, ?> value
+            && value.get("controlNumber") instanceof String controlNumber
+            ? controlNumber
+            : null;
+    }
+}
@@ -1,9 +1,7 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
 
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.commons.lang3.StringUtils;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.JsonMappers;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -18,14 +16,6 @@ import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.
 
 public class ScannedDocumentsHelper {
 
-    private static final ObjectMapper objectMapper;
-
-    static {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
-    }
-
     private ScannedDocumentsHelper() {
         // utility class
     }
@@ -46,7 +36,7 @@ public class ScannedDocumentsHelper {
     }
 
     static ScannedDocument createScannedDocumentWithCcdData(Map<String, Object> object) {
-        return objectMapper.convertValue(object.get("value"), ScannedDocument.class);
+        return JsonMappers.ENVELOPES.convertValue(object.get("value"), ScannedDocument.class);
     }
 
     private static Document mapScannedDocument(ScannedDocument doc) {
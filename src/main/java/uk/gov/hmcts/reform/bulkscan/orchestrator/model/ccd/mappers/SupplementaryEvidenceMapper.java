@@ -7,13 +7,16 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseAction;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CcdCollectionElement;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.EnvelopeReference;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.SupplementaryEvidence;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseDocumentsIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EnvelopeReferenceHelper;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.collect.Lists.newArrayList;
@@ -40,6 +43,32 @@ public class SupplementaryEvidenceMapper {
         List<Document> existingDocs,
         List<Map<String, Object>> existingEnvelopeReferences,
         Envelope envelope
+    ) {
+        return map(
+            existingDocs,
+            existingEnvelopeReferences,
+            envelope,
+            () -> getDocsToAdd(existingDocs, envelope.documents)
+        );
+    }
+
+    /**
+     * Maps documents from the envelope, when the documents to add to the case have already been worked out.
+     */
+    public SupplementaryEvidence map(
+        List<Document> existingDocs,
+        List<Map<String, Object>> existingEnvelopeReferences,
+        Envelope envelope,
+        List<Document> docsToAdd
+    ) {
+        return map(existingDocs, existingEnvelopeReferences, envelope, () -> docsToAdd);
+    }
+
+    private SupplementaryEvidence map(
+        List<Document> existingDocs,
+        List<Map<String, Object>> existingEnvelopeReferences,
+        Envelope envelope,
+        Supplier<List<Document>> docsToAdd
     ) {
         log.info(String.format("Mapping documents: container %s, zipFileName %s, caseRef %s",
             envelope.container,
@@ -47,11 +76,11 @@ public class SupplementaryEvidenceMapper {
             envelope.caseRef
         ));
         List<CcdCollectionElement<EnvelopeReference>> updatedEnvelopeReferences =
-            updateEnvelopeReferences(existingEnvelopeReferences, envelope);
+            updateEnvelopeReferences(existingEnvelopeReferences, List.of(envelope));
 
         var scannedDocuments = docMapper.mapDocuments(
             existingDocs,
-            getDocsToAdd(existingDocs, envelope.documents),
+            docsToAdd.get(),
             envelope.deliveryDate,
             envelope.jurisdiction
         );
@@ -59,11 +88,54 @@ public class SupplementaryEvidenceMapper {
         return new SupplementaryEvidence(scannedDocuments, updatedEnvelopeReferences);
     }
 
+    /**
+     * Maps documents from envelopes targeting the same case, so that they are attached to it in a single event.
+     * Documents which appear in more than one of the envelopes are added once.
+     */
+    public SupplementaryEvidence mapAll(
+        List<Document> existingDocs,
+        List<Map<String, Object>> existingEnvelopeReferences,
+        List<Envelope> envelopes
+    ) {
+        Envelope firstEnvelope = envelopes.get(0);
+        log.info(String.format("Mapping documents: container %s, zipFileNames %s, caseRef %s",
+            firstEnvelope.container,
+            envelopes.stream().map(envelope -> envelope.zipFileName).collect(joining(",")),
+            firstEnvelope.caseRef
+        ));
+
+        List<Document> docs = new ArrayList<>(existingDocs);
+        CaseDocumentsIndex docsIndex = CaseDocumentsIndex.ofDocuments(existingDocs);
+        List<Document> docsToAdd = new ArrayList<>();
+        for (Envelope envelope : envelopes) {
+            for (Document document : getDocsToAdd(docs, docsIndex, envelope.documents)) {
+                // each document keeps the delivery date of its own envelope
+                Document docToAdd = withDeliveryDate(document, envelope.deliveryDate);
+                docs.add(docToAdd);
+                docsIndex.add(docToAdd);
+                docsToAdd.add(docToAdd);
+            }
+        }
+
+        var scannedDocuments = docMapper.mapDocuments(
+            existingDocs,
+            docsToAdd,
+            firstEnvelope.deliveryDate,
+            firstEnvelope.jurisdiction
+        );
+
+        return new SupplementaryEvidence(
+            scannedDocuments,
+            updateEnvelopeReferences(existingEnvelopeReferences, envelopes)
+        );
+    }
+
     private List<CcdCollectionElement<EnvelopeReference>> updateEnvelopeReferences(
         List<Map<String, Object>> existingEnvelopeReferences,
-        Envelope envelope
+        List<Envelope> envelopes
     ) {
-        if (envelopeReferenceHelper.serviceSupportsEnvelopeReferences(envelope.container)) {
+        Envelope firstEnvelope = envelopes.get(0);
+        if (envelopeReferenceHelper.serviceSupportsEnvelopeReferences(firstEnvelope.container)) {
             var updatedEnvelopeReferences = newArrayList(
                 envelopeReferenceHelper.parseEnvelopeReferences(existingEnvelopeReferences)
             );
@@ -73,19 +145,21 @@ public class SupplementaryEvidenceMapper {
                 .map(e -> "id:" + e.value.id + "-action:" + e.value.action)
                 .collect(Collectors.joining(","));
 
-            log.info(
-                String.format(
-                    "Update case: %s, zip file: %s, envelope id: %s, "
-                        + "existing case has bulkscan refs: %s",
-                    envelope.caseRef,
-                    envelope.zipFileName,
-                    envelope.id,
-                    existingReferences
-                )
-            );
-            updatedEnvelopeReferences.add(
-                new CcdCollectionElement<>(new EnvelopeReference(envelope.id, CaseAction.UPDATE))
-            );
+            for (Envelope envelope : envelopes) {
+                log.info(
+                    String.format(
+                        "Update case: %s, zip file: %s, envelope id: %s, "
+                            + "existing case has bulkscan refs: %s",
+                        envelope.caseRef,
+                        envelope.zipFileName,
+                        envelope.id,
+                        existingReferences
+                    )
+                );
+                updatedEnvelopeReferences.add(
+                    new CcdCollectionElement<>(new EnvelopeReference(envelope.id, CaseAction.UPDATE))
+                );
+            }
 
             return updatedEnvelopeReferences;
         } else {
@@ -94,12 +168,21 @@ public class SupplementaryEvidenceMapper {
     }
 
     public List<Document> getDocsToAdd(List<Document> existingDocs, List<Document> newDocs) {
+        return getDocsToAdd(existingDocs, CaseDocumentsIndex.ofDocuments(existingDocs), newDocs);
+    }
+
+    // documents are duplicates when they have the same uuid or the same control number
+    private List<Document> getDocsToAdd(
+        List<Document> existingDocs,
+        CaseDocumentsIndex existingDocsIndex,
+        List<Document> newDocs
+    ) {
         logDocuments("Existing docs", existingDocs);
         logDocuments("New docs", newDocs);
 
         final List<Document> docsToAdd = newDocs
             .stream()
-            .filter(d -> existingDocs.stream().noneMatch(e -> areDuplicates(d, e)))
+            .filter(d -> !existingDocsIndex.containsDuplicateOf(d))
             .collect(toList());
 
         logDocuments("Docs to add", docsToAdd);
@@ -107,15 +190,25 @@ public class SupplementaryEvidenceMapper {
         return docsToAdd;
     }
 
+    private static Document withDeliveryDate(Document document, Instant deliveryDate) {
+        if (document.deliveryDate != null) {
+            return document;
+        }
+        return new Document(
+            document.fileName,
+            document.controlNumber,
+            document.type,
+            document.subtype,
+            document.scannedAt,
+            document.uuid,
+            deliveryDate
+        );
+    }
+
     private void logDocuments(String header, List<Document> docs) {
         final String docLogs = docs.stream()
             .map(doc -> "uuid: " + doc.uuid + ", dcn: " + doc.controlNumber + ", fileName: " + doc.fileName)
             .collect(joining("; "));
         log.info(String.format("%s: %s", header, docLogs));
     }
-
-    private boolean areDuplicates(Document d1, Document d2) {
-        return Objects.equals(d1.uuid, d2.uuid)
-            || Objects.equals(d1.controlNumber, d2.controlNumber);
-    }
 }
@@ -0,0 +1,75 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.CaseReferenceIndexRepository;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Maps references this service wrote to CCD cases (envelope IDs, exception record IDs and legacy IDs)
+ * to IDs of the cases, so that they can be found without searching CCD.
+ *
+ * <p>CCD search is eventually consistent, so a case created moments ago may not be found by it yet.
+ * The index is consulted before the search and, unlike the search, sees every case this service
+ * created or updated as soon as the CCD call returns. It is an optimisation only - when the index
+ * has no entry for a reference or cannot be read, callers fall back to searching CCD, and failures
+ * to write it are logged and ignored. Entries are deleted once CCD search is expected to find the cases,
+ * see {@link uk.gov.hmcts.reform.bulkscan.orchestrator.tasks.DeleteCaseReferenceIndexEntriesTask}.</p>
+ */
+@Service
+public class CaseReferenceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseReferenceIndex.class);
+
+    private final CaseReferenceIndexRepository repository;
+    private final boolean enabled;
+
+    public CaseReferenceIndex(
+        CaseReferenceIndexRepository repository,
+        @Value("${case-reference-index.enabled}") boolean enabled
+    ) {
+        this.repository = repository;
+        this.enabled = enabled;
+    }
+
+    public List<Long> findCaseIds(ReferenceType referenceType, String reference, String service) {
+        if (!enabled) {
+            return emptyList();
+        }
+
+        try {
+            List<Long> caseIds = repository.findCaseIds(referenceType, reference, service);
+            if (!caseIds.isEmpty()) {
+                log.info("Found cases {} in case reference index by {} {}", caseIds, referenceType, reference);
+            }
+            return caseIds;
+        } catch (Exception exc) {
+            log.warn("Failed to read case reference index by {} {}", referenceType, reference, exc);
+            return emptyList();
+        }
+    }
+
+    public void record(ReferenceType referenceType, String reference, String service, long caseId) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            repository.insert(referenceType, reference, service, caseId);
+        } catch (Exception exc) {
+            log.warn(
+                "Failed to record {} {} of case {} in case reference index",
+                referenceType,
+                reference,
+                caseId,
+                exc
+            );
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.Collections.emptySet;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.util.Util.getDocumentUuid;
+
+/**
+ * Index of the scanned documents of a case, for checking whether documents being attached are already in it.
+ *
+ * <p>Built once per case snapshot, so that the checks made while attaching documents do not each walk
+ * all documents of the case again. Documents are indexed by control number (DCN) and document UUID,
+ * and DCNs are grouped by the reference of the exception record the documents were attached from.</p>
+ */
+public final class CaseDocumentsIndex {
+
+    // exception record references are null for documents not attached from an exception record
+    private final Map<String, Set<String>> exceptionRecordsByControlNumber = new HashMap<>();
+    private final Map<String, Set<String>> controlNumbersByExceptionRecord = new HashMap<>();
+    private final Set<String> uuids = new HashSet<>();
+
+    private CaseDocumentsIndex() {
+    }
+
+    /**
+     * Indexes scanned documents as read from case data.
+     */
+    public static CaseDocumentsIndex of(List<Map<String, Object>> scannedDocuments) {
+        var index = new CaseDocumentsIndex();
+        for (Map<String, Object> document : scannedDocuments) {
+            index.index(
+                Documents.getDocumentId(document),
+                getDocumentUrlUuid(document),
+                Documents.getExceptionRecordReference(document)
+            );
+        }
+        return index;
+    }
+
+    public static CaseDocumentsIndex ofDocuments(List<Document> documents) {
+        var index = new CaseDocumentsIndex();
+        documents.forEach(index::add);
+        return index;
+    }
+
+    /**
+     * Adds a document attached to the case after the index was built.
+     */
+    public void add(Document document) {
+        index(document.controlNumber, document.uuid, null);
+    }
+
+    /**
+     * Tells whether the document has the same control number or UUID as any document of the case.
+     */
+    public boolean containsDuplicateOf(Document document) {
+        return exceptionRecordsByControlNumber.containsKey(document.controlNumber) || uuids.contains(document.uuid);
+    }
+
+    public Set<String> getControlNumbersAttachedFrom(String exceptionRecordReference) {
+        return controlNumbersByExceptionRecord.getOrDefault(exceptionRecordReference, emptySet());
+    }
+
+    /**
+     * Tells whether the case has a document with given control number which was not attached
+     * from given exception record.
+     */
+    public boolean containsFromOtherSource(String controlNumber, String exceptionRecordReference) {
+        return exceptionRecordsByControlNumber
+            .getOrDefault(controlNumber, emptySet())
+            .stream()
+            .anyMatch(reference -> !Objects.equals(reference, exceptionRecordReference));
+    }
+
+    private void index(String controlNumber, String uuid, String exceptionRecordReference) {
+        exceptionRecordsByControlNumber
+            .computeIfAbsent(controlNumber, key -> new HashSet<>())
+            .add(exceptionRecordReference);
+        controlNumbersByExceptionRecord
+            .computeIfAbsent(exceptionRecordReference, key -> new HashSet<>())
+            .add(controlNumber);
+        uuids.add(uuid);
+    }
+
+    private static String getDocumentUrlUuid(Map<String, Object> document) {
+        return document.get("value") instanceof Map<?, ?> value
+            && value.get("url") instanceof Map<?, ?> url
+            && url.get("document_url") instanceof String documentUrl
+            ? getDocumentUuid(documentUrl)
+            : null;
+    }
+}
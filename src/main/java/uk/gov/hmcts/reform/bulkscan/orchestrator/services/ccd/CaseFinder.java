@@ -8,24 +8,36 @@ import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CaseNotFoundException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.internal.ExceptionRecord;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
 import java.util.List;
 import java.util.Optional;
 
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.ENVELOPE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.EXCEPTION_RECORD_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
+
 @Service
 public class CaseFinder {
 
     private static final Logger log = LoggerFactory.getLogger(CaseFinder.class);
 
     private final CcdApi ccdApi;
+    private final CaseReferenceIndex caseReferenceIndex;
 
-    public CaseFinder(CcdApi ccdApi) {
+    public CaseFinder(CcdApi ccdApi, CaseReferenceIndex caseReferenceIndex) {
         this.ccdApi = ccdApi;
+        this.caseReferenceIndex = caseReferenceIndex;
     }
 
     public List<Long> findCases(ExceptionRecord exceptionRecord, ServiceConfigItem serviceConfig) {
+        List<Long> indexedIds =
+            caseReferenceIndex.findCaseIds(EXCEPTION_RECORD_ID, exceptionRecord.id, serviceConfig.getService());
+        if (!indexedIds.isEmpty()) {
+            return indexedIds;
+        }
 
         log.info(
             "Searching for existing service cases (by exception record ID) for exception record {}",
@@ -41,12 +53,34 @@ public class CaseFinder {
                 "Searching for existing service cases (by envelope id) for exception record {}",
                 exceptionRecord.id
             );
-            ids = ccdApi.getCaseRefsByEnvelopeId(exceptionRecord.envelopeId, serviceConfig.getService());
+            ids = caseReferenceIndex.findCaseIds(ENVELOPE_ID, exceptionRecord.envelopeId, serviceConfig.getService());
+            if (ids.isEmpty()) {
+                ids = ccdApi.getCaseRefsByEnvelopeId(exceptionRecord.envelopeId, serviceConfig.getService());
+            }
         }
 
         return ids;
     }
 
+    /**
+     * Remembers the case created from the exception record, so that {@link #findCases} finds it
+     * before CCD search does.
+     */
+    public void recordCaseCreatedFrom(ExceptionRecord exceptionRecord, ServiceConfigItem serviceConfig, long caseId) {
+        caseReferenceIndex.record(EXCEPTION_RECORD_ID, exceptionRecord.id, serviceConfig.getService(), caseId);
+        if (exceptionRecord.envelopeId != null) {
+            caseReferenceIndex.record(ENVELOPE_ID, exceptionRecord.envelopeId, serviceConfig.getService(), caseId);
+        }
+    }
+
+    /**
+     * Remembers the case the envelope has been attached to, so that the case is found by the envelope ID
+     * before CCD search finds it.
+     */
+    public void recordEnvelopeAttachedTo(Envelope envelope, long caseId) {
+        caseReferenceIndex.record(ENVELOPE_ID, envelope.id, envelope.container, caseId);
+    }
+
     public Optional<CaseDetails> findCase(Envelope envelope) {
         Optional<CaseDetails> caseDetails = isValidCaseRef(envelope.caseRef)
             ? getCaseByCcdId(envelope.caseRef, envelope.jurisdiction)
@@ -67,6 +101,18 @@ public class CaseFinder {
     }
 
     private Optional<CaseDetails> getCaseByLegacyId(Envelope envelope) {
+        List<Long> indexedCaseRefs =
+            caseReferenceIndex.findCaseIds(LEGACY_ID, envelope.legacyCaseRef, envelope.container);
+
+        if (indexedCaseRefs.size() == 1) {
+            Optional<CaseDetails> details =
+                getCaseByCcdId(String.valueOf(indexedCaseRefs.get(0)), envelope.jurisdiction);
+
+            if (details.isPresent()) {
+                return details;
+            }
+        }
+
         List<Long> ccdCaseRefs =
             ccdApi.getCaseRefsByLegacyId(envelope.legacyCaseRef, envelope.container);
 
@@ -76,6 +122,10 @@ public class CaseFinder {
             Optional<CaseDetails> details =
                 getCaseByCcdId(String.valueOf(caseCcdRef), envelope.jurisdiction);
 
+            if (details.isPresent()) {
+                caseReferenceIndex.record(LEGACY_ID, envelope.legacyCaseRef, envelope.container, caseCcdRef);
+            }
+
             logCaseRetrievalResultBasedOnLegacyIdSearch(
                 details.isPresent(),
                 caseCcdRef,
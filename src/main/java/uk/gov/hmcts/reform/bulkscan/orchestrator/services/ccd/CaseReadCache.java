@@ -0,0 +1,174 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Avoids repeated reads of the same case from CCD.
+ *
+ * <p>Concurrent reads of the same case are collapsed into a single call, whose result is shared by all readers.
+ * Within a processing unit (an envelope or a callback, see {@link #openScope()}) the case read
+ * is also reused by later reads, until the case is modified, see {@link #invalidate(String)}.</p>
+ *
+ * <p>The case read is kept as it came from CCD, and every reader gets its own copy of it,
+ * so that changes made by one reader to case data are not seen by others.</p>
+ */
+@Component
+public class CaseReadCache {
+
+    private static final ThreadLocal<Map<CaseKey, CaseDetails>> SCOPE = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Map<CaseKey, CompletableFuture<CaseDetails>> readsInFlight = new ConcurrentHashMap<>();
+
+    private final Counter fetchedCounter;
+    private final Counter coalescedCounter;
+    private final Counter scopeHitCounter;
+
+    public CaseReadCache(
+        @Value("${core_case_data.case-read-cache.enabled}") boolean enabled,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.fetchedCounter = meterRegistry.counter("ccd.case_reads", "result", "fetched");
+        this.coalescedCounter = meterRegistry.counter("ccd.case_reads", "result", "coalesced");
+        this.scopeHitCounter = meterRegistry.counter("ccd.case_reads", "result", "scope_hit");
+    }
+
+    /**
+     * Opens the scope of a processing unit, in which cases read are reused until the scope is closed.
+     * Scopes opened within an open scope share the outermost one.
+     */
+    public static Scope openScope() {
+        if (SCOPE.get() != null) {
+            return new Scope(false);
+        }
+
+        SCOPE.set(new HashMap<>());
+        return new Scope(true);
+    }
+
+    /**
+     * Returns the case read earlier in the current processing unit or by a concurrent read,
+     * or reads it with given reader. The case returned can be modified freely by the caller.
+     */
+    public CaseDetails getCase(String caseRef, String jurisdiction, Supplier<CaseDetails> reader) {
+        if (!enabled) {
+            return reader.get();
+        }
+
+        var key = new CaseKey(caseRef, jurisdiction);
+        Map<CaseKey, CaseDetails> scope = SCOPE.get();
+
+        CaseDetails caseDetails = scope == null ? null : scope.get(key);
+        if (caseDetails != null) {
+            scopeHitCounter.increment();
+            return copyOf(caseDetails);
+        }
+
+        caseDetails = readOnce(key, reader);
+        if (scope != null && caseDetails != null) {
+            scope.put(key, caseDetails);
+        }
+        return copyOf(caseDetails);
+    }
+
+    /**
+     * Forgets the case, so that it is read again after being modified.
+     */
+    public void invalidate(String caseRef) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<CaseKey, CaseDetails> scope = SCOPE.get();
+        if (scope != null) {
+            scope.keySet().removeIf(key -> key.caseRef.equals(caseRef));
+        }
+        // reads started before the modification must not be joined by later readers
+        readsInFlight.keySet().removeIf(key -> key.caseRef.equals(caseRef));
+    }
+
+    private CaseDetails readOnce(CaseKey key, Supplier<CaseDetails> reader) {
+        var read = new CompletableFuture<CaseDetails>();
+        CompletableFuture<CaseDetails> readInFlight = readsInFlight.putIfAbsent(key, read);
+
+        if (readInFlight != null) {
+            coalescedCounter.increment();
+            try {
+                return readInFlight.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+
+        try {
+            fetchedCounter.increment();
+            CaseDetails caseDetails = reader.get();
+            read.complete(caseDetails);
+            return caseDetails;
+        } catch (RuntimeException | Error ex) {
+            read.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            readsInFlight.remove(key, read);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CaseDetails copyOf(CaseDetails caseDetails) {
+        return caseDetails == null
+            ? null
+            : caseDetails.toBuilder().data((Map<String, Object>) deepCopy(caseDetails.getData())).build();
+    }
+
+    // case data is a JSON tree of maps, lists and immutable values
+    private static Object deepCopy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            var copy = new LinkedHashMap<Object, Object>(map.size() * 2);
+            map.forEach((key, item) -> copy.put(key, deepCopy(item)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            var copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(deepCopy(item)));
+            return copy;
+        }
+        return value;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final boolean outermost;
+
+        private Scope(boolean outermost) {
+            this.outermost = outermost;
+        }
+
+        @Override
+        public void close() {
+            if (outermost) {
+                SCOPE.remove();
+            }
+        }
+    }
+
+    private record CaseKey(String caseRef, String jurisdiction) {
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.util.Collection;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Elasticsearch queries used to find cases in CCD.
+ *
+ * <p>Each query matches a single case field and asks CCD to return only the fields needed
+ * to get IDs of the found cases.</p>
+ */
+enum CaseSearchQuery {
+
+    BY_LEGACY_ID("alias.previousServiceCaseReference"),
+    BY_ENVELOPE_ID("data.envelopeId"),
+    BY_BULK_SCAN_CASE_REFERENCE("data.bulkScanCaseReference"),
+    BY_CASE_ENVELOPE_ID("data.bulkScanEnvelopes.value.id");
+
+    private static final String SUFFIX = "\"}},\"_source\":[\"reference\"]}";
+
+    // max number of cases returned per searched value in queries matching many values
+    private static final int MAX_CASES_PER_VALUE = 10;
+
+    private final String field;
+    private final String prefix;
+
+    CaseSearchQuery(String field) {
+        this.field = field;
+        this.prefix = "{\"query\":{\"match_phrase\":{\"" + field + "\":\"";
+    }
+
+    /**
+     * Builds the query matching given value, which is escaped to be safely embedded in JSON.
+     */
+    String forValue(String value) {
+        return prefix + escape(value) + SUFFIX;
+    }
+
+    /**
+     * Builds the query matching any of given values exactly. Apart from the case reference, the query asks
+     * for the case field holding the matched value, so that found cases can be assigned to searched values.
+     */
+    String forAnyOf(Collection<String> values, String returnedField) {
+        return "{\"query\":{\"terms\":{\"" + field + ".keyword\":["
+            + values.stream().map(value -> "\"" + escape(value) + "\"").collect(joining(","))
+            + "]}},\"_source\":[\"reference\",\"" + returnedField + "\"],"
+            + "\"size\":" + values.size() * MAX_CASES_PER_VALUE + "}";
+    }
+
+    private static String escape(String value) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+    }
+}
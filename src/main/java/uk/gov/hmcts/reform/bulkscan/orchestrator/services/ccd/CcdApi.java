@@ -5,6 +5,7 @@ import jakarta.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CaseNotFoundException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdCallException;
@@ -17,9 +18,14 @@ import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.Event;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
@@ -40,27 +46,30 @@ public class CcdApi {
 
     public static final Logger log = LoggerFactory.getLogger(CcdApi.class);
 
-    private static final String SEARCH_BY_LEGACY_ID_QUERY_FORMAT =
-        "{\"query\": { \"match_phrase\" : { \"alias.previousServiceCaseReference\" : \"%s\" }}}";
-
-    private static final String SEARCH_BY_ENVELOPE_ID_QUERY_FORMAT =
-        "{\"query\": { \"match_phrase\" : { \"data.envelopeId\" : \"%s\" }}}";
-
-    private static final String SEARCH_BY_BULK_SCAN_CASE_REFERENCE_QUERY_FORMAT =
-        "{\"query\": { \"match_phrase\" : { \"data.bulkScanCaseReference\" : \"%s\" }}}";
-
     private final CoreCaseDataApi feignCcdApi;
+    private final CcdCaseIdSearchApi caseIdSearchApi;
     private final CcdAuthenticatorFactory authenticatorFactory;
     private final ServiceConfigProvider serviceConfigProvider;
+    private final CaseReadCache caseReadCache;
+    private final CcdCallGuard callGuard;
+    private final CcdEventConflictRetry conflictRetry;
 
     public CcdApi(
         CoreCaseDataApi feignCcdApi,
+        CcdCaseIdSearchApi caseIdSearchApi,
         CcdAuthenticatorFactory authenticator,
-        ServiceConfigProvider serviceConfigProvider
+        ServiceConfigProvider serviceConfigProvider,
+        CaseReadCache caseReadCache,
+        CcdCallGuard callGuard,
+        CcdEventConflictRetry conflictRetry
     ) {
         this.feignCcdApi = feignCcdApi;
+        this.caseIdSearchApi = caseIdSearchApi;
         this.authenticatorFactory = authenticator;
         this.serviceConfigProvider = serviceConfigProvider;
+        this.caseReadCache = caseReadCache;
+        this.callGuard = callGuard;
+        this.conflictRetry = conflictRetry;
     }
 
     @Nonnull
@@ -74,14 +83,18 @@ public class CcdApi {
             //TODO We don't need to login here as we just need the service token
             CcdAuthenticator authenticator =
                 authenticatorFactory.createForJurisdiction(theCase.getJurisdiction());
-            StartEventResponse response = feignCcdApi.startEventForCaseWorker(
-                idamToken,
-                authenticator.getServiceToken(),
-                userId,
+            StartEventResponse response = callGuard.call(
                 theCase.getJurisdiction(),
                 theCase.getCaseTypeId(),
-                caseRef,
-                EventIds.ATTACH_SCANNED_DOCS
+                () -> feignCcdApi.startEventForCaseWorker(
+                    idamToken,
+                    authenticator.getServiceToken(),
+                    userId,
+                    theCase.getJurisdiction(),
+                    theCase.getCaseTypeId(),
+                    caseRef,
+                    EventIds.ATTACH_SCANNED_DOCS
+                )
             );
 
             log.info(
@@ -110,18 +123,22 @@ public class CcdApi {
 
     @Nonnull
     public CaseDetails getCase(String caseRef, String jurisdiction) {
+        return caseReadCache.getCase(caseRef, jurisdiction, () -> readCase(caseRef, jurisdiction));
+    }
+
+    private CaseDetails readCase(String caseRef, String jurisdiction) {
         CcdAuthenticator authenticator =
             authenticatorFactory.createForJurisdiction(jurisdiction);
 
         try {
-            return feignCcdApi.getCase(
-                authenticator.getUserToken(),
-                authenticator.getServiceToken(),
-                caseRef
+            return callGuard.call(
+                jurisdiction,
+                null,
+                () -> feignCcdApi.getCase(authenticator.getUserToken(), authenticator.getServiceToken(), caseRef)
             );
         } catch (FeignException e) {
             debugCcdException(log, e, "Failed to call 'getCase'");
-            removeFromIdamCacheIfAuthProblem(e.status(), jurisdiction);
+            removeFromIdamCacheIfAuthProblem(e.status(), jurisdiction, authenticator);
 
             switch (e.status()) {
                 case HTTP_NOT_FOUND:
@@ -152,7 +169,7 @@ public class CcdApi {
             return searchCases(
                 serviceConfig.getJurisdiction(),
                 String.join(",", serviceConfig.getCaseTypeIds()),
-                format(SEARCH_BY_LEGACY_ID_QUERY_FORMAT, legacyId)
+                CaseSearchQuery.BY_LEGACY_ID.forValue(legacyId)
             );
         }
     }
@@ -164,7 +181,7 @@ public class CcdApi {
         return searchCases(
             serviceConfigProvider.getConfig(service).getJurisdiction(),
             format("%s_ExceptionRecord", service.toUpperCase()),
-            format(SEARCH_BY_ENVELOPE_ID_QUERY_FORMAT, envelopeId)
+            CaseSearchQuery.BY_ENVELOPE_ID.forValue(envelopeId)
         );
     }
 
@@ -176,7 +193,7 @@ public class CcdApi {
         return searchCases(
             serviceConfig.getJurisdiction(),
             String.join(",", serviceConfig.getCaseTypeIds()),
-            format(SEARCH_BY_BULK_SCAN_CASE_REFERENCE_QUERY_FORMAT, bulkScanCaseReference)
+            CaseSearchQuery.BY_BULK_SCAN_CASE_REFERENCE.forValue(bulkScanCaseReference)
         );
     }
 
@@ -185,13 +202,39 @@ public class CcdApi {
         return searchCases(
             serviceConfig.getJurisdiction(),
             String.join(",", serviceConfig.getCaseTypeIds()),
-            "      {"
-                + "  \"query\": {"
-                + "    \"match_phrase\" : {"
-                + "      \"data.bulkScanEnvelopes.value.id\" : \"" + envelopeId + "\""
-                + "    }"
-                + "  }"
-                + "}"
+            CaseSearchQuery.BY_CASE_ENVELOPE_ID.forValue(envelopeId)
+        );
+    }
+
+    /**
+     * Finds exception records created from any of the envelopes with a single search.
+     *
+     * @return IDs of found exception records by envelope ID, envelopes without records are left out
+     */
+    public Map<String, List<Long>> getExceptionRecordRefsByEnvelopeIds(
+        Collection<String> envelopeIds,
+        String service
+    ) {
+        return searchCasesByEnvelopeIds(
+            serviceConfigProvider.getConfig(service).getJurisdiction(),
+            format("%s_ExceptionRecord", service.toUpperCase()),
+            envelopeIds,
+            CaseSearchQuery.BY_ENVELOPE_ID.forAnyOf(envelopeIds, "data.envelopeId")
+        );
+    }
+
+    /**
+     * Finds service cases referring to any of the envelopes with a single search.
+     *
+     * @return IDs of found cases by envelope ID, envelopes without cases are left out
+     */
+    public Map<String, List<Long>> getCaseRefsByEnvelopeIds(Collection<String> envelopeIds, String service) {
+        ServiceConfigItem serviceConfig = serviceConfigProvider.getConfig(service);
+        return searchCasesByEnvelopeIds(
+            serviceConfig.getJurisdiction(),
+            String.join(",", serviceConfig.getCaseTypeIds()),
+            envelopeIds,
+            CaseSearchQuery.BY_CASE_ENVELOPE_ID.forAnyOf(envelopeIds, "data.bulkScanEnvelopes")
         );
     }
 
@@ -210,19 +253,23 @@ public class CcdApi {
             //TODO We don't need to login here as we just need the service token
             CcdAuthenticator authenticator =
                 authenticatorFactory.createForJurisdiction(jurisdiction);
-            feignCcdApi.submitEventForCaseWorker(
-                idamToken,
-                authenticator.getServiceToken(),
-                userId,
+            callGuard.call(
                 jurisdiction,
                 caseTypeId,
-                caseRef,
-                true,
-                CaseDataContent.builder()
-                    .data(data)
-                    .event(Event.builder().summary(eventSummary).id(event.getEventId()).build())
-                    .eventToken(event.getToken())
-                    .build()
+                () -> feignCcdApi.submitEventForCaseWorker(
+                    idamToken,
+                    authenticator.getServiceToken(),
+                    userId,
+                    jurisdiction,
+                    caseTypeId,
+                    caseRef,
+                    true,
+                    CaseDataContent.builder()
+                        .data(data)
+                        .event(Event.builder().summary(eventSummary).id(event.getEventId()).build())
+                        .eventToken(event.getToken())
+                        .build()
+                )
             );
         } catch (FeignException e) {
             debugCcdException(log, e, "Failed to call 'attachExceptionRecord' - `submitEventForCaseWorker`");
@@ -234,6 +281,8 @@ public class CcdApi {
                 ),
                 e
             );
+        } finally {
+            caseReadCache.invalidate(caseRef);
         }
     }
 
@@ -251,13 +300,17 @@ public class CcdApi {
         String logContext
     ) {
         try {
-            StartEventResponse eventResponse = feignCcdApi.startForCaseworker(
-                authenticator.getUserToken(),
-                authenticator.getServiceToken(),
-                authenticator.getUserId(),
+            StartEventResponse eventResponse = callGuard.call(
                 jurisdiction,
                 caseTypeId,
-                eventTypeId
+                () -> feignCcdApi.startForCaseworker(
+                    authenticator.getUserToken(),
+                    authenticator.getServiceToken(),
+                    authenticator.getUserId(),
+                    jurisdiction,
+                    caseTypeId,
+                    eventTypeId
+                )
             );
 
             log.info(
@@ -269,18 +322,22 @@ public class CcdApi {
 
             CaseDataContent caseData = caseDataContentBuilder.apply(eventResponse);
 
-            return feignCcdApi.submitForCaseworker(
-                authenticator.getUserToken(),
-                authenticator.getServiceToken(),
-                authenticator.getUserId(),
+            return callGuard.call(
                 jurisdiction,
                 caseTypeId,
-                true,
-                caseData
+                () -> feignCcdApi.submitForCaseworker(
+                    authenticator.getUserToken(),
+                    authenticator.getServiceToken(),
+                    authenticator.getUserId(),
+                    jurisdiction,
+                    caseTypeId,
+                    true,
+                    caseData
+                )
             );
         } catch (FeignException ex) {
             debugCcdException(log, ex, "Failed to call 'createExceptionRecord'");
-            removeFromIdamCacheIfAuthProblem(ex.status(), jurisdiction);
+            removeFromIdamCacheIfAuthProblem(ex.status(), jurisdiction, authenticator);
             throw ex;
         }
     }
@@ -295,8 +352,13 @@ public class CcdApi {
         Function<StartEventResponse, CaseDataContent> caseDataContentBuilder,
         String logContext
     ) {
-        try {
-            StartEventResponse eventResponse = feignCcdApi.startEventForCaseWorker(
+        startAndSubmitAttachEvent(
+            authenticator,
+            jurisdiction,
+            caseTypeId,
+            caseRef,
+            eventTypeId,
+            () -> feignCcdApi.startEventForCaseWorker(
                 authenticator.getUserToken(),
                 authenticator.getServiceToken(),
                 authenticator.getUserId(),
@@ -304,22 +366,108 @@ public class CcdApi {
                 caseTypeId,
                 caseRef,
                 eventTypeId
-            );
-
-            log.info("Started event in CCD. Event: {}, case type: {}. {}", eventTypeId, caseTypeId, logContext);
+            ),
+            eventResponse -> Optional.of(caseDataContentBuilder.apply(eventResponse)),
+            logContext
+        );
+    }
 
-            CaseDataContent caseData = caseDataContentBuilder.apply(eventResponse);
+    /**
+     * Attaches scanned documents to the case with given CCD ID, without reading the case beforehand.
+     * The case, including its type, comes with the start of the event. The event is only submitted
+     * if the builder returns data for it. Throws {@link UnableToAttachDocumentsException} when the case
+     * does not exist or the case ref is not a valid CCD ID.
+     *
+     * @return the case as it was when the event started
+     */
+    public CaseDetails attachScannedDocsByCaseId(
+        CcdAuthenticator authenticator,
+        String jurisdiction,
+        String caseRef,
+        String eventTypeId,
+        Function<StartEventResponse, Optional<CaseDataContent>> caseDataContentBuilder,
+        String logContext
+    ) {
+        return startAndSubmitAttachEvent(
+            authenticator,
+            jurisdiction,
+            null,
+            caseRef,
+            eventTypeId,
+            () -> startEventByCaseId(authenticator, caseRef, eventTypeId),
+            caseDataContentBuilder,
+            logContext
+        );
+    }
 
-            feignCcdApi.submitEventForCaseWorker(
+    // CCD rejects case refs which are not valid CCD IDs with 400, so they are treated like cases not found
+    private StartEventResponse startEventByCaseId(CcdAuthenticator authenticator, String caseRef, String eventTypeId) {
+        try {
+            return feignCcdApi.startEvent(
                 authenticator.getUserToken(),
                 authenticator.getServiceToken(),
-                authenticator.getUserId(),
-                jurisdiction,
-                caseTypeId,
                 caseRef,
-                true,
-                caseData
+                eventTypeId
             );
+        } catch (FeignException.BadRequest e) {
+            throw new UnableToAttachDocumentsException(
+                String.format("Invalid case ref. Event: %s, case ref: %s", eventTypeId, caseRef),
+                e
+            );
+        }
+    }
+
+    // case type is null when it's not known before the event starts
+    private CaseDetails startAndSubmitAttachEvent(
+        CcdAuthenticator authenticator,
+        String jurisdiction,
+        String caseTypeId,
+        String caseRef,
+        String eventTypeId,
+        Supplier<StartEventResponse> eventStarter,
+        Function<StartEventResponse, Optional<CaseDataContent>> caseDataContentBuilder,
+        String logContext
+    ) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                StartEventResponse eventResponse = callGuard.call(jurisdiction, caseTypeId, eventStarter);
+                String eventCaseTypeId =
+                    caseTypeId != null ? caseTypeId : eventResponse.getCaseDetails().getCaseTypeId();
+
+                log.info(
+                    "Started event in CCD. Event: {}, case type: {}. {}",
+                    eventTypeId,
+                    eventCaseTypeId,
+                    logContext
+                );
+
+                // documents to add are worked out again from the case returned by each (re)started event
+                Optional<CaseDataContent> caseData = caseDataContentBuilder.apply(eventResponse);
+                if (caseData.isEmpty()) {
+                    log.info("Event not submitted, there is nothing to update. {}", logContext);
+                    return eventResponse.getCaseDetails();
+                }
+
+                try {
+                    callGuard.call(
+                        jurisdiction,
+                        eventCaseTypeId,
+                        () -> feignCcdApi.submitEventForCaseWorker(
+                            authenticator.getUserToken(),
+                            authenticator.getServiceToken(),
+                            authenticator.getUserId(),
+                            jurisdiction,
+                            eventCaseTypeId,
+                            caseRef,
+                            true,
+                            caseData.get()
+                        )
+                    );
+                    return eventResponse.getCaseDetails();
+                } catch (FeignException.Conflict e) {
+                    conflictRetry.beforeRetry(eventCaseTypeId, caseRef, attempt, e);
+                }
+            }
         } catch (FeignException.UnprocessableEntity e) {
             throw new UnableToAttachDocumentsException(
                 String.format(
@@ -342,7 +490,7 @@ public class CcdApi {
             );
         } catch (FeignException e) {
             debugCcdException(log, e, "Failed to call 'attachScannedDocs'");
-            removeFromIdamCacheIfAuthProblem(e.status(), jurisdiction);
+            removeFromIdamCacheIfAuthProblem(e.status(), jurisdiction, authenticator);
 
             throw new CcdCallException(
                 String.format(
@@ -352,6 +500,8 @@ public class CcdApi {
                 ),
                 e
             );
+        } finally {
+            caseReadCache.invalidate(caseRef);
         }
     }
 
@@ -388,13 +538,17 @@ public class CcdApi {
         String logContext
     ) {
         try {
-            StartEventResponse eventResponse = feignCcdApi.startForCaseworker(
-                ccdRequestCredentials.idamToken,
-                ccdRequestCredentials.s2sToken,
-                ccdRequestCredentials.userId,
+            StartEventResponse eventResponse = callGuard.call(
                 jurisdiction,
                 caseTypeId,
-                eventId
+                () -> feignCcdApi.startForCaseworker(
+                    ccdRequestCredentials.idamToken,
+                    ccdRequestCredentials.s2sToken,
+                    ccdRequestCredentials.userId,
+                    jurisdiction,
+                    caseTypeId,
+                    eventId
+                )
             );
 
             log.info(
@@ -404,14 +558,19 @@ public class CcdApi {
                 logContext
             );
 
-            long caseId = feignCcdApi.submitForCaseworker(
-                ccdRequestCredentials.idamToken,
-                ccdRequestCredentials.s2sToken,
-                ccdRequestCredentials.userId,
+            CaseDataContent caseData = caseDataContentBuilder.apply(eventResponse);
+            long caseId = callGuard.call(
                 jurisdiction,
                 caseTypeId,
-                true,
-                caseDataContentBuilder.apply(eventResponse)
+                () -> feignCcdApi.submitForCaseworker(
+                    ccdRequestCredentials.idamToken,
+                    ccdRequestCredentials.s2sToken,
+                    ccdRequestCredentials.userId,
+                    jurisdiction,
+                    caseTypeId,
+                    true,
+                    caseData
+                )
             )
                 .getId();
 
@@ -447,33 +606,50 @@ public class CcdApi {
         String userId = ccdAuthenticator.getUserId();
 
         try {
-            StartEventResponse eventResponse = feignCcdApi.startEventForCaseWorker(
-                userToken,
-                serviceToken,
-                userId,
-                jurisdiction,
-                caseTypeId,
-                caseId,
-                eventId
-            );
-
-            log.info(
-                "Started updating case in CCD. Event ID: {}, case type: {}. {}",
-                eventId,
-                caseTypeId,
-                logContext
-            );
-
-            feignCcdApi.submitEventForCaseWorker(
-                userToken,
-                serviceToken,
-                userId,
-                jurisdiction,
-                caseTypeId,
-                caseId,
-                true,
-                caseDataContentBuilder.apply(eventResponse)
-            );
+            for (int attempt = 1; ; attempt++) {
+                StartEventResponse eventResponse = callGuard.call(
+                    jurisdiction,
+                    caseTypeId,
+                    () -> feignCcdApi.startEventForCaseWorker(
+                        userToken,
+                        serviceToken,
+                        userId,
+                        jurisdiction,
+                        caseTypeId,
+                        caseId,
+                        eventId
+                    )
+                );
+
+                log.info(
+                    "Started updating case in CCD. Event ID: {}, case type: {}. {}",
+                    eventId,
+                    caseTypeId,
+                    logContext
+                );
+
+                // the builder applies the changes to the case returned by each (re)started event
+                CaseDataContent caseData = caseDataContentBuilder.apply(eventResponse);
+                try {
+                    callGuard.call(
+                        jurisdiction,
+                        caseTypeId,
+                        () -> feignCcdApi.submitEventForCaseWorker(
+                            userToken,
+                            serviceToken,
+                            userId,
+                            jurisdiction,
+                            caseTypeId,
+                            caseId,
+                            true,
+                            caseData
+                        )
+                    );
+                    break;
+                } catch (FeignException.Conflict exception) {
+                    conflictRetry.beforeRetry(caseTypeId, caseId, attempt, exception);
+                }
+            }
 
             log.info(
                 "Submitted case update event in CCD. Event ID: {}, case type: {}, case ID: {}. {}",
@@ -486,6 +662,8 @@ public class CcdApi {
             debugCcdException(log, exception, "Failed to call 'updateCase'");
 
             throw exception;
+        } finally {
+            caseReadCache.invalidate(caseId);
         }
     }
 
@@ -496,14 +674,18 @@ public class CcdApi {
         String caseId,
         String eventId
     ) {
-        return feignCcdApi.startEventForCaseWorker(
-            ccdRequestCredentials.idamToken,
-            ccdRequestCredentials.s2sToken,
-            ccdRequestCredentials.userId,
+        return callGuard.call(
             jurisdiction,
             caseTypeId,
-            caseId,
-            eventId
+            () -> feignCcdApi.startEventForCaseWorker(
+                ccdRequestCredentials.idamToken,
+                ccdRequestCredentials.s2sToken,
+                ccdRequestCredentials.userId,
+                jurisdiction,
+                caseTypeId,
+                caseId,
+                eventId
+            )
         );
     }
 
@@ -515,15 +697,19 @@ public class CcdApi {
         CaseDataContent caseDataContent
     ) {
         try {
-            return feignCcdApi.submitEventForCaseWorker(
-                ccdRequestCredentials.idamToken,
-                ccdRequestCredentials.s2sToken,
-                ccdRequestCredentials.userId,
+            return callGuard.call(
                 exceptionRecord.poBoxJurisdiction,
                 existingCase.getCaseTypeId(),
-                String.valueOf(existingCase.getId()),
-                ignoreWarnings,
-                caseDataContent
+                () -> feignCcdApi.submitEventForCaseWorker(
+                    ccdRequestCredentials.idamToken,
+                    ccdRequestCredentials.s2sToken,
+                    ccdRequestCredentials.userId,
+                    exceptionRecord.poBoxJurisdiction,
+                    existingCase.getCaseTypeId(),
+                    String.valueOf(existingCase.getId()),
+                    ignoreWarnings,
+                    caseDataContent
+                )
             );
         } catch (FeignException.UnprocessableEntity exception) {
             String msg = String.format(
@@ -557,6 +743,8 @@ public class CcdApi {
             );
 
             throw new CcdCallException(msg, exception);
+        } finally {
+            caseReadCache.invalidate(String.valueOf(existingCase.getId()));
         }
     }
 
@@ -568,29 +756,71 @@ public class CcdApi {
         CcdAuthenticator authenticator =
             authenticatorFactory.createForJurisdiction(jurisdiction);
         try {
-            var searchResult = feignCcdApi.searchCases(
-                authenticator.getUserToken(),
-                authenticator.getServiceToken(),
+            var searchResult = callGuard.call(
+                jurisdiction,
                 caseType,
-                searchString
+                () -> caseIdSearchApi.searchCaseIds(
+                    authenticator.getUserToken(),
+                    authenticator.getServiceToken(),
+                    caseType,
+                    searchString
+                )
             );
 
             return searchResult
-                .getCases()
+                .cases
                 .stream()
-                .map(CaseDetails::getId)
+                .map(foundCase -> foundCase.id)
                 .collect(toList());
 
         } catch (FeignException ex) {
             debugCcdException(log, ex, "Failed to call 'searchCases'");
-            removeFromIdamCacheIfAuthProblem(ex.status(), jurisdiction);
+            removeFromIdamCacheIfAuthProblem(ex.status(), jurisdiction, authenticator);
+            throw ex;
+        }
+    }
+
+    private Map<String, List<Long>> searchCasesByEnvelopeIds(
+        String jurisdiction,
+        String caseType,
+        Collection<String> envelopeIds,
+        String searchString
+    ) {
+        CcdAuthenticator authenticator =
+            authenticatorFactory.createForJurisdiction(jurisdiction);
+        try {
+            var searchResult = callGuard.call(
+                jurisdiction,
+                caseType,
+                () -> caseIdSearchApi.searchCaseEnvelopeIds(
+                    authenticator.getUserToken(),
+                    authenticator.getServiceToken(),
+                    caseType,
+                    searchString
+                )
+            );
+
+            Map<String, List<Long>> caseIdsByEnvelopeId = new HashMap<>();
+            for (var foundCase : searchResult.cases) {
+                foundCase.envelopeIds()
+                    .filter(envelopeIds::contains)
+                    .distinct()
+                    .forEach(envelopeId ->
+                        caseIdsByEnvelopeId.computeIfAbsent(envelopeId, id -> new ArrayList<>()).add(foundCase.id)
+                    );
+            }
+            return caseIdsByEnvelopeId;
+
+        } catch (FeignException ex) {
+            debugCcdException(log, ex, "Failed to call 'searchCases'");
+            removeFromIdamCacheIfAuthProblem(ex.status(), jurisdiction, authenticator);
             throw ex;
         }
     }
 
-    private void removeFromIdamCacheIfAuthProblem(int status, String jurisdiction) {
+    private void removeFromIdamCacheIfAuthProblem(int status, String jurisdiction, CcdAuthenticator authenticator) {
         if (status == HTTP_FORBIDDEN || status == HTTP_UNAUTHORIZED) {
-            authenticatorFactory.removeFromCache(jurisdiction);
+            authenticatorFactory.removeFromCache(jurisdiction, authenticator.getUserToken());
         }
     }
 }
@@ -29,7 +29,7 @@ public class CcdAuthenticatorFactory {
         );
     }
 
-    public void removeFromCache(String jurisdiction) {
-        idamClient.removeAccessTokenFromCache(jurisdiction);
+    public void removeFromCache(String jurisdiction, String userToken) {
+        idamClient.removeAccessTokenFromCache(jurisdiction, userToken);
     }
 }
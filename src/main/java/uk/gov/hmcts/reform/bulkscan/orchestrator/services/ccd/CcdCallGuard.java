@@ -0,0 +1,81 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdUnavailableException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Isolates CCD calls of each jurisdiction and case type, so that CCD failing or slowing down for one of them
+ * does not hold up calls for the others.
+ *
+ * <p>Each jurisdiction and case type gets a bulkhead, limiting the number of its concurrent calls,
+ * and a circuit breaker, which stops its calls while most of them fail (see {@link CcdFailurePredicate}).
+ * Calls which are not made throw {@link CcdUnavailableException}. Both are configured
+ * by the {@value #CONFIG_NAME} resilience4j configs.</p>
+ */
+@Component
+public class CcdCallGuard {
+
+    static final String CONFIG_NAME = "ccd";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final boolean enabled;
+
+    public CcdCallGuard(
+        CircuitBreakerRegistry circuitBreakerRegistry,
+        BulkheadRegistry bulkheadRegistry,
+        @Value("${core_case_data.call-guard.enabled}") boolean enabled
+    ) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Makes the call to CCD, unless there are too many calls in progress or failing for the jurisdiction
+     * and case type.
+     *
+     * @param caseTypeId case type(s) the call is for, null if unknown
+     */
+    public <T> T call(String jurisdiction, String caseTypeId, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        String name = caseTypeId == null ? "ccd-" + jurisdiction : "ccd-" + jurisdiction + "-" + caseTypeId;
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, CONFIG_NAME);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, CONFIG_NAME);
+
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, call));
+        } catch (CallNotPermittedException ex) {
+            throw new CcdUnavailableException(
+                "CCD calls are failing for " + name + ", call not made",
+                openStateDuration(circuitBreaker),
+                ex
+            );
+        } catch (BulkheadFullException ex) {
+            throw new CcdUnavailableException(
+                "Too many CCD calls in progress for " + name + ", call not made",
+                bulkhead.getBulkheadConfig().getMaxWaitDuration(),
+                ex
+            );
+        }
+    }
+
+    private static Duration openStateDuration(CircuitBreaker circuitBreaker) {
+        return Duration.ofMillis(
+            circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1)
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.ProcessingDeadline;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a CCD event rejected with 409 Conflict, because the case changed after the event had started,
+ * should be started and submitted again.
+ *
+ * <p>Restarting the event gives a fresh snapshot of the case to apply the changes to, so the conflict is resolved
+ * without handling the whole envelope again. Conflicts are counted per case type, to show where cases are
+ * contended.</p>
+ */
+@Component
+public class CcdEventConflictRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(CcdEventConflictRetry.class);
+
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final MeterRegistry meterRegistry;
+
+    public CcdEventConflictRetry(
+        @Value("${core_case_data.conflict-retry.max-attempts}") int maxAttempts,
+        @Value("${core_case_data.conflict-retry.backoff}") Duration backoff,
+        MeterRegistry meterRegistry
+    ) {
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Waits before the event is restarted, or rethrows the conflict if the event must not be restarted.
+     *
+     * @param attempt number of the attempt which ended with the conflict, starting from 1
+     */
+    public void beforeRetry(String caseTypeId, String caseRef, int attempt, FeignException.Conflict conflict) {
+        boolean retry = attempt < maxAttempts;
+        meterRegistry.counter(
+            "ccd.event.conflicts",
+            "case_type",
+            caseTypeId == null ? "unknown" : caseTypeId,
+            "result",
+            retry ? "retried" : "exhausted"
+        ).increment();
+
+        if (!retry) {
+            throw conflict;
+        }
+
+        log.warn(
+            "Case was updated while the event was in progress, restarting the event. Case type: {}, case ref: {}, "
+                + "attempt: {}",
+            caseTypeId,
+            caseRef,
+            attempt
+        );
+
+        try {
+            Thread.sleep(delayMillis(attempt));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+        ProcessingDeadline.check("restart CCD event after conflict");
+    }
+
+    // full jitter, so that events competing for the same case do not restart together
+    private long delayMillis(int attempt) {
+        long ceiling = backoff.toMillis() << Math.min(attempt - 1, 20);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,24 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import feign.FeignException;
+
+import java.util.function.Predicate;
+
+/**
+ * Tells which failed CCD calls count towards opening the circuit: the ones showing that CCD is failing
+ * or overloaded, as opposed to rejecting the request made.
+ */
+public class CcdFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FeignException feignException) {
+                int status = feignException.status();
+                // status is not set when CCD could not be reached or did not respond in time
+                return status < 0 || status == 429 || status >= 500;
+            }
+        }
+        return false;
+    }
+}
@@ -283,15 +283,20 @@ public class CcdNewCaseCreator {
             (List<?>)caseData.get("scannedDocuments");
 
         if (scannedDocuments != null) {
+            List<String> documentUuids = scannedDocuments
+                .stream()
+                .map(scannedDocumentValue -> (Map) ((Map) ((Map) scannedDocumentValue).get("value")).get("url"))
+                .map(url -> getDocumentUuid((String) url.get("document_url")))
+                .toList();
+            Map<String, String> documentHashes = cdamApiClient.getDocumentHashes(jurisdiction, documentUuids);
+
             ArrayList modifiedDocs = new ArrayList();
             for (Object scannedDocumentValue : scannedDocuments) {
                 Map<String, Object> scannedDocument = new HashMap((Map) ((Map) scannedDocumentValue).get("value"));
                 Map<String, String> url = new HashMap((Map) scannedDocument.get("url"));
 
                 String documentUrl =  url.get("document_url");
-                String documentUuid = getDocumentUuid(documentUrl);
-                String documentHash = cdamApiClient.getDocumentHash(jurisdiction, documentUuid);
-                url.put("document_hash", documentHash);
+                url.put("document_hash", documentHashes.get(getDocumentUuid(documentUrl)));
 
                 scannedDocument.put("url", url);
                 Map<String, Object> modScannedDocumentValue = new HashMap((Map) scannedDocumentValue);
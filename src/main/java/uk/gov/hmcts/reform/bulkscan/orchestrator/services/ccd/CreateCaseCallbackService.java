@@ -173,8 +173,13 @@ public class CreateCaseCallbackService {
 
             if (ids.isEmpty()) {
                 result = createNewCase(exceptionRecord, configItem, ignoreWarnings, idamToken, userId);
+                if (result.caseId != null) {
+                    caseFinder.recordCaseCreatedFrom(exceptionRecord, configItem, result.caseId);
+                }
             } else if (ids.size() == 1) {
                 result = new CreateCaseResult(ids.get(0));
+                // so that the case is found without searching CCD next time
+                caseFinder.recordCaseCreatedFrom(exceptionRecord, configItem, result.caseId);
             } else {
                 String msg = String.format(
                         "Multiple cases (%s) found for the given bulk scan case reference: %s",
@@ -1,19 +1,16 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
 public final class Documents {
     private static final String SCANNED_DOCUMENTS = "scannedDocuments";
@@ -23,14 +20,11 @@ public final class Documents {
 
     static List<Map<String, Object>> removeAlreadyAttachedDocuments(
         List<Map<String, Object>> exceptionRecordDocuments,
-        List<Map<String, Object>> targetCaseDocuments,
+        CaseDocumentsIndex targetCaseDocuments,
         String exceptionRecordCcdRef
     ) {
-        Set<String> documentDcnsFromTargetCase = targetCaseDocuments
-            .stream()
-            .filter(doc -> Objects.equals(getExceptionRecordReference(doc), exceptionRecordCcdRef))
-            .map(Documents::getDocumentId)
-            .collect(toSet());
+        Set<String> documentDcnsFromTargetCase =
+            targetCaseDocuments.getControlNumbersAttachedFrom(exceptionRecordCcdRef);
 
         return exceptionRecordDocuments
             .stream()
@@ -71,16 +65,4 @@ public final class Documents {
                 .orElseGet(Lists::newArrayList);
     }
 
-
-    static List<Object> concatDocuments(
-        List<Map<String, Object>> exceptionDocuments,
-        List<Map<String, Object>> existingDocuments
-    ) {
-        return ImmutableList.builder()
-            .addAll(existingDocuments)
-            .addAll(exceptionDocuments)
-            .build();
-    }
-
-
 }
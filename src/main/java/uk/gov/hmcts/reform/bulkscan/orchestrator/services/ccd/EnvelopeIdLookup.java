@@ -0,0 +1,76 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.util.ConcurrentBatcher;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Finds cases and exception records by ID of the envelope they were created from.
+ *
+ * <p>When batching is enabled, lookups of the same kind made concurrently for the same service are coalesced
+ * into a single CCD search, see {@link ConcurrentBatcher}.</p>
+ */
+@Component
+public class EnvelopeIdLookup {
+
+    private final CcdApi ccdApi;
+    private final boolean batchingEnabled;
+    private final ConcurrentBatcher<BatchKey, String, List<Long>> batcher;
+
+    public EnvelopeIdLookup(
+        CcdApi ccdApi,
+        @Value("${core_case_data.envelope-id-lookup.batching.enabled}") boolean batchingEnabled,
+        @Value("${core_case_data.envelope-id-lookup.batching.window}") Duration window,
+        @Value("${core_case_data.envelope-id-lookup.batching.max-size}") int maxBatchSize
+    ) {
+        this.ccdApi = ccdApi;
+        this.batchingEnabled = batchingEnabled;
+        this.batcher = new ConcurrentBatcher<>(window, maxBatchSize);
+    }
+
+    public List<Long> getCaseRefsByEnvelopeId(String envelopeId, String service) {
+        if (!batchingEnabled) {
+            return ccdApi.getCaseRefsByEnvelopeId(envelopeId, service);
+        }
+        return lookUp(new BatchKey(LookupType.CASE, service), envelopeId);
+    }
+
+    public List<Long> getExceptionRecordRefsByEnvelopeId(String envelopeId, String service) {
+        if (!batchingEnabled) {
+            return ccdApi.getExceptionRecordRefsByEnvelopeId(envelopeId, service);
+        }
+        return lookUp(new BatchKey(LookupType.EXCEPTION_RECORD, service), envelopeId);
+    }
+
+    private List<Long> lookUp(BatchKey key, String envelopeId) {
+        return batcher.submit(key, envelopeId, envelopeIds -> search(key, envelopeIds));
+    }
+
+    private List<List<Long>> search(BatchKey key, List<String> envelopeIds) {
+        Set<String> uniqueEnvelopeIds = new LinkedHashSet<>(envelopeIds);
+        Map<String, List<Long>> refsByEnvelopeId = switch (key.type) {
+            case CASE -> ccdApi.getCaseRefsByEnvelopeIds(uniqueEnvelopeIds, key.service);
+            case EXCEPTION_RECORD -> ccdApi.getExceptionRecordRefsByEnvelopeIds(uniqueEnvelopeIds, key.service);
+        };
+        return envelopeIds
+            .stream()
+            .map(envelopeId -> refsByEnvelopeId.getOrDefault(envelopeId, emptyList()))
+            .toList();
+    }
+
+    private enum LookupType {
+        CASE,
+        EXCEPTION_RECORD
+    }
+
+    private record BatchKey(LookupType type, String service) {
+    }
+}
@@ -12,6 +12,7 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CaseNo
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.DuplicateDocsException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.PaymentsPublishingException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.PaymentsService;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.callback.PaymentsHelper;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
@@ -21,6 +22,7 @@ import java.util.Optional;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.joining;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.callbackresult.NewCallbackResult.attachToCaseCaseRequest;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.CaseReferenceTypes.EXTERNAL_CASE_REFERENCE;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.ExceptionRecordFields.ATTACH_TO_CASE_REFERENCE;
 
@@ -36,19 +38,22 @@ public class ExceptionRecordAttacher {
     private final PaymentsService paymentsService;
     private final CallbackResultRepositoryProxy callbackResultRepositoryProxy;
     private final CcdApi ccdApi;
+    private final CaseReferenceIndex caseReferenceIndex;
 
     public ExceptionRecordAttacher(
         SupplementaryEvidenceUpdater supplementaryEvidenceUpdater,
         SupplementaryEvidenceWithOcrUpdater supplementaryEvidenceWithOcrUpdater,
         PaymentsService paymentsService,
         CallbackResultRepositoryProxy callbackResultRepositoryProxy,
-        CcdApi ccdApi
+        CcdApi ccdApi,
+        CaseReferenceIndex caseReferenceIndex
     ) {
         this.supplementaryEvidenceUpdater = supplementaryEvidenceUpdater;
         this.supplementaryEvidenceWithOcrUpdater = supplementaryEvidenceWithOcrUpdater;
         this.paymentsService = paymentsService;
         this.callbackResultRepositoryProxy = callbackResultRepositoryProxy;
         this.ccdApi = ccdApi;
+        this.caseReferenceIndex = caseReferenceIndex;
     }
 
     //The code below need to be rewritten to reuse the EventPublisher class
@@ -156,6 +161,15 @@ public class ExceptionRecordAttacher {
                     targetCaseRef
                 );
 
+                if (EXTERNAL_CASE_REFERENCE.equals(callBackEvent.targetCaseRefType)) {
+                    caseReferenceIndex.record(
+                        LEGACY_ID,
+                        callBackEvent.targetCaseRef,
+                        callBackEvent.service,
+                        Long.parseLong(targetCaseRef)
+                    );
+                }
+
                 return Either.right(targetCaseRef);
             });
     }
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.cdam.CdamApiClient;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.helper.ScannedDocumentsCollection;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.callback.AttachScannedDocumentsValidator;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.YesNoFieldValues;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -47,9 +48,10 @@ public class SupplementaryEvidenceUpdater {
 
         boolean attached = false;
         List<Map<String, Object>> targetCaseDocuments = Documents.getScannedDocuments(ccdStartEvent.getCaseDetails());
+        CaseDocumentsIndex targetCaseDocumentsIndex = CaseDocumentsIndex.of(targetCaseDocuments);
 
         scannedDocumentsValidator.verifyExceptionRecordAddsNoDuplicates(
-            targetCaseDocuments,
+            targetCaseDocumentsIndex,
             callBackEvent.exceptionRecordDocuments,
             Long.toString(callBackEvent.exceptionRecordId),
             targetCaseCcdRef
@@ -57,7 +59,7 @@ public class SupplementaryEvidenceUpdater {
 
         List<Map<String, Object>> documentsToAttach = Documents.removeAlreadyAttachedDocuments(
             callBackEvent.exceptionRecordDocuments,
-            targetCaseDocuments,
+            targetCaseDocumentsIndex,
             Long.toString(callBackEvent.exceptionRecordId)
         );
 
@@ -102,8 +104,10 @@ public class SupplementaryEvidenceUpdater {
         List<Map<String, Object>> exceptionDocuments,
         List<Map<String, Object>> existingDocuments
     ) {
-        List<Object> documents = Documents.concatDocuments(exceptionDocuments, existingDocuments);
-        return Map.of(SCANNED_DOCUMENTS, documents, EVIDENCE_HANDLED, YesNoFieldValues.NO);
+        // existing documents are sent back as they are, without copying them
+        var documents = ScannedDocumentsCollection.of(existingDocuments);
+        documents.append(exceptionDocuments);
+        return Map.of(SCANNED_DOCUMENTS, documents.toCcdValue(), EVIDENCE_HANDLED, YesNoFieldValues.NO);
     }
 
     @SuppressWarnings("unchecked")
@@ -122,6 +126,19 @@ public class SupplementaryEvidenceUpdater {
             exceptionDocumentsDcns
         );
 
+        List<String> documentUuids = exceptionDocuments
+            .stream()
+            .map(document -> (Map) ((Map) document.get("value")).get("url"))
+            .map(url -> getDocumentUuid((String) url.get("document_url")))
+            .collect(toList());
+        log.info(
+            "Call back attach supplemantary evidence to case,jurisdiction {}, exception, {},uuids {}",
+            jurisdiction,
+            exceptionRecordReference,
+            documentUuids
+        );
+        Map<String, String> documentHashes = cdamApiClient.getDocumentHashes(jurisdiction, documentUuids);
+
         return exceptionDocuments
             .stream()
             .map(document -> {
@@ -135,15 +152,7 @@ public class SupplementaryEvidenceUpdater {
                 // do not update exception record's documents
                 Map url = new HashMap((Map)copiedDocumentContent.get("url"));
                 String documentUrl = (String) url.get("document_url");
-                String documentUuid = getDocumentUuid(documentUrl);
-                log.info(
-                    "Call back attach supplemantary evidence to case,jurisdiction {}, exception, {},uuid {}",
-                    jurisdiction,
-                    exceptionRecordReference,
-                    documentUuid
-                );
-                String documentHash = cdamApiClient.getDocumentHash(jurisdiction, documentUuid);
-                url.put("document_hash", documentHash);
+                url.put("document_hash", documentHashes.get(getDocumentUuid(documentUrl)));
                 copiedDocumentContent.put("url", url);
                 return Map.<String, Object>of("value", copiedDocumentContent);
             })
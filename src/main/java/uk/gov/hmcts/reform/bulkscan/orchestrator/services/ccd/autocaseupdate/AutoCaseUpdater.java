@@ -3,17 +3,24 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.autocaseupdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdUnavailableException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ProcessingDeadlineExceededException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.helper.CaseDataUpdater;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseAction;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.caseupdatedetails.CaseUpdateDetailsService;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseFinder;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EventIds;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.ProcessingDeadline;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static java.lang.String.format;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CASE_UPDATED;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.autocaseupdate.AutoCaseUpdateResultType.ABANDONED;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.autocaseupdate.AutoCaseUpdateResultType.ERROR;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.autocaseupdate.AutoCaseUpdateResultType.OK;
@@ -32,6 +39,7 @@ public class AutoCaseUpdater {
     private final CaseDataContentBuilderProvider caseDataBuilderProvider;
 
     private final CaseDataUpdater caseDataUpdater;
+    private final EnvelopeProcessingLedger processingLedger;
     // region constructor
 
     public AutoCaseUpdater(
@@ -39,49 +47,54 @@ public class AutoCaseUpdater {
         CaseFinder caseFinder,
         CcdApi ccdApi,
         CaseDataContentBuilderProvider caseDataBuilderProvider,
-        CaseDataUpdater caseDataUpdater
+        CaseDataUpdater caseDataUpdater,
+        EnvelopeProcessingLedger processingLedger
     ) {
         this.caseUpdateDataService = caseUpdateDataService;
         this.caseFinder = caseFinder;
         this.ccdApi = ccdApi;
         this.caseDataBuilderProvider = caseDataBuilderProvider;
         this.caseDataUpdater = caseDataUpdater;
+        this.processingLedger = processingLedger;
     }
 
     // endregion
 
     public AutoCaseUpdateResult updateCase(Envelope envelope) {
+        Optional<Long> updatedCaseId = processingLedger.find(envelope.id, CASE_UPDATED, Long.class);
+        if (updatedCaseId.isPresent()) {
+            log.info(
+                "Case already updated with envelope - skipping update. Case ID: {}. {}",
+                updatedCaseId.get(),
+                getLoggingInfo(envelope)
+            );
+            return new AutoCaseUpdateResult(OK, updatedCaseId.get());
+        }
+
         try {
             return caseFinder
                 .findCase(envelope)
                 .map(
                     existingCase -> {
-                        var caseUpdateResult =
-                            caseUpdateDataService
-                                .getCaseUpdateData(
-                                    envelope.container,
-                                    existingCase,
-                                    envelope
-                                );
-
-                        Map<String, Object>  updatedCaseData = caseDataUpdater
-                            .updateEnvelopeReferences(
-                                caseUpdateResult.caseDetails.caseData,
-                                envelope.id,
-                                CaseAction.UPDATE,
-                                existingCase.getData()
-                            );
-
-                        updatedCaseData = caseDataUpdater.setDocumentHash(envelope, updatedCaseData);
+                        ProcessingDeadline.check("auto update case in CCD");
 
+                        // case data is worked out from the case returned by the started event, which may have
+                        // changed since the case was found, e.g. when the event is restarted after a conflict
                         ccdApi.updateCase(
                             existingCase.getJurisdiction(),
                             existingCase.getCaseTypeId(),
                             EventIds.ATTACH_SCANNED_DOCS_WITH_OCR,
                             existingCase.getId().toString(),
-                            caseDataBuilderProvider.getBuilder(updatedCaseData, envelope.id),
+                            startEventResponse -> caseDataBuilderProvider
+                                .getBuilder(
+                                    getUpdatedCaseData(envelope, startEventResponse.getCaseDetails()),
+                                    envelope.id
+                                )
+                                .apply(startEventResponse),
                             getLoggingInfo(envelope)
                         );
+                        processingLedger.record(envelope.id, CASE_UPDATED, existingCase.getId());
+                        caseFinder.recordEnvelopeAttachedTo(envelope, existingCase.getId());
 
                         return new AutoCaseUpdateResult(OK, existingCase.getId());
                     }
@@ -90,6 +103,12 @@ public class AutoCaseUpdater {
                     log.warn("Auto case update abandoned - case not found for envelope. {}", getLoggingInfo(envelope));
                     return new AutoCaseUpdateResult(ABANDONED, null);
                 });
+        } catch (ProcessingDeadlineExceededException exc) {
+            // not a case update error - processing of the whole envelope has to be abandoned
+            throw exc;
+        } catch (CcdUnavailableException exc) {
+            // not a case update error - processing of the whole envelope has to be deferred
+            throw exc;
         } catch (Exception exc) {
             log.error(
                 "Error while trying to automatically update a case. {}",
@@ -101,6 +120,20 @@ public class AutoCaseUpdater {
         }
     }
 
+    private Map<String, Object> getUpdatedCaseData(Envelope envelope, CaseDetails currentCase) {
+        var caseUpdateResult = caseUpdateDataService.getCaseUpdateData(envelope.container, currentCase, envelope);
+
+        Map<String, Object> caseDataWithHashes =
+            caseDataUpdater.setDocumentHash(envelope, caseUpdateResult.caseDetails.caseData);
+
+        return caseDataUpdater.updateEnvelopeReferences(
+            caseDataWithHashes,
+            envelope.id,
+            CaseAction.UPDATE,
+            currentCase.getData()
+        );
+    }
+
     private String getLoggingInfo(Envelope envelope) {
         return format(
             "Envelope ID: %s. File name: %s. Service: %s. Case ref: %s. Legacy case ref: %s.",
@@ -1,16 +1,14 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.callback;
 
-import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.DuplicateDocsException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseDocumentsIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.Documents;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.function.Predicate;
 
 import static java.util.stream.Collectors.toSet;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -25,7 +23,7 @@ public class AttachScannedDocumentsValidator {
     }
 
     public void verifyExceptionRecordAddsNoDuplicates(
-        List<Map<String, Object>> targetCaseDocuments,
+        CaseDocumentsIndex targetCaseDocuments,
         List<Map<String, Object>> exceptionRecordDocuments,
         String exceptionRecordCcdRef,
         String targetCaseCcdRef
@@ -56,7 +54,7 @@ public class AttachScannedDocumentsValidator {
     }
 
     private void logIfDocumentsAreAlreadyAttachedToCaseFromER(
-        List<Map<String, Object>> targetCaseDocuments,
+        CaseDocumentsIndex targetCaseDocuments,
         List<Map<String, Object>> exceptionRecordDocuments,
         String exceptionRecordCcdRef,
         String targetCaseCcdRef
@@ -86,43 +84,27 @@ public class AttachScannedDocumentsValidator {
     private Set<String> getDcnsOfDocumentsAlreadyAttachedToCaseFromER(
         String exceptionRecordId,
         List<Map<String, Object>> exceptionRecordDocuments,
-        List<Map<String, Object>> targetCaseDocuments
+        CaseDocumentsIndex targetCaseDocuments
     ) {
-        return findDocumentsIntersection(
-            doc -> Objects.equals(Documents.getExceptionRecordReference(doc), exceptionRecordId),
-            exceptionRecordDocuments,
-            targetCaseDocuments
-        );
+        Set<String> dcnsAttachedFromExceptionRecord =
+            targetCaseDocuments.getControlNumbersAttachedFrom(exceptionRecordId);
+
+        return exceptionRecordDocuments
+            .stream()
+            .map(Documents::getDocumentId)
+            .filter(dcnsAttachedFromExceptionRecord::contains)
+            .collect(toSet());
     }
 
     private Set<String> getDcnsOfClashingDocuments(
         String exceptionRecordId,
         List<Map<String, Object>> exceptionRecordDocuments,
-        List<Map<String, Object>> targetCaseDocuments
+        CaseDocumentsIndex targetCaseDocuments
     ) {
-        return findDocumentsIntersection(
-            doc -> !Objects.equals(Documents.getExceptionRecordReference(doc), exceptionRecordId),
-            exceptionRecordDocuments,
-            targetCaseDocuments
-        );
-    }
-
-    private Set<String> findDocumentsIntersection(
-        Predicate<Map<String, Object>> filterOnTargetCaseDocuments,
-        List<Map<String, Object>> exceptionRecordDocuments,
-        List<Map<String, Object>> targetCaseDocuments
-    ) {
-        Set<String> dcnsOfCaseDocumentsFromOtherSources = targetCaseDocuments
+        return exceptionRecordDocuments
             .stream()
-            .filter(filterOnTargetCaseDocuments)
             .map(Documents::getDocumentId)
+            .filter(dcn -> targetCaseDocuments.containsFromOtherSource(dcn, exceptionRecordId))
             .collect(toSet());
-
-        Set<String> dcnsOfExceptionRecordDocuments = exceptionRecordDocuments
-            .stream()
-            .map(Documents::getDocumentId)
-            .collect(toSet());
-
-        return Sets.intersection(dcnsOfCaseDocumentsFromOtherSources, dcnsOfExceptionRecordDocuments);
     }
 }
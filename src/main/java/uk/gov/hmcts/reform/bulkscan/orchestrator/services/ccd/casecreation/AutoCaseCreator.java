@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.casecreation;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import feign.FeignException;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
@@ -7,12 +8,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.cdam.CdamApiClient;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.transformation.EnvelopeTransformer;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.transformation.EnvelopeTransformer.TransformationFailureType;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.transformation.model.response.CaseCreationDetails;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdUnavailableException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseAction;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CcdCollectionElement;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.EnvelopeReference;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdApi;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EnvelopeIdLookup;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.ProcessingDeadline;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.Event;
@@ -20,9 +27,13 @@ import uk.gov.hmcts.reform.ccd.client.model.Event;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.ENVELOPE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CASE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.DOCUMENT_HASHES;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.util.Util.getDocumentUuid;
 
 @Service
@@ -32,19 +43,28 @@ public class AutoCaseCreator {
 
     private final EnvelopeTransformer envelopeTransformer;
     private final CcdApi ccdApi;
+    private final EnvelopeIdLookup envelopeIdLookup;
     private final ServiceConfigProvider serviceConfigProvider;
     private final CdamApiClient cdamApiClient;
+    private final EnvelopeProcessingLedger processingLedger;
+    private final CaseReferenceIndex caseReferenceIndex;
 
     public AutoCaseCreator(
             EnvelopeTransformer envelopeTransformer,
             CcdApi ccdApi,
+            EnvelopeIdLookup envelopeIdLookup,
             ServiceConfigProvider serviceConfigProvider,
-            CdamApiClient cdamApiClient
+            CdamApiClient cdamApiClient,
+            EnvelopeProcessingLedger processingLedger,
+            CaseReferenceIndex caseReferenceIndex
     ) {
         this.envelopeTransformer = envelopeTransformer;
         this.ccdApi = ccdApi;
+        this.envelopeIdLookup = envelopeIdLookup;
         this.serviceConfigProvider = serviceConfigProvider;
         this.cdamApiClient = cdamApiClient;
+        this.processingLedger = processingLedger;
+        this.caseReferenceIndex = caseReferenceIndex;
     }
 
     public CaseCreationResult createCase(Envelope envelope) {
@@ -60,13 +80,37 @@ public class AutoCaseCreator {
     }
 
     private CaseCreationResult createCaseIfDoesNotExist(Envelope envelope, String loggingContext) {
-        List<Long> caseIds = ccdApi.getCaseRefsByEnvelopeId(envelope.id, envelope.container);
+        Optional<Long> recordedCaseId = processingLedger.find(envelope.id, CASE_ID, Long.class);
+        if (recordedCaseId.isPresent()) {
+            log.warn(
+                "Case already recorded for envelope - skipping creation. Case ID: {}. {}",
+                recordedCaseId.get(),
+                loggingContext
+            );
+            return CaseCreationResult.caseAlreadyExists(recordedCaseId.get());
+        }
+
+        List<Long> caseIds = caseReferenceIndex.findCaseIds(ENVELOPE_ID, envelope.id, envelope.container);
+
+        if (caseIds.isEmpty()) {
+            if (processingLedger.canSkipCcdSearch(envelope.id)) {
+                log.info(
+                    "First attempt to write envelope to CCD - skipping search for existing case. {}",
+                    loggingContext
+                );
+                return transformAndCreateCase(envelope, loggingContext);
+            }
+
+            caseIds = envelopeIdLookup.getCaseRefsByEnvelopeId(envelope.id, envelope.container);
+        }
 
         if (caseIds.isEmpty()) {
             return transformAndCreateCase(envelope, loggingContext);
         } else if (caseIds.size() == 1) {
             long caseId = caseIds.get(0);
             log.warn("Case already exists for envelope - skipping creation. Case ID: {}. {}", caseId, loggingContext);
+            processingLedger.record(envelope.id, CASE_ID, caseId);
+            caseReferenceIndex.record(ENVELOPE_ID, envelope.id, envelope.container, caseId);
             return CaseCreationResult.caseAlreadyExists(caseId);
         } else {
             log.error(
@@ -80,13 +124,14 @@ public class AutoCaseCreator {
     }
 
     private CaseCreationResult transformAndCreateCase(Envelope envelope, String loggingContext) {
+        // transformation result is not recorded in the processing ledger, as it holds personal data
         return envelopeTransformer.transformEnvelope(envelope)
             .map(resp -> resp.caseCreationDetails)
-            .map(caseCreationDetails -> updateDocumentHash(envelope.jurisdiction, caseCreationDetails))
+            .map(caseCreationDetails -> updateDocumentHash(envelope, caseCreationDetails))
             .map(caseCreationDetails -> createCaseInCcd(caseCreationDetails, envelope, loggingContext))
             .getOrElseGet(failureType -> {
                     log.warn("Failed to auto create case, failure type {}, {}", failureType, loggingContext);
-                    return failureType == EnvelopeTransformer.TransformationFailureType.UNRECOVERABLE
+                    return failureType == TransformationFailureType.UNRECOVERABLE
                         ? CaseCreationResult.unrecoverableFailure()
                         : CaseCreationResult.potentiallyRecoverableFailure();
                     }
@@ -95,20 +140,42 @@ public class AutoCaseCreator {
 
     @SuppressWarnings("unchecked")
     private CaseCreationDetails updateDocumentHash(
-            String jurisdiction,
+            Envelope envelope,
             CaseCreationDetails caseCreationDetails
     ) {
         List<?> scannedDocuments =
                 (List<?>)caseCreationDetails.caseData.get("scannedDocuments");
 
         if (scannedDocuments != null) {
-            for (Object scannedDocumentValue : scannedDocuments) {
-                Map scannedDocument = (Map)((Map) scannedDocumentValue).get("value");
-                Map url = (Map)scannedDocument.get("url");
-                String documentUrl = (String) url.get("document_url");
-                String documentUuid = getDocumentUuid(documentUrl);
-                String documentHash = cdamApiClient.getDocumentHash(jurisdiction, documentUuid);
-                url.put("document_hash", documentHash);
+            Map<String, String> documentHashes = processingLedger
+                .find(envelope.id, DOCUMENT_HASHES, new TypeReference<Map<String, String>>() {})
+                .orElseGet(HashMap::new);
+            int recordedHashCount = documentHashes.size();
+
+            List<Map> urls = scannedDocuments
+                .stream()
+                .map(scannedDocumentValue -> (Map) ((Map) ((Map) scannedDocumentValue).get("value")).get("url"))
+                .toList();
+
+            List<String> uuidsWithoutHash = urls
+                .stream()
+                .map(url -> getDocumentUuid((String) url.get("document_url")))
+                .filter(documentUuid -> !documentHashes.containsKey(documentUuid))
+                .toList();
+            if (!uuidsWithoutHash.isEmpty()) {
+                Map<String, String> retrievedHashes =
+                    cdamApiClient.getDocumentHashes(envelope.jurisdiction, uuidsWithoutHash);
+                for (String documentUuid : uuidsWithoutHash) {
+                    documentHashes.put(documentUuid, retrievedHashes.get(documentUuid));
+                }
+            }
+
+            for (Map url : urls) {
+                url.put("document_hash", documentHashes.get(getDocumentUuid((String) url.get("document_url"))));
+            }
+
+            if (documentHashes.size() > recordedHashCount) {
+                processingLedger.record(envelope.id, DOCUMENT_HASHES, documentHashes);
             }
         }
 
@@ -120,10 +187,15 @@ public class AutoCaseCreator {
         Envelope envelope,
         String loggingContext
     ) {
+        ProcessingDeadline.check("auto create case in CCD");
+        processingLedger.recordCcdWriteStarted(envelope.id);
+
         try {
             log.info("About to auto create a case in CCD from envelope. {}", loggingContext);
             long caseId = callCcdApiToCreateCase(caseCreationDetails, envelope, loggingContext);
             log.info("Auto created a case in CCD from envelope. Case Id: {}. {}", caseId, loggingContext);
+            processingLedger.record(envelope.id, CASE_ID, caseId);
+            caseReferenceIndex.record(ENVELOPE_ID, envelope.id, envelope.container, caseId);
 
             return CaseCreationResult.caseCreated(caseId);
         } catch (FeignException.UnprocessableEntity | FeignException.BadRequest ex) {
@@ -135,6 +207,9 @@ public class AutoCaseCreator {
             );
 
             return CaseCreationResult.unrecoverableFailure();
+        } catch (CcdUnavailableException ex) {
+            // not a case creation error - processing of the whole envelope has to be deferred
+            throw ex;
         } catch (Exception ex) {
             log.error(
                 "An error occurred when trying to auto create a case in CCD from envelope. {}",
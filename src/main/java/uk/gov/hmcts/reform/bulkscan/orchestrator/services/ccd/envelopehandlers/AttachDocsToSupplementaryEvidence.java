@@ -17,7 +17,10 @@ import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
 
+import static java.util.stream.Collectors.joining;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.ScannedDocumentsHelper.getDocuments;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.ServiceCaseFields.BULK_SCAN_ENVELOPES;
 
@@ -57,44 +60,143 @@ class AttachDocsToSupplementaryEvidence {
             return true;
         } else {
             log.info("Attaching supplementary evidence. {}", loggingContext);
+            return attach(
+                envelope.jurisdiction,
+                existingCase,
+                (existingDocuments, envelopeReferences) -> mapper.map(existingDocuments, envelopeReferences, envelope),
+                loggingContext
+            );
+        }
+    }
 
-            try {
-                CcdAuthenticator authenticator = ccdApi.authenticateJurisdiction(envelope.jurisdiction);
-
-                ccdApi.attachScannedDocs(
-                    authenticator,
-                    envelope.jurisdiction,
-                    existingCase.getCaseTypeId(),
-                    Long.toString(existingCase.getId()),
-                    EventIds.ATTACH_SCANNED_DOCS,
-                    startEventResponse -> buildCaseDataContent(envelope, startEventResponse),
-                    loggingContext
-                );
-
-                log.info("Attached documents from envelope to case. {}", loggingContext);
-                return true;
-            } catch (UnableToAttachDocumentsException e) {
-                log.error("Failed to attach documents from envelope to case. {}", loggingContext, e);
-                return false;
-            }
+    /**
+     * Attaches documents from given envelopes to existing case in a single event.
+     *
+     * @return true when attaching documents to existing case is successful, otherwise false
+     */
+    public boolean attach(List<Envelope> envelopes, CaseDetails existingCase) {
+        String loggingContext = String.format(
+            "Envelope IDs: %s. File names: %s. Case ref: %s. Case state: %s",
+            envelopes.stream().map(envelope -> envelope.id).collect(joining(",")),
+            envelopes.stream().map(envelope -> envelope.zipFileName).collect(joining(",")),
+            existingCase.getId(),
+            existingCase.getState()
+        );
+        List<Document> newDocuments = envelopes.stream().flatMap(envelope -> envelope.documents.stream()).toList();
+        if (mapper.getDocsToAdd(getDocuments(existingCase), newDocuments).isEmpty()) {
+            log.warn("Envelopes have no new documents. CCD Case not updated. {}", loggingContext);
+            return true;
+        } else {
+            log.info("Attaching supplementary evidence from {} envelopes. {}", envelopes.size(), loggingContext);
+            return attach(
+                envelopes.get(0).jurisdiction,
+                existingCase,
+                (existingDocuments, envelopeReferences) ->
+                    mapper.mapAll(existingDocuments, envelopeReferences, envelopes),
+                loggingContext
+            );
+        }
+    }
+
+    private boolean attach(
+        String jurisdiction,
+        CaseDetails existingCase,
+        BiFunction<List<Document>, List<Map<String, Object>>, SupplementaryEvidence> caseDataMapper,
+        String loggingContext
+    ) {
+        try {
+            CcdAuthenticator authenticator = ccdApi.authenticateJurisdiction(jurisdiction);
+
+            ccdApi.attachScannedDocs(
+                authenticator,
+                jurisdiction,
+                existingCase.getCaseTypeId(),
+                Long.toString(existingCase.getId()),
+                EventIds.ATTACH_SCANNED_DOCS,
+                startEventResponse -> buildCaseDataContent(
+                    startEventResponse,
+                    getDocuments(startEventResponse.getCaseDetails()),
+                    caseDataMapper
+                ),
+                loggingContext
+            );
+
+            log.info("Attached documents from envelope to case. {}", loggingContext);
+            return true;
+        } catch (UnableToAttachDocumentsException e) {
+            log.error("Failed to attach documents from envelope to case. {}", loggingContext, e);
+            return false;
+        }
+    }
+
+    /**
+     * Attaches documents from given envelope to the case referenced by its CCD ID, taking the case from the start
+     * of the event instead of reading it beforehand. The event is not submitted if there are no new documents.
+     *
+     * @return ID of the case, or empty if the documents could not be attached this way
+     */
+    public Optional<Long> attachToCaseById(Envelope envelope) {
+        String loggingContext = String.format(
+            "Envelope ID: %s. File name: %s. Case ref: %s",
+            envelope.id,
+            envelope.zipFileName,
+            envelope.caseRef
+        );
+        log.info("Attaching supplementary evidence to case by its ID. {}", loggingContext);
+
+        try {
+            CcdAuthenticator authenticator = ccdApi.authenticateJurisdiction(envelope.jurisdiction);
+
+            CaseDetails existingCase = ccdApi.attachScannedDocsByCaseId(
+                authenticator,
+                envelope.jurisdiction,
+                envelope.caseRef,
+                EventIds.ATTACH_SCANNED_DOCS,
+                startEventResponse -> {
+                    if (!envelope.jurisdiction.equals(startEventResponse.getCaseDetails().getJurisdiction())) {
+                        throw new UnableToAttachDocumentsException(
+                            "Case belongs to jurisdiction " + startEventResponse.getCaseDetails().getJurisdiction()
+                        );
+                    }
+                    List<Document> existingDocuments = getDocuments(startEventResponse.getCaseDetails());
+                    List<Document> docsToAdd = mapper.getDocsToAdd(existingDocuments, envelope.documents);
+                    if (docsToAdd.isEmpty()) {
+                        log.warn("Envelope has no new documents. CCD Case not updated. {}", loggingContext);
+                        return Optional.empty();
+                    }
+                    return Optional.of(buildCaseDataContent(
+                        startEventResponse,
+                        existingDocuments,
+                        (existingDocs, envelopeReferences) ->
+                            mapper.map(existingDocs, envelopeReferences, envelope, docsToAdd)
+                    ));
+                },
+                loggingContext
+            );
+
+            log.info("Attached documents from envelope to case. {}", loggingContext);
+            return Optional.of(existingCase.getId());
+        } catch (UnableToAttachDocumentsException e) {
+            log.warn("Failed to attach documents from envelope to case by its ID. {}", loggingContext, e);
+            return Optional.empty();
         }
     }
 
     @SuppressWarnings("unchecked")
     private CaseDataContent buildCaseDataContent(
-        Envelope envelope,
-        StartEventResponse startEventResponse
+        StartEventResponse startEventResponse,
+        List<Document> existingDocuments,
+        BiFunction<List<Document>, List<Map<String, Object>>, SupplementaryEvidence> caseDataMapper
     ) {
         CaseDetails caseDetails = startEventResponse.getCaseDetails();
         var envelopeReferences = (List<Map<String, Object>>)caseDetails.getData().get(BULK_SCAN_ENVELOPES);
 
-        final List<Document> existingDocuments = getDocuments(caseDetails);
         for (Document document : existingDocuments) {
             if (document.fileName == null) {
                 log.error("null fileName of existing document");
             }
         }
-        SupplementaryEvidence caseData = mapper.map(existingDocuments, envelopeReferences, envelope);
+        SupplementaryEvidence caseData = caseDataMapper.apply(existingDocuments, envelopeReferences);
 
         return CaseDataContent.builder()
             .eventToken(startEventResponse.getToken())
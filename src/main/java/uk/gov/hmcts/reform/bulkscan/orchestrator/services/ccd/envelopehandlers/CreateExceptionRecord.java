@@ -7,7 +7,10 @@ import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.ExceptionRecordMapper;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticator;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EnvelopeIdLookup;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EventIds;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.ProcessingDeadline;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -27,13 +30,19 @@ public class CreateExceptionRecord {
 
     private final ExceptionRecordMapper mapper;
     private final CcdApi ccdApi;
+    private final EnvelopeIdLookup envelopeIdLookup;
+    private final EnvelopeProcessingLedger processingLedger;
 
     public CreateExceptionRecord(
         ExceptionRecordMapper mapper,
-        CcdApi ccdApi
+        CcdApi ccdApi,
+        EnvelopeIdLookup envelopeIdLookup,
+        EnvelopeProcessingLedger processingLedger
     ) {
         this.mapper = mapper;
         this.ccdApi = ccdApi;
+        this.envelopeIdLookup = envelopeIdLookup;
+        this.processingLedger = processingLedger;
     }
 
     /**
@@ -43,10 +52,15 @@ public class CreateExceptionRecord {
      * @return ccdReference of the created or already existing exception record
      */
     public Long tryCreateFrom(Envelope envelope) {
+        if (processingLedger.canSkipCcdSearch(envelope.id)) {
+            log.info("First attempt to write envelope {} to CCD - skipping search for exception records", envelope.id);
+            return createExceptionRecord(envelope);
+        }
+
         log.info("Checking for existing exception records for envelope {}", envelope.id);
 
         List<Long> existingExceptionRecords =
-            ccdApi.getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
+            envelopeIdLookup.getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
 
         if (!existingExceptionRecords.isEmpty()) {
             log.error(
@@ -69,6 +83,8 @@ public class CreateExceptionRecord {
             envelope.container,
             Optional.ofNullable(envelope.caseRef).orElse("(NOT PRESENT)")
         );
+        ProcessingDeadline.check("create exception record");
+        processingLedger.recordCcdWriteStarted(envelope.id);
         log.info("Creating exception record. {}", loggingContext);
 
         CcdAuthenticator authenticator = ccdApi.authenticateJurisdiction(envelope.jurisdiction);
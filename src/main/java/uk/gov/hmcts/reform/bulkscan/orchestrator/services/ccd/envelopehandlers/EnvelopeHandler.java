@@ -1,9 +1,12 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.envelopehandlers;
 
 import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseReadCache;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
 
+import java.util.List;
+
 @Service
 public class EnvelopeHandler {
 
@@ -25,7 +28,23 @@ public class EnvelopeHandler {
     }
 
     public EnvelopeProcessingResult handleEnvelope(Envelope envelope, long deliveryCount) {
+        try (var scope = CaseReadCache.openScope()) {
+            return handle(envelope, deliveryCount);
+        }
+    }
+
+    /**
+     * Handles supplementary evidence envelopes targeting the same case together.
+     *
+     * @return results of handling the envelopes, in the same order
+     */
+    public List<EnvelopeProcessingResult> handleSupplementaryEvidence(List<Envelope> envelopes) {
+        try (var scope = CaseReadCache.openScope()) {
+            return supplementaryEvidenceHandler.handle(envelopes);
+        }
+    }
 
+    private EnvelopeProcessingResult handle(Envelope envelope, long deliveryCount) {
         switch (envelope.classification) {
             case SUPPLEMENTARY_EVIDENCE:
                 return supplementaryEvidenceHandler.handle(envelope);
@@ -1,7 +1,9 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.envelopehandlers;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.PaymentsService;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseFinder;
@@ -10,6 +12,8 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.env
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -25,17 +29,20 @@ public class SupplementaryEvidenceHandler {
     private final AttachDocsToSupplementaryEvidence evidenceAttacher;
     private final PaymentsService paymentsService;
     private final CreateExceptionRecord exceptionRecordCreator;
+    private final boolean attachByCaseIdEnabled;
 
     public SupplementaryEvidenceHandler(
         CaseFinder caseFinder,
         AttachDocsToSupplementaryEvidence evidenceAttacher,
         CreateExceptionRecord exceptionRecordCreator,
-        PaymentsService paymentsService
+        PaymentsService paymentsService,
+        @Value("${core_case_data.attach-by-case-id.enabled}") boolean attachByCaseIdEnabled
     ) {
         this.caseFinder = caseFinder;
         this.evidenceAttacher = evidenceAttacher;
         this.paymentsService = paymentsService;
         this.exceptionRecordCreator = exceptionRecordCreator;
+        this.attachByCaseIdEnabled = attachByCaseIdEnabled;
     }
 
     public EnvelopeProcessingResult handle(Envelope envelope) {
@@ -44,12 +51,23 @@ public class SupplementaryEvidenceHandler {
             "Envelope classification has to be " + Classification.SUPPLEMENTARY_EVIDENCE
         );
 
+        if (attachByCaseIdEnabled && StringUtils.isNumeric(envelope.caseRef)) {
+            // saves reading the case before the event, falling back to it when the case can't be used this way
+            Optional<Long> caseId = evidenceAttacher.attachToCaseById(envelope);
+            if (caseId.isPresent()) {
+                caseFinder.recordEnvelopeAttachedTo(envelope, caseId.get());
+                paymentsService.createNewPayment(envelope, caseId.get(), false);
+                return new EnvelopeProcessingResult(caseId.get(), AUTO_ATTACHED_TO_CASE);
+            }
+        }
+
         Optional<CaseDetails> caseDetailsFound = caseFinder.findCase(envelope);
 
         if (caseDetailsFound.isPresent()) {
             CaseDetails existingCase = caseDetailsFound.get();
             boolean docsAttached = evidenceAttacher.attach(envelope, existingCase);
             if (docsAttached) {
+                caseFinder.recordEnvelopeAttachedTo(envelope, existingCase.getId());
                 paymentsService.createNewPayment(envelope, existingCase.getId(), false);
                 return new EnvelopeProcessingResult(existingCase.getId(), AUTO_ATTACHED_TO_CASE);
             } else {
@@ -76,4 +94,48 @@ public class SupplementaryEvidenceHandler {
             return new EnvelopeProcessingResult(erId, EXCEPTION_RECORD);
         }
     }
+
+    /**
+     * Handles envelopes targeting the same case, attaching all their documents to it in a single event.
+     * If that is not possible, envelopes are handled one by one.
+     *
+     * @return results of handling the envelopes, in the same order
+     */
+    public List<EnvelopeProcessingResult> handle(List<Envelope> envelopes) {
+        if (envelopes.size() == 1) {
+            return List.of(handle(envelopes.get(0)));
+        }
+        envelopes.forEach(envelope -> checkArgument(
+            envelope.classification == Classification.SUPPLEMENTARY_EVIDENCE,
+            "Envelope classification has to be " + Classification.SUPPLEMENTARY_EVIDENCE
+        ));
+
+        // the case finder falls back to the legacy case ref, which envelopes of the batch need not share,
+        // so envelopes are only attached together to the case with the CCD ID they all carry
+        String caseRef = envelopes.get(0).caseRef;
+        Optional<CaseDetails> caseDetailsFound =
+            StringUtils.isNumeric(caseRef) && envelopes.stream().allMatch(envelope -> caseRef.equals(envelope.caseRef))
+                ? caseFinder.findCase(envelopes.get(0))
+                    .filter(caseDetails -> caseRef.equals(String.valueOf(caseDetails.getId())))
+                : Optional.empty();
+
+        if (caseDetailsFound.isPresent() && evidenceAttacher.attach(envelopes, caseDetailsFound.get())) {
+            long caseId = caseDetailsFound.get().getId();
+            List<EnvelopeProcessingResult> results = new ArrayList<>();
+            for (Envelope envelope : envelopes) {
+                caseFinder.recordEnvelopeAttachedTo(envelope, caseId);
+                paymentsService.createNewPayment(envelope, caseId, false);
+                results.add(new EnvelopeProcessingResult(caseId, AUTO_ATTACHED_TO_CASE));
+            }
+            return results;
+        } else {
+            log.info(
+                "Handling {} envelopes one by one, because they could not be attached to a case together. "
+                    + "Envelope IDs: {}",
+                envelopes.size(),
+                envelopes.stream().map(envelope -> envelope.id).toList()
+            );
+            return envelopes.stream().map(this::handle).toList();
+        }
+    }
 }
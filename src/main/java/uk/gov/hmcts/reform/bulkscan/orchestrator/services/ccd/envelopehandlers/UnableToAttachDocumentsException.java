@@ -2,6 +2,10 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.envelopehandlers;
 
 public class UnableToAttachDocumentsException extends RuntimeException {
 
+    public UnableToAttachDocumentsException(String message) {
+        super(message);
+    }
+
     public UnableToAttachDocumentsException(String message, Throwable cause) {
         super(message, cause);
     }
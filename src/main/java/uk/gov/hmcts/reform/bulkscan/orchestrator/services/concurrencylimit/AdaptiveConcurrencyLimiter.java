@@ -0,0 +1,132 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit;
+
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ConcurrencyLimitExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent calls to a single downstream service.
+ *
+ * <p>The limit is adjusted with additive increase / multiplicative decrease: every call which completes
+ * within the latency threshold while the limit is well used raises the limit by {@code 1 / limit},
+ * so it grows gradually while the service keeps up, and every slow or overloaded call multiplies it
+ * by the backoff ratio. Callers which cannot get a permit within max wait time are rejected with
+ * {@link ConcurrencyLimitExceededException}.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String downstream;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public AdaptiveConcurrencyLimiter(
+        String downstream,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        Duration latencyThreshold,
+        double backoffRatio,
+        Duration maxWait
+    ) {
+        this.downstream = downstream;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Waits for a permit to call the downstream service.
+     * Every successful call must be followed by {@link #release(long, boolean)}.
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            long remainingNanos = maxWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    rejected++;
+                    throw new ConcurrencyLimitExceededException(
+                        String.format(
+                            "Concurrency limit of %d calls to %s reached, no permit within %d ms",
+                            (int) limit,
+                            downstream,
+                            TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                        )
+                    );
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException("Interrupted while waiting for permit to call " + downstream);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the permit and adjusts the limit based on the outcome of the call.
+     *
+     * @param latencyNanos how long the call took
+     * @param overloaded   whether the call failed in a way showing the downstream service is struggling
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (overloaded || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if ((inFlight + 1) * 2 >= limit) {
+                // grow only when at least half of the limit was in use, otherwise calls say nothing about capacity
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
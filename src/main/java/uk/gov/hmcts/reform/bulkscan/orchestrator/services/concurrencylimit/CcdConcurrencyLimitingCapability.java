@@ -0,0 +1,55 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit.DownstreamConcurrencyLimiters.isOverloaded;
+
+/**
+ * Applies downstream concurrency limit to calls made to CCD by feign clients.
+ *
+ * <p>The capability is picked up by all feign clients, so calls to other services (e.g. IDAM) are passed through.</p>
+ */
+@Component
+public class CcdConcurrencyLimitingCapability implements Capability {
+
+    private final DownstreamConcurrencyLimiters limiters;
+    private final String ccdUrl;
+    private final URI ccdUri;
+
+    public CcdConcurrencyLimitingCapability(
+        DownstreamConcurrencyLimiters limiters,
+        @Value("${core_case_data.api.url}") String ccdUrl
+    ) {
+        this.limiters = limiters;
+        this.ccdUrl = ccdUrl;
+        this.ccdUri = URI.create(ccdUrl);
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            if (!limiters.isEnabled() || !request.url().startsWith(ccdUrl)) {
+                return client.execute(request, options);
+            }
+
+            AdaptiveConcurrencyLimiter limiter = limiters.forUri(ccdUri);
+            limiter.acquire();
+
+            long start = System.nanoTime();
+            boolean overloaded = true;
+            try {
+                Response response = client.execute(request, options);
+                overloaded = isOverloaded(response.status());
+                return response;
+            } finally {
+                limiter.release(System.nanoTime() - start, overloaded);
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit.DownstreamConcurrencyLimiters.isOverloaded;
+
+/**
+ * Applies downstream concurrency limits to calls made with {@code RestTemplate},
+ * i.e. to CDAM and to transformation and case update endpoints of services.
+ */
+@Component
+public class ConcurrencyLimitingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final DownstreamConcurrencyLimiters limiters;
+
+    public ConcurrencyLimitingInterceptor(DownstreamConcurrencyLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+        HttpRequest request,
+        byte[] body,
+        ClientHttpRequestExecution execution
+    ) throws IOException {
+        if (!limiters.isEnabled()) {
+            return execution.execute(request, body);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.forUri(request.getURI());
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            overloaded = isOverloaded(response.getStatusCode().value());
+            return response;
+        } finally {
+            limiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+}
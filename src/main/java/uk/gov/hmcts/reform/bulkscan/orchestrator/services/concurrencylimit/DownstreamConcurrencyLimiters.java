@@ -0,0 +1,96 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive concurrency limiters of downstream services, one per host the orchestrator calls.
+ *
+ * <p>Current limit, number of calls in flight and number of rejected calls of each downstream service
+ * are published as metrics tagged with the name of the service.</p>
+ */
+@Component
+public class DownstreamConcurrencyLimiters {
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyThreshold;
+    private final double backoffRatio;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public DownstreamConcurrencyLimiters(
+        @Value("${downstream-concurrency-limits.enabled}") boolean enabled,
+        @Value("${downstream-concurrency-limits.initial-limit}") int initialLimit,
+        @Value("${downstream-concurrency-limits.min-limit}") int minLimit,
+        @Value("${downstream-concurrency-limits.max-limit}") int maxLimit,
+        @Value("${downstream-concurrency-limits.latency-threshold}") Duration latencyThreshold,
+        @Value("${downstream-concurrency-limits.backoff-ratio}") double backoffRatio,
+        @Value("${downstream-concurrency-limits.max-wait}") Duration maxWait,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns limiter of the downstream service identified by host and port of the URI.
+     */
+    public AdaptiveConcurrencyLimiter forUri(URI uri) {
+        return limiters.computeIfAbsent(uri.getAuthority(), this::createLimiter);
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String downstream) {
+        var limiter = new AdaptiveConcurrencyLimiter(
+            downstream,
+            initialLimit,
+            minLimit,
+            maxLimit,
+            latencyThreshold,
+            backoffRatio,
+            maxWait
+        );
+
+        Gauge.builder("downstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .tag("downstream", downstream)
+            .register(meterRegistry);
+        Gauge.builder("downstream.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .tag("downstream", downstream)
+            .register(meterRegistry);
+        FunctionCounter.builder("downstream.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+            .tag("downstream", downstream)
+            .register(meterRegistry);
+
+        return limiter;
+    }
+
+    /**
+     * Tells whether response status shows the downstream service is overloaded.
+     * Client errors, apart from too many requests, say nothing about the health of the service.
+     */
+    static boolean isOverloaded(int status) {
+        return status == 429 || status >= 500;
+    }
+}
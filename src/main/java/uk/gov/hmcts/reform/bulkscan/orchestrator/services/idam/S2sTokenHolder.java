@@ -0,0 +1,184 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the service-to-service token shared by all calls to downstream services.
+ *
+ * <p>The token is rotated in the background before it expires, so callers only wait for the S2S service
+ * when there is no valid token, e.g. when all refreshes have failed until the token expired.</p>
+ */
+public class S2sTokenHolder implements AuthTokenGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(S2sTokenHolder.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // used when the expiry of a token can't be read from it
+    private static final Duration DEFAULT_TOKEN_LIFETIME = Duration.ofMinutes(10);
+
+    private static final Duration REFRESH_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final AuthTokenGenerator tokenGenerator;
+    private final Duration refreshBeforeExpiry;
+    private final Executor refresher;
+
+    private final Timer refreshSuccessTimer;
+    private final Timer refreshFailureTimer;
+
+    // not a monitor, so that virtual threads waiting for the token don't pin their carrier threads
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Token token;
+
+    public S2sTokenHolder(
+        AuthTokenGenerator tokenGenerator,
+        Duration refreshBeforeExpiry,
+        MeterRegistry meterRegistry,
+        Executor refresher
+    ) {
+        this.tokenGenerator = tokenGenerator;
+        this.refreshBeforeExpiry = refreshBeforeExpiry;
+        this.refresher = refresher;
+
+        this.refreshSuccessTimer = meterRegistry.timer("s2s.token.refresh", "result", "success");
+        this.refreshFailureTimer = meterRegistry.timer("s2s.token.refresh", "result", "failure");
+        Gauge.builder("s2s.token.age", this, S2sTokenHolder::getTokenAgeInSeconds)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Fetches the first token in the background, so that it's ready before the first call needs it.
+     */
+    public void start() {
+        refresher.execute(() -> refresh(null));
+    }
+
+    @Override
+    public String generate() {
+        Token current = token;
+        if (current != null && current.isValid()) {
+            return current.value;
+        }
+        return fetchIfInvalid().value;
+    }
+
+    private Token fetchIfInvalid() {
+        lock.lock();
+        try {
+            Token current = token;
+            if (current != null && current.isValid()) {
+                return current;
+            }
+            return fetch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called while holding the lock
+    private Token fetch() {
+        long start = System.nanoTime();
+        try {
+            Token fetched = new Token(tokenGenerator.generate(), Instant.now());
+            refreshSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            token = fetched;
+            Duration lifetime = Duration.between(fetched.fetchedAt, fetched.expiresAt);
+            if (lifetime.isPositive()) {
+                // tokens which live shorter than the refresh time are refreshed half way through their life
+                Duration refreshAfter = lifetime.minus(refreshBeforeExpiry);
+                scheduleRefresh(fetched, refreshAfter.compareTo(lifetime.dividedBy(2)) < 0
+                    ? lifetime.dividedBy(2)
+                    : refreshAfter
+                );
+            }
+            return fetched;
+        } catch (RuntimeException ex) {
+            refreshFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    // replaces given token, unless it has already been replaced
+    private void refresh(Token replaced) {
+        lock.lock();
+        try {
+            if (token != replaced) {
+                return;
+            }
+            fetch();
+        } catch (RuntimeException ex) {
+            // current token, if any, is used until it expires
+            log.warn("Failed to refresh S2S token", ex);
+            scheduleRefresh(replaced, REFRESH_RETRY_DELAY);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleRefresh(Token replaced, Duration delay) {
+        CompletableFuture
+            .delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, refresher)
+            .execute(() -> refresh(replaced));
+    }
+
+    private double getTokenAgeInSeconds() {
+        Token current = token;
+        return current == null ? 0 : Duration.between(current.fetchedAt, Instant.now()).toSeconds();
+    }
+
+    private static Instant readExpiry(String token, Instant fetchedAt) {
+        String jwt = token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()) : token;
+        String[] parts = jwt.split("\\.");
+        if (parts.length == 3) {
+            try {
+                String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+                JsonNode expiry = OBJECT_MAPPER.readTree(payload).get("exp");
+                if (expiry != null && expiry.canConvertToLong()) {
+                    return Instant.ofEpochSecond(expiry.asLong());
+                }
+            } catch (IllegalArgumentException | JsonProcessingException ex) {
+                log.warn("Failed to read expiry of S2S token", ex);
+            }
+        }
+        return fetchedAt.plus(DEFAULT_TOKEN_LIFETIME);
+    }
+
+    private static final class Token {
+
+        final String value;
+        final Instant fetchedAt;
+        final Instant expiresAt;
+
+        Token(String value, Instant fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = readExpiry(value, fetchedAt);
+        }
+
+        boolean isValid() {
+            return Instant.now().isBefore(expiresAt);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.cache;
 
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.Credential;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
@@ -11,6 +16,21 @@ import uk.gov.hmcts.reform.idam.client.IdamClient;
 import uk.gov.hmcts.reform.idam.client.models.TokenResponse;
 import uk.gov.hmcts.reform.idam.client.models.UserInfo;
 
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.config.DownstreamCallExecutorConfig.DOWNSTREAM_CALL_EXECUTOR;
+
+/**
+ * Caches IDAM credentials of jurisdiction users.
+ *
+ * <p>When refresh ahead is enabled, a credential is reloaded in the background shortly before it expires,
+ * while callers keep getting the current one. Only if that fails until the credential expires
+ * do callers wait for IDAM.</p>
+ */
 @Service
 public class IdamCachedClient {
 
@@ -18,31 +38,117 @@ public class IdamCachedClient {
     public static final String BEARER_AUTH_TYPE = "Bearer ";
     public static final String EXPIRES_IN = "expires_in";
 
-    private Cache<String, CachedIdamCredential> idamCache;
+    private static final long REFRESH_RETRY_DELAY_IN_SEC = 30;
+
+    private final AsyncLoadingCache<String, CachedIdamCredential> idamCache;
+    private final Executor loader;
 
     private final IdamClient idamClient;
     private final JurisdictionToUserMapping users;
+    private final IdamCacheExpiry idamCacheExpiry;
+    private final long refreshAheadInSec;
+
+    private final Timer refreshSuccessTimer;
+    private final Timer refreshFailureTimer;
 
     public IdamCachedClient(
         IdamClient idamClient,
         JurisdictionToUserMapping users,
-        IdamCacheExpiry idamCacheExpiry
+        IdamCacheExpiry idamCacheExpiry,
+        @Value("${idam.client.cache.refresh-ahead-in-sec}") long refreshAheadInSec,
+        MeterRegistry meterRegistry,
+        @Qualifier(DOWNSTREAM_CALL_EXECUTOR) Executor loader
     ) {
         this.idamClient = idamClient;
         this.users = users;
+        this.idamCacheExpiry = idamCacheExpiry;
+        this.refreshAheadInSec = refreshAheadInSec;
+        this.loader = loader;
+        // credentials are loaded outside the cache's internal locks, so callers on virtual threads are not pinned
         this.idamCache = Caffeine.newBuilder()
             .expireAfter(idamCacheExpiry)
-            .build();
+            .executor(loader)
+            .recordStats()
+            .buildAsync(this::loadIdamCredential);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, idamCache, "idam-credentials", Collections.emptyList());
+        this.refreshSuccessTimer = meterRegistry.timer("idam.credentials.refresh", "result", "success");
+        this.refreshFailureTimer = meterRegistry.timer("idam.credentials.refresh", "result", "failure");
     }
 
     public CachedIdamCredential getIdamCredentials(String jurisdiction) {
         log.info("Getting idam credential for jurisdiction: {} ", jurisdiction);
-        return this.idamCache.get(jurisdiction.toLowerCase(), this::retrieveIdamInfo);
+        String key = jurisdiction.toLowerCase();
+        CompletableFuture<CachedIdamCredential> credential = this.idamCache.get(key);
+        try {
+            return credential.join();
+        } catch (CompletionException ex) {
+            // the cache removes failed loads asynchronously - remove it now, so that the next call retries
+            this.idamCache.asMap().remove(key, credential);
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Removes the credential with given access token, e.g. after it has been rejected.
+     *
+     * <p>A credential which has already replaced it stays cached, so that callers which were rejected
+     * with the same token at the same time share a single log in to IDAM.</p>
+     */
+    public void removeAccessTokenFromCache(String jurisdiction, String accessToken) {
+        String key = jurisdiction.toLowerCase();
+        CompletableFuture<CachedIdamCredential> credential = this.idamCache.asMap().get(key);
+        if (credential != null && accessToken.equals(accessTokenOf(credential))) {
+            log.info("Removing idam credential from cache for jurisdiction: {} ", jurisdiction);
+            this.idamCache.asMap().remove(key, credential);
+        }
+    }
+
+    private CachedIdamCredential loadIdamCredential(String jurisdiction) {
+        CachedIdamCredential credential = retrieveIdamInfo(jurisdiction);
+        if (refreshAheadInSec > 0) {
+            long cachedForInSec = TimeUnit.NANOSECONDS.toSeconds(
+                idamCacheExpiry.expireAfterCreate(jurisdiction, credential, 0)
+            );
+            if (cachedForInSec > refreshAheadInSec) {
+                scheduleRefresh(jurisdiction, credential, cachedForInSec - refreshAheadInSec);
+            }
+        }
+        return credential;
+    }
+
+    private void scheduleRefresh(String jurisdiction, CachedIdamCredential credential, long delayInSec) {
+        CompletableFuture
+            .delayedExecutor(delayInSec, TimeUnit.SECONDS, loader)
+            .execute(() -> refresh(jurisdiction, credential));
+    }
+
+    private void refresh(String jurisdiction, CachedIdamCredential credential) {
+        CompletableFuture<CachedIdamCredential> cached = this.idamCache.asMap().get(jurisdiction);
+        if (cached == null || !credential.accessToken.equals(accessTokenOf(cached))) {
+            // credential has expired or has been replaced in the meantime
+            return;
+        }
+
+        log.info("Refreshing idam credential for jurisdiction: {} ahead of expiry", jurisdiction);
+        long start = System.nanoTime();
+        this.idamCache.synchronous().refresh(jurisdiction).whenComplete((refreshed, ex) -> {
+            if (ex == null) {
+                refreshSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                // the current credential stays cached until it expires
+                refreshFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.warn("Failed to refresh idam credential for jurisdiction: {}", jurisdiction, ex);
+                scheduleRefresh(jurisdiction, credential, REFRESH_RETRY_DELAY_IN_SEC);
+            }
+        });
     }
 
-    public void removeAccessTokenFromCache(String jurisdiction) {
-        log.info("Removing idam credential from cache for jurisdiction: {} ", jurisdiction);
-        this.idamCache.invalidate(jurisdiction.toLowerCase());
+    private static String accessTokenOf(CompletableFuture<CachedIdamCredential> credential) {
+        return credential.isDone() && !credential.isCompletedExceptionally() ? credential.join().accessToken : null;
     }
 
     private CachedIdamCredential retrieveIdamInfo(String jurisdiction) {
@@ -0,0 +1,134 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.EnvelopeProcessingLedgerRepository;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CCD_WRITE_STARTED;
+
+/**
+ * Records outputs of completed envelope processing steps, so that processing of a redelivered
+ * envelope can resume from the step which failed instead of calling CCD and CDAM again
+ * for the steps which already completed. Outputs are stored in plain text, so steps whose output
+ * holds personal data, like case data, must not be recorded.
+ *
+ * <p>The ledger is an optimisation only - failures to read or write it are logged and
+ * processing carries on as if the step had not been recorded. The only exception is the record
+ * of a write to CCD being started, which has to be stored before the write, because it allows
+ * first deliveries to skip searching CCD for cases created from the envelope. For the same reason, that record
+ * is kept for longer than entries of other steps.</p>
+ */
+@Service
+public class EnvelopeProcessingLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeProcessingLedger.class);
+
+    private final EnvelopeProcessingLedgerRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean firstDeliveryFastPathEnabled;
+
+    public EnvelopeProcessingLedger(
+        EnvelopeProcessingLedgerRepository repository,
+        ObjectMapper objectMapper,
+        @Value("${envelope-processing-ledger.enabled}") boolean enabled,
+        @Value("${envelope-processing-ledger.first-delivery-fast-path-enabled}") boolean firstDeliveryFastPathEnabled
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.firstDeliveryFastPathEnabled = enabled && firstDeliveryFastPathEnabled;
+    }
+
+    public <T> Optional<T> find(String envelopeId, ProcessingStep step, Class<T> outputType) {
+        return find(envelopeId, step, objectMapper.constructType(outputType));
+    }
+
+    public <T> Optional<T> find(String envelopeId, ProcessingStep step, TypeReference<T> outputType) {
+        return find(envelopeId, step, objectMapper.getTypeFactory().constructType(outputType));
+    }
+
+    private <T> Optional<T> find(String envelopeId, ProcessingStep step, JavaType outputType) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<T> output = repository.findOutput(envelopeId, step)
+                .map(json -> this.<T>readOutput(json, outputType));
+
+            output.ifPresent(o -> log.info("Resuming from recorded step {}. Envelope ID: {}", step, envelopeId));
+            return output;
+        } catch (Exception exc) {
+            log.warn("Failed to read step {} from processing ledger. Envelope ID: {}", step, envelopeId, exc);
+            return Optional.empty();
+        }
+    }
+
+    public void record(String envelopeId, ProcessingStep step, Object output) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            upsert(envelopeId, step, output);
+        } catch (Exception exc) {
+            log.warn("Failed to record step {} in processing ledger. Envelope ID: {}", step, envelopeId, exc);
+        }
+    }
+
+    /**
+     * Records that this service is about to write to CCD on behalf of the envelope.
+     * Unlike other steps, failure to record it is not ignored - the write must not happen without the record.
+     */
+    public void recordCcdWriteStarted(String envelopeId) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            upsert(envelopeId, CCD_WRITE_STARTED, Instant.now());
+        } catch (JsonProcessingException exc) {
+            throw new IllegalStateException("Failed to serialise processing ledger entry", exc);
+        }
+    }
+
+    /**
+     * Checks if searching CCD for cases created from the envelope can be skipped, because the ledger
+     * confirms that no previous attempt to process the envelope has written to CCD.
+     */
+    public boolean canSkipCcdSearch(String envelopeId) {
+        if (!firstDeliveryFastPathEnabled) {
+            return false;
+        }
+
+        try {
+            return repository.findOutput(envelopeId, CCD_WRITE_STARTED).isEmpty();
+        } catch (Exception exc) {
+            log.warn("Failed to read processing ledger, CCD will be searched. Envelope ID: {}", envelopeId, exc);
+            return false;
+        }
+    }
+
+    private void upsert(String envelopeId, ProcessingStep step, Object output) throws JsonProcessingException {
+        repository.upsert(envelopeId, step, objectMapper.writeValueAsString(output));
+    }
+
+    private <T> T readOutput(String json, JavaType outputType) {
+        try {
+            return objectMapper.readValue(json, outputType);
+        } catch (Exception exc) {
+            throw new IllegalStateException("Invalid processing ledger entry", exc);
+        }
+    }
+}
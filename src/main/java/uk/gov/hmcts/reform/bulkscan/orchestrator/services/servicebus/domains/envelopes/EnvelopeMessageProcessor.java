@@ -1,13 +1,17 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
 
 import com.azure.messaging.servicebus.ServiceBusErrorContext;
+import com.azure.messaging.servicebus.ServiceBusMessage;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import com.azure.messaging.servicebus.models.DeadLetterOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdUnavailableException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.InvalidMessageException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.MessageProcessingException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.logging.AppInsights;
@@ -18,11 +22,16 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.env
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.IProcessedEnvelopeNotifier;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.EnvelopeParser.parse;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.handler.MessageProcessingResultType.DEFERRED;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.handler.MessageProcessingResultType.POTENTIALLY_RECOVERABLE_FAILURE;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.handler.MessageProcessingResultType.SUCCESS;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.handler.MessageProcessingResultType.UNRECOVERABLE_FAILURE;
@@ -38,17 +47,32 @@ public class EnvelopeMessageProcessor {
     private final IProcessedEnvelopeNotifier processedEnvelopeNotifier;
     private final int maxDeliveryCount;
     private final AppInsights appInsights;
+    private final EnvelopeProcessingLanes processingLanes;
+    private final SupplementaryEvidenceCoalescer supplementaryEvidenceCoalescer;
+    private final Duration processingDeadline;
+    private final RedeliveryBackoff redeliveryBackoff;
+    private final Optional<ServiceBusSenderClient> retrySender;
 
     public EnvelopeMessageProcessor(
         EnvelopeHandler envelopeHandler,
         IProcessedEnvelopeNotifier processedEnvelopeNotifier,
         @Value("${azure.servicebus.envelopes.max-delivery-count}") int maxDeliveryCount,
-        AppInsights appInsights
+        AppInsights appInsights,
+        EnvelopeProcessingLanes processingLanes,
+        SupplementaryEvidenceCoalescer supplementaryEvidenceCoalescer,
+        @Value("${azure.servicebus.envelopes.processing-deadline}") Duration processingDeadline,
+        RedeliveryBackoff redeliveryBackoff,
+        @Qualifier("envelopes-retry") Optional<ServiceBusSenderClient> retrySender
     ) {
         this.envelopeHandler = envelopeHandler;
         this.processedEnvelopeNotifier = processedEnvelopeNotifier;
         this.maxDeliveryCount = maxDeliveryCount;
         this.appInsights = appInsights;
+        this.processingLanes = processingLanes;
+        this.supplementaryEvidenceCoalescer = supplementaryEvidenceCoalescer;
+        this.processingDeadline = processingDeadline;
+        this.redeliveryBackoff = redeliveryBackoff;
+        this.retrySender = retrySender;
     }
 
     /**
@@ -74,22 +98,31 @@ public class EnvelopeMessageProcessor {
             return new MessageProcessingResult(SUCCESS);
         } else {
             Envelope envelope = null;
+            Instant deadline = Instant.now().plus(processingDeadline);
 
             try {
-                envelope = parse(message.getBody().toBytes());
+                envelope = parse(message.getBody());
                 logMessageParsed(message, envelope);
-                EnvelopeProcessingResult envelopeProcessingResult =
-                    envelopeHandler.handleEnvelope(envelope, message.getDeliveryCount());
-                processedEnvelopeNotifier.notify(
-                    envelope.id,
-                    envelopeProcessingResult.ccdId,
-                    envelopeProcessingResult.envelopeCcdAction
+                Envelope parsedEnvelope = envelope;
+                ProcessingDeadline.runWithin(
+                    deadline,
+                    () -> supplementaryEvidenceCoalescer.accepts(parsedEnvelope)
+                        ? handleCoalescedEnvelope(parsedEnvelope)
+                        : processingLanes.runInLane(parsedEnvelope, () -> handleEnvelope(parsedEnvelope, message))
                 );
                 log.info("Processed message with ID {}. File name: {}", message.getMessageId(), envelope.zipFileName);
                 return new MessageProcessingResult(SUCCESS);
             } catch (InvalidMessageException ex) {
                 log.error("Rejected message with ID {}, because it's invalid", message.getMessageId(), ex);
                 return new MessageProcessingResult(UNRECOVERABLE_FAILURE, ex);
+            } catch (CcdUnavailableException ex) {
+                log.warn(
+                    "Deferred processing of message with ID {}. Envelope ID: {}. Reason: {}",
+                    message.getMessageId(),
+                    envelope.id,
+                    ex.getMessage()
+                );
+                return new MessageProcessingResult(DEFERRED, ex);
             } catch (Exception ex) {
                 logMessageProcessingError(message, envelope, ex);
                 return new MessageProcessingResult(POTENTIALLY_RECOVERABLE_FAILURE);
@@ -97,6 +130,40 @@ public class EnvelopeMessageProcessor {
         }
     }
 
+    private EnvelopeProcessingResult handleEnvelope(Envelope envelope, ServiceBusReceivedMessage message) {
+        // waiting for the lane may have used up the time available for processing
+        ProcessingDeadline.check("handle envelope");
+        EnvelopeProcessingResult envelopeProcessingResult =
+            envelopeHandler.handleEnvelope(envelope, getDeliveryCount(message));
+        processedEnvelopeNotifier.notify(
+            envelope.id,
+            envelopeProcessingResult.ccdId,
+            envelopeProcessingResult.envelopeCcdAction
+        );
+        return envelopeProcessingResult;
+    }
+
+    /**
+     * Handles the envelope together with envelopes for the same case from messages processed at the same time.
+     * The batch is handled in the lane of the envelope which opened it, by the thread which processes it.
+     */
+    private EnvelopeProcessingResult handleCoalescedEnvelope(Envelope envelope) {
+        EnvelopeProcessingResult envelopeProcessingResult = supplementaryEvidenceCoalescer.handle(
+            envelope,
+            envelopes -> processingLanes.runInLane(envelope, () -> {
+                // waiting for other envelopes and for the lane may have used up the time available for processing
+                ProcessingDeadline.check("handle envelopes");
+                return envelopeHandler.handleSupplementaryEvidence(envelopes);
+            })
+        );
+        processedEnvelopeNotifier.notify(
+            envelope.id,
+            envelopeProcessingResult.ccdId,
+            envelopeProcessingResult.envelopeCcdAction
+        );
+        return envelopeProcessingResult;
+    }
+
     private void tryFinaliseProcessedMessage(
         ServiceBusReceivedMessageContext context,
         MessageProcessingResult processingResult
@@ -130,25 +197,16 @@ public class EnvelopeMessageProcessor {
                 );
 
                 break;
-            case POTENTIALLY_RECOVERABLE_FAILURE:
-                // starts from 0
-                int deliveryCount = (int) message.getDeliveryCount() + 1;
-
-                if (deliveryCount < maxDeliveryCount) {
-                    // do nothing - let the message lock expire
-                    log.info(
-                        "Allowing message with ID {} to return to queue (delivery attempt {})",
-                        message.getMessageId(),
-                        deliveryCount
-                    );
+            case DEFERRED:
+                if (redeliveryBackoff.isEnabled()) {
+                    deferRedelivery(context, ((CcdUnavailableException) processingResult.exception).getRetryAfter());
                 } else {
-                    deadLetterTheMessage(
-                        context,
-                        "Too many deliveries",
-                        "Reached limit of message delivery count of " + deliveryCount
-                    );
+                    // without the retry queue, the message can only return to the queue as a failed one
+                    handlePotentiallyRecoverableFailure(context, message);
                 }
-
+                break;
+            case POTENTIALLY_RECOVERABLE_FAILURE:
+                handlePotentiallyRecoverableFailure(context, message);
                 break;
             default:
                 throw new MessageProcessingException(
@@ -157,6 +215,96 @@ public class EnvelopeMessageProcessor {
         }
     }
 
+    private void handlePotentiallyRecoverableFailure(
+        ServiceBusReceivedMessageContext context,
+        ServiceBusReceivedMessage message
+    ) {
+        // starts from 0
+        int deliveryCount = (int) getDeliveryCount(message) + 1;
+
+        if (deliveryCount < maxDeliveryCount && redeliveryBackoff.isEnabled()) {
+            scheduleRedelivery(context, deliveryCount);
+        } else if (deliveryCount < maxDeliveryCount) {
+            // do nothing - let the message lock expire
+            log.info(
+                "Allowing message with ID {} to return to queue (delivery attempt {})",
+                message.getMessageId(),
+                deliveryCount
+            );
+        } else {
+            deadLetterTheMessage(
+                context,
+                "Too many deliveries",
+                "Reached limit of message delivery count of " + deliveryCount
+            );
+        }
+    }
+
+    /**
+     * Sends a copy of the message to be delivered after a backoff delay and completes the original one.
+     * If sending fails, the original message lock expires and the message is redelivered as usual.
+     */
+    private void scheduleRedelivery(ServiceBusReceivedMessageContext context, int deliveryCount) {
+        var message = context.getMessage();
+        Duration delay = redeliveryBackoff.delayFor(deliveryCount);
+        String originalMessageId =
+            RedeliveryBackoff.originalMessageId(message.getMessageId(), message.getApplicationProperties());
+
+        ServiceBusMessage retryMessage = new ServiceBusMessage(message.getBody())
+            .setMessageId(originalMessageId + "-retry-" + deliveryCount)
+            .setContentType(message.getContentType())
+            .setSubject(message.getSubject())
+            .setScheduledEnqueueTime(OffsetDateTime.now(ZoneOffset.UTC).plus(delay));
+        retryMessage.getApplicationProperties().putAll(message.getApplicationProperties());
+        retryMessage.getApplicationProperties().put(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, deliveryCount);
+        retryMessage.getApplicationProperties().put(RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, originalMessageId);
+
+        retrySender.orElseThrow().sendMessage(retryMessage);
+        context.complete();
+
+        log.info(
+            "Message with ID {} has been rescheduled for delivery attempt {} in {}",
+            message.getMessageId(),
+            deliveryCount + 1,
+            delay
+        );
+    }
+
+    /**
+     * Sends a copy of the message to be delivered once CCD is likely to be available again and completes
+     * the original one. The delivery does not count as an attempt, as the envelope was not processed.
+     * If sending fails, the original message lock expires and the message is redelivered as usual.
+     */
+    private void deferRedelivery(ServiceBusReceivedMessageContext context, Duration retryAfter) {
+        var message = context.getMessage();
+        int previousAttempts = (int) getDeliveryCount(message);
+        Duration delay = redeliveryBackoff.deferralDelay(retryAfter);
+        String originalMessageId =
+            RedeliveryBackoff.originalMessageId(message.getMessageId(), message.getApplicationProperties());
+
+        ServiceBusMessage deferredMessage = new ServiceBusMessage(message.getBody())
+            .setMessageId(originalMessageId + "-deferred-" + System.currentTimeMillis())
+            .setContentType(message.getContentType())
+            .setSubject(message.getSubject())
+            .setScheduledEnqueueTime(OffsetDateTime.now(ZoneOffset.UTC).plus(delay));
+        deferredMessage.getApplicationProperties().putAll(message.getApplicationProperties());
+        deferredMessage.getApplicationProperties().put(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, previousAttempts);
+        deferredMessage.getApplicationProperties()
+            .put(RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, originalMessageId);
+
+        retrySender.orElseThrow().sendMessage(deferredMessage);
+        context.complete();
+
+        log.info("Message with ID {} has been deferred by {}", message.getMessageId(), delay);
+    }
+
+    /**
+     * Delivery count of the message, including deliveries of messages it was re-sent from.
+     */
+    private static long getDeliveryCount(ServiceBusReceivedMessage message) {
+        return message.getDeliveryCount() + RedeliveryBackoff.previousAttempts(message.getApplicationProperties());
+    }
+
     private void deadLetterTheMessage(
         ServiceBusReceivedMessageContext context,
         String reason,
@@ -1,33 +1,43 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
 
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.azure.core.util.BinaryData;
+import com.fasterxml.jackson.databind.ObjectReader;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.JsonMappers;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.InvalidMessageException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public class EnvelopeParser {
 
-    private static final ObjectMapper objectMapper;
+    private static final ObjectReader envelopeReader = JsonMappers.ENVELOPES.readerFor(Envelope.class);
 
-    static {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
+    /**
+     * Parses the envelope straight from the message body, without copying it to a new byte array.
+     */
+    public static Envelope parse(BinaryData body) {
+        try (InputStream stream = body.toStream()) {
+            return envelopeReader.readValue(stream);
+        } catch (IOException exc) {
+            throw new InvalidMessageException(exc);
+        }
     }
 
     public static Envelope parse(byte[] bytes) {
         try {
-            return objectMapper.readValue(bytes, Envelope.class);
+            return envelopeReader.readValue(bytes);
         } catch (IOException exc) {
             throw new InvalidMessageException(exc);
         }
     }
 
     public static Envelope parse(String json) {
-        return parse(json.getBytes());
+        try {
+            return envelopeReader.readValue(json);
+        } catch (IOException exc) {
+            throw new InvalidMessageException(exc);
+        }
     }
 
     private EnvelopeParser() {
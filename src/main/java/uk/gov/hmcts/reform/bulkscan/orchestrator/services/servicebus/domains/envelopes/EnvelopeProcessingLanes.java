@@ -0,0 +1,67 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import com.google.common.util.concurrent.Striped;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
+
+/**
+ * Serialises processing of envelopes which target the same case.
+ *
+ * <p>When the envelopes queue is consumed concurrently, envelopes referring to the same case
+ * (or redeliveries of the same envelope) are funnelled through the same lane, so that they
+ * are handled one after another instead of racing each other in CCD.
+ * Envelopes which resolve to different lanes are processed in parallel.</p>
+ *
+ * <p>Lanes are keyed by CCD case reference. Envelopes referring to the case by legacy case reference only
+ * are keyed by the CCD reference the legacy one maps to in the {@link CaseReferenceIndex}. When the index
+ * does not know the legacy reference (yet), e.g. before the first envelope for the case has been processed,
+ * or after the entry has expired, the legacy reference is used as the key. Such an envelope may then be
+ * processed concurrently with one for the same case which carries its CCD reference - CCD optimistic locking
+ * still rejects the conflicting update, and the envelope is retried.</p>
+ */
+@Component
+public class EnvelopeProcessingLanes {
+
+    private final Striped<Lock> lanes;
+    private final CaseReferenceIndex caseReferenceIndex;
+
+    public EnvelopeProcessingLanes(
+        @Value("${azure.servicebus.envelopes.processing-lanes}") int laneCount,
+        CaseReferenceIndex caseReferenceIndex
+    ) {
+        this.lanes = Striped.lock(laneCount);
+        this.caseReferenceIndex = caseReferenceIndex;
+    }
+
+    public <T> T runInLane(Envelope envelope, Supplier<T> task) {
+        Lock lane = lanes.get(laneKey(envelope));
+        lane.lock();
+        try {
+            return task.get();
+        } finally {
+            lane.unlock();
+        }
+    }
+
+    // same precedence as case lookup, which ignores case references which are not CCD IDs
+    String laneKey(Envelope envelope) {
+        if (StringUtils.isNumeric(envelope.caseRef)) {
+            return envelope.caseRef;
+        } else if (StringUtils.isNotEmpty(envelope.legacyCaseRef)) {
+            List<Long> caseIds =
+                caseReferenceIndex.findCaseIds(LEGACY_ID, envelope.legacyCaseRef, envelope.container);
+            return caseIds.size() == 1 ? String.valueOf(caseIds.get(0)) : envelope.legacyCaseRef;
+        } else {
+            return envelope.id;
+        }
+    }
+}
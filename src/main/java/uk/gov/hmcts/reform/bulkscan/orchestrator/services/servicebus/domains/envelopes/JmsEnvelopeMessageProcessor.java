@@ -1,11 +1,13 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
 
 import jakarta.jms.JMSException;
+import org.apache.activemq.ScheduledMessage;
 import org.apache.activemq.command.ActiveMQMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.InvalidMessageException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.MessageProcessingException;
@@ -16,7 +18,7 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.env
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.IProcessedEnvelopeNotifier;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.EnvelopeParser.parse;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.handler.MessageProcessingResultType.POTENTIALLY_RECOVERABLE_FAILURE;
@@ -32,15 +34,21 @@ public class JmsEnvelopeMessageProcessor {
     private final EnvelopeHandler envelopeHandler;
     private final IProcessedEnvelopeNotifier processedEnvelopeNotifier;
     private final int maxDeliveryCount;
+    private final JmsTemplate jmsTemplate;
+    private final RedeliveryBackoff redeliveryBackoff;
 
     public JmsEnvelopeMessageProcessor(
         EnvelopeHandler envelopeHandler,
         IProcessedEnvelopeNotifier processedEnvelopeNotifier,
-        @Value("${azure.servicebus.envelopes.max-delivery-count}") int maxDeliveryCount
+        @Value("${azure.servicebus.envelopes.max-delivery-count}") int maxDeliveryCount,
+        JmsTemplate jmsTemplate,
+        RedeliveryBackoff redeliveryBackoff
     ) {
         this.envelopeHandler = envelopeHandler;
         this.processedEnvelopeNotifier = processedEnvelopeNotifier;
         this.maxDeliveryCount = maxDeliveryCount;
+        this.jmsTemplate = jmsTemplate;
+        this.redeliveryBackoff = redeliveryBackoff;
     }
 
     /**
@@ -50,10 +58,8 @@ public class JmsEnvelopeMessageProcessor {
     public void processMessage(ActiveMQMessage context, String messageBody) throws JMSException {
         if (context != null && !messageBody.isEmpty()) {
             log.info("Started processing message with ID {}", context.getJMSMessageID());
-            MessageProcessingResult result = process(context, messageBody,
-                Long.parseLong(context.getStringProperty("JMSXDeliveryCount"))
-            );
-            tryFinaliseProcessedMessage(context, result);
+            MessageProcessingResult result = process(context, messageBody, getDeliveryCount(context));
+            tryFinaliseProcessedMessage(context, messageBody, result);
         } else {
             log.info("No envelope messages left to process");
         }
@@ -62,7 +68,7 @@ public class JmsEnvelopeMessageProcessor {
     private MessageProcessingResult process(ActiveMQMessage message, String messageBody, long deliveryCount) {
         Envelope envelope = null;
         try {
-            envelope = parse(messageBody.getBytes(StandardCharsets.UTF_8));
+            envelope = parse(messageBody);
             logMessageParsed(messageBody, envelope);
             EnvelopeProcessingResult envelopeProcessingResult =
                 envelopeHandler.handleEnvelope(envelope, deliveryCount);
@@ -84,10 +90,11 @@ public class JmsEnvelopeMessageProcessor {
 
     private void tryFinaliseProcessedMessage(
         ActiveMQMessage context,
+        String messageBody,
         MessageProcessingResult processingResult
     ) throws JMSException {
         try {
-            finaliseProcessedMessage(context, processingResult);
+            finaliseProcessedMessage(context, messageBody, processingResult);
         } catch (InterruptedException ex) {
             logMessageFinaliseError(context, processingResult.resultType, ex);
             Thread.currentThread().interrupt();
@@ -98,6 +105,7 @@ public class JmsEnvelopeMessageProcessor {
 
     private void finaliseProcessedMessage(
         ActiveMQMessage context,
+        String messageBody,
         MessageProcessingResult processingResult
     ) throws InterruptedException, JMSException {
         // starts from 0
@@ -112,8 +120,10 @@ public class JmsEnvelopeMessageProcessor {
                 processingResult.exception.getMessage()
             );
             case POTENTIALLY_RECOVERABLE_FAILURE -> {
-                int deliveryCount = Integer.parseInt(context.getStringProperty("JMSXDeliveryCount")) + 1;
-                if (deliveryCount < maxDeliveryCount) {
+                int deliveryCount = (int) getDeliveryCount(context) + 1;
+                if (deliveryCount < maxDeliveryCount && redeliveryBackoff.isEnabled()) {
+                    scheduleRedelivery(context, messageBody, deliveryCount);
+                } else if (deliveryCount < maxDeliveryCount) {
                     // do nothing - let the message lock expire
                     log.info(
                         "Allowing message with ID {} to return to queue (delivery attempt {})",
@@ -134,6 +144,43 @@ public class JmsEnvelopeMessageProcessor {
         }
     }
 
+    /**
+     * Sends a copy of the message to be delivered after a backoff delay and acknowledges the original one.
+     * Requires scheduler support to be enabled on the broker.
+     */
+    private void scheduleRedelivery(
+        ActiveMQMessage context,
+        String messageBody,
+        int deliveryCount
+    ) throws JMSException {
+        Duration delay = redeliveryBackoff.delayFor(deliveryCount);
+
+        jmsTemplate.convertAndSend("envelopes", messageBody, retryMessage -> {
+            retryMessage.setLongProperty(ScheduledMessage.AMQ_SCHEDULED_DELAY, delay.toMillis());
+            retryMessage.setIntProperty(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, deliveryCount);
+            return retryMessage;
+        });
+        context.acknowledge();
+
+        log.info(
+            "Message with ID {} has been rescheduled for delivery attempt {} in {}",
+            context.getJMSMessageID(),
+            deliveryCount + 1,
+            delay
+        );
+    }
+
+    /**
+     * Delivery count of the message, including deliveries of messages it was re-sent from.
+     */
+    private static long getDeliveryCount(ActiveMQMessage message) throws JMSException {
+        long deliveryCount = Long.parseLong(message.getStringProperty("JMSXDeliveryCount"));
+
+        return message.propertyExists(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY)
+            ? deliveryCount + message.getIntProperty(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY)
+            : deliveryCount;
+    }
+
     private void deadLetterTheMessage(
         ActiveMQMessage context,
         String reason,
@@ -0,0 +1,52 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ProcessingDeadlineExceededException;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Deadline for processing the envelope which is currently handled by the thread.
+ *
+ * <p>Envelope processing steps call {@link #check(String)} before making writes to CCD,
+ * so that work which would outlive the message lock is abandoned before it can be duplicated
+ * by another consumer receiving the same message.</p>
+ */
+public final class ProcessingDeadline {
+
+    private static final ThreadLocal<Instant> DEADLINE = new ThreadLocal<>();
+
+    public static <T> T runWithin(Instant deadline, Supplier<T> task) {
+        Instant previousDeadline = DEADLINE.get();
+        DEADLINE.set(deadline);
+        try {
+            return task.get();
+        } finally {
+            if (previousDeadline == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previousDeadline);
+            }
+        }
+    }
+
+    /**
+     * Throws {@link ProcessingDeadlineExceededException} if the deadline of the current envelope has passed.
+     * Does nothing when called outside of envelope processing.
+     *
+     * @param step name of the step about to be executed, for logging purposes
+     */
+    public static void check(String step) {
+        Instant deadline = DEADLINE.get();
+
+        if (deadline != null && Instant.now().isAfter(deadline)) {
+            throw new ProcessingDeadlineExceededException(
+                String.format("Processing deadline %s passed before step: %s", deadline, step)
+            );
+        }
+    }
+
+    private ProcessingDeadline() {
+        // utility class
+    }
+}
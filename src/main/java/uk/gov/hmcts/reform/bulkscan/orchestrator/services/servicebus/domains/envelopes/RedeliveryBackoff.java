@@ -0,0 +1,92 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff policy for envelopes which failed with a potentially recoverable error.
+ *
+ * <p>Instead of letting the message lock expire, the message is re-sent to the queue to be delivered
+ * after an exponentially growing, jittered delay. The number of previous attempts is carried
+ * in the {@link #RETRY_ATTEMPT_PROPERTY} property of the re-sent message, and the ID of the message
+ * first received in the {@link #ORIGINAL_MESSAGE_ID_PROPERTY} property, so that IDs of re-sent messages
+ * are built from it rather than from the ID of the previously re-sent one.</p>
+ */
+@Component
+public class RedeliveryBackoff {
+
+    public static final String RETRY_ATTEMPT_PROPERTY = "retryAttempt";
+    public static final String ORIGINAL_MESSAGE_ID_PROPERTY = "originalMessageId";
+
+    private final boolean enabled;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+
+    public RedeliveryBackoff(
+        @Value("${azure.servicebus.envelopes.retry.enabled}") boolean enabled,
+        @Value("${azure.servicebus.envelopes.retry.initial-delay}") Duration initialDelay,
+        @Value("${azure.servicebus.envelopes.retry.max-delay}") Duration maxDelay
+    ) {
+        this.enabled = enabled;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Calculates delay before the next delivery.
+     *
+     * @param attempt number of the failed attempt, starting from 1
+     * @return delay between half and the whole of the exponential backoff for the attempt
+     */
+    public Duration delayFor(int attempt) {
+        long maxMillis = maxDelay.toMillis();
+        long backoffMillis = initialDelay.toMillis();
+
+        for (int i = 1; i < attempt && backoffMillis < maxMillis; i++) {
+            backoffMillis *= 2;
+        }
+        backoffMillis = Math.min(backoffMillis, maxMillis);
+
+        long halfBackoff = backoffMillis / 2;
+        return Duration.ofMillis(halfBackoff + ThreadLocalRandom.current().nextLong(backoffMillis - halfBackoff + 1));
+    }
+
+    /**
+     * Calculates delay before delivering an envelope which was not processed, because a downstream service
+     * is unavailable.
+     *
+     * @param retryAfter time after which the service may be available, as suggested by the caller
+     * @return delay between the suggested one (at least the initial delay) and twice as much, so that
+     *     deferred envelopes do not all come back at the same time
+     */
+    public Duration deferralDelay(Duration retryAfter) {
+        long minMillis = Math.max(retryAfter == null ? 0 : retryAfter.toMillis(), initialDelay.toMillis());
+        return Duration.ofMillis(minMillis + ThreadLocalRandom.current().nextLong(minMillis + 1));
+    }
+
+    /**
+     * Reads the number of attempts made before the message was re-sent with a backoff.
+     */
+    public static int previousAttempts(Map<String, ?> properties) {
+        Object attempts = properties.get(RETRY_ATTEMPT_PROPERTY);
+        return attempts == null ? 0 : Integer.parseInt(attempts.toString());
+    }
+
+    /**
+     * Reads the ID of the message first received, before it was re-sent with a backoff.
+     *
+     * @param messageId ID of the received message, used when it was not re-sent
+     */
+    public static String originalMessageId(String messageId, Map<String, ?> properties) {
+        Object originalMessageId = properties.get(ORIGINAL_MESSAGE_ID_PROPERTY);
+        return originalMessageId == null ? messageId : originalMessageId.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Classification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.util.ConcurrentBatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Groups supplementary evidence envelopes which target the same case, so that their documents
+ * are attached to it in a single CCD event.
+ *
+ * <p>Envelopes are batched by {@link ConcurrentBatcher}. Each envelope gets its own result, or the failure
+ * of the whole batch, so that its message is only completed once the combined update has been made.</p>
+ *
+ * <p>Envelopes are only grouped while their messages are processed concurrently,
+ * so coalescing needs more than one concurrent call on the envelopes queue.</p>
+ */
+@Component
+public class SupplementaryEvidenceCoalescer {
+
+    private final boolean enabled;
+    private final ConcurrentBatcher<BatchKey, Envelope, EnvelopeProcessingResult> batcher;
+
+    public SupplementaryEvidenceCoalescer(
+        @Value("${azure.servicebus.envelopes.supplementary-evidence-coalescing.enabled}") boolean enabled,
+        @Value("${azure.servicebus.envelopes.supplementary-evidence-coalescing.window}") Duration window,
+        @Value("${azure.servicebus.envelopes.supplementary-evidence-coalescing.max-size}") int maxBatchSize
+    ) {
+        this.enabled = enabled;
+        this.batcher = new ConcurrentBatcher<>(window, maxBatchSize);
+    }
+
+    /**
+     * Tells whether given envelope is handled by the coalescer, rather than on its own.
+     *
+     * <p>Only envelopes with a CCD case ID are grouped. Other case references may resolve to different cases
+     * for envelopes which share them, e.g. when the case finder falls back to the legacy case reference.</p>
+     */
+    public boolean accepts(Envelope envelope) {
+        return enabled
+            && envelope.classification == Classification.SUPPLEMENTARY_EVIDENCE
+            && StringUtils.isNumeric(envelope.caseRef);
+    }
+
+    /**
+     * Handles given envelope together with other envelopes for the same case.
+     *
+     * @param envelope envelope to handle
+     * @param batchHandler handles all envelopes of a batch, returning their results in the same order
+     * @return result of handling given envelope
+     */
+    public EnvelopeProcessingResult handle(
+        Envelope envelope,
+        Function<List<Envelope>, List<EnvelopeProcessingResult>> batchHandler
+    ) {
+        return batcher.submit(BatchKey.of(envelope), envelope, batchHandler);
+    }
+
+    private record BatchKey(String container, String jurisdiction, String caseRef) {
+
+        static BatchKey of(Envelope envelope) {
+            return new BatchKey(envelope.container, envelope.jurisdiction, envelope.caseRef);
+        }
+    }
+}
@@ -3,5 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.en
 public enum MessageProcessingResultType {
     SUCCESS,
     UNRECOVERABLE_FAILURE,
-    POTENTIALLY_RECOVERABLE_FAILURE
+    POTENTIALLY_RECOVERABLE_FAILURE,
+    // envelope not processed, because a downstream service is unavailable
+    DEFERRED
 }
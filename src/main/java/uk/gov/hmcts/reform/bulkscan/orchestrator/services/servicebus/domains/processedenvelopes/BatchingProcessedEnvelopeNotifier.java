@@ -0,0 +1,254 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.NotificationSendingException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Notifies about successfully processed envelopes via queue, sending notifications in batches.
+ *
+ * <p>Notifications from envelopes processed concurrently are collected by a single sender thread
+ * and sent to the queue as one {@link ServiceBusMessageBatch}, limited by size and by how long
+ * the first notification waits for others to join it. The caller of {@link #notify} is blocked
+ * until the batch containing its notification has been accepted by the queue, so an envelope
+ * is never completed before its notification is sent. Notifications whose callers stop waiting
+ * are cancelled and not sent, unless they are already being sent.</p>
+ */
+@Service
+@Profile("!nosb") // do not register for the nosb (test) profile
+@ConditionalOnExpression(
+    "!${jms.enabled} && '${azure.servicebus.processed-envelopes.notification-mode}' == 'batch'"
+)
+public class BatchingProcessedEnvelopeNotifier implements IProcessedEnvelopeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingProcessedEnvelopeNotifier.class);
+
+    private final ServiceBusSenderClient queueClient;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Duration sendTimeout;
+
+    private final BlockingQueue<PendingNotification> pendingNotifications = new LinkedBlockingQueue<>();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer latencyTimer;
+
+    private volatile boolean running;
+    private Thread senderThread;
+
+    public BatchingProcessedEnvelopeNotifier(
+        @Qualifier("processed-envelopes") ServiceBusSenderClient queueClient,
+        ObjectMapper objectMapper,
+        @Value("${azure.servicebus.processed-envelopes.batch.max-size}") int maxBatchSize,
+        @Value("${azure.servicebus.processed-envelopes.batch.max-wait}") Duration maxWait,
+        @Value("${azure.servicebus.processed-envelopes.batch.send-timeout}") Duration sendTimeout,
+        MeterRegistry meterRegistry
+    ) {
+        this.queueClient = queueClient;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.sendTimeout = sendTimeout;
+
+        this.sentCounter = meterRegistry.counter("processed_envelopes.notifications", "result", "sent");
+        this.failedCounter = meterRegistry.counter("processed_envelopes.notifications", "result", "failed");
+        this.batchSizeSummary = meterRegistry.summary("processed_envelopes.notifications.batch_size");
+        this.latencyTimer = meterRegistry.timer("processed_envelopes.notifications.latency");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        senderThread = new Thread(this::sendBatches, "processed-envelopes-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        senderThread.interrupt();
+        senderThread.join(sendTimeout.toMillis());
+
+        // callers of notifications which are not going to be sent should not wait for the send timeout
+        List<PendingNotification> notSent = new ArrayList<>();
+        pendingNotifications.drainTo(notSent);
+        fail(notSent, new IllegalStateException("Processed envelope notifier has been stopped"));
+    }
+
+    @Override
+    public void notify(String envelopeId, Long ccdId, EnvelopeCcdAction envelopeCcdAction) {
+        long start = System.nanoTime();
+        try {
+            String messageBody =
+                objectMapper.writeValueAsString(new ProcessedEnvelope(envelopeId, ccdId, envelopeCcdAction));
+
+            ServiceBusMessage message = new ServiceBusMessage(messageBody);
+            message.setContentType(APPLICATION_JSON.toString());
+            message.setMessageId(envelopeId);
+
+            var notification = new PendingNotification(message, new CompletableFuture<>());
+            enqueue(notification);
+            try {
+                notification.accepted().get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | InterruptedException ex) {
+                // the envelope is going to be processed again, so the notification must not be sent now
+                cancel(notification);
+                throw ex;
+            }
+
+            log.info("Sent message to processed envelopes queue. Message Body: {}", messageBody);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw notificationSendingException(ex);
+        } catch (ExecutionException ex) {
+            throw notificationSendingException(ex.getCause());
+        } catch (Exception ex) {
+            throw notificationSendingException(ex);
+        } finally {
+            latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void enqueue(PendingNotification notification) {
+        pendingNotifications.add(notification);
+        if (!running) {
+            // added after the notifier has stopped, so it would not be sent nor failed by stop()
+            cancel(notification);
+            throw new IllegalStateException("Processed envelope notifier has been stopped");
+        }
+    }
+
+    private void cancel(PendingNotification notification) {
+        pendingNotifications.remove(notification);
+        notification.accepted().cancel(false);
+    }
+
+    private void sendBatches() {
+        while (running) {
+            try {
+                List<PendingNotification> notifications = collectNotifications();
+                if (!notifications.isEmpty()) {
+                    send(notifications);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.error("Unexpected error when sending processed envelope notifications", ex);
+            }
+        }
+    }
+
+    /**
+     * Waits for the first notification and then for others to join it, until the batch is full
+     * or the first notification has waited for max wait time.
+     */
+    private List<PendingNotification> collectNotifications() throws InterruptedException {
+        List<PendingNotification> notifications = new ArrayList<>(maxBatchSize);
+
+        PendingNotification first = pendingNotifications.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return notifications;
+        }
+        notifications.add(first);
+
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (notifications.size() < maxBatchSize) {
+            PendingNotification next = pendingNotifications.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            notifications.add(next);
+        }
+        return notifications;
+    }
+
+    private void send(List<PendingNotification> notifications) {
+        notifications.removeIf(notification -> notification.accepted().isCancelled());
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        List<PendingNotification> inBatch = new ArrayList<>();
+
+        try {
+            ServiceBusMessageBatch batch = queueClient.createMessageBatch();
+            for (PendingNotification notification : notifications) {
+                if (!batch.tryAddMessage(notification.message())) {
+                    // batch is full in terms of size in bytes - send it and start a new one
+                    sendBatch(batch, inBatch);
+                    inBatch = new ArrayList<>();
+                    batch = queueClient.createMessageBatch();
+                    if (!batch.tryAddMessage(notification.message())) {
+                        fail(List.of(notification), new IllegalStateException("Message too large for a batch"));
+                        continue;
+                    }
+                }
+                inBatch.add(notification);
+            }
+            sendBatch(batch, inBatch);
+        } catch (Exception ex) {
+            // notifications of already sent batches are completed, so completing them again has no effect
+            fail(notifications, ex);
+        }
+    }
+
+    private void sendBatch(ServiceBusMessageBatch batch, List<PendingNotification> inBatch) {
+        if (inBatch.isEmpty()) {
+            return;
+        }
+        queueClient.sendMessages(batch);
+        batchSizeSummary.record(inBatch.size());
+        sentCounter.increment(inBatch.size());
+        inBatch.forEach(notification -> notification.accepted().complete(null));
+    }
+
+    private void fail(List<PendingNotification> notifications, Exception cause) {
+        for (PendingNotification notification : notifications) {
+            if (!notification.accepted().isDone()) {
+                failedCounter.increment();
+                notification.accepted().completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static NotificationSendingException notificationSendingException(Throwable cause) {
+        return new NotificationSendingException(
+            "An error occurred when trying to send notification about successfully processed envelope",
+            cause
+        );
+    }
+
+    private record PendingNotification(ServiceBusMessage message, CompletableFuture<Void> accepted) {
+    }
+}
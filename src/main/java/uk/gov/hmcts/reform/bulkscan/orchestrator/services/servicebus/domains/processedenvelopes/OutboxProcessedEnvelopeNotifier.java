@@ -0,0 +1,52 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.NewProcessedEnvelopeNotification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeOutboxRepository;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.NotificationSendingException;
+
+/**
+ * Notifies about successfully processed envelopes by storing the notification in the outbox table.
+ *
+ * <p>Stored notifications are sent to the queue in the background by
+ * {@link uk.gov.hmcts.reform.bulkscan.orchestrator.tasks.SendProcessedEnvelopeNotificationsTask},
+ * so envelopes can be completed while the processed envelopes queue is unavailable.</p>
+ */
+@Service
+@Profile("!nosb") // do not register for the nosb (test) profile
+@ConditionalOnExpression(
+    "!${jms.enabled} && '${azure.servicebus.processed-envelopes.notification-mode}' == 'outbox'"
+)
+public class OutboxProcessedEnvelopeNotifier implements IProcessedEnvelopeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxProcessedEnvelopeNotifier.class);
+
+    private final ProcessedEnvelopeOutboxRepository outboxRepository;
+
+    public OutboxProcessedEnvelopeNotifier(ProcessedEnvelopeOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    public void notify(String envelopeId, Long ccdId, EnvelopeCcdAction envelopeCcdAction) {
+        try {
+            outboxRepository.insert(new NewProcessedEnvelopeNotification(envelopeId, ccdId, envelopeCcdAction));
+
+            log.info(
+                "Stored processed envelope notification. Envelope ID: {}, CCD ID: {}, action: {}",
+                envelopeId,
+                ccdId,
+                envelopeCcdAction
+            );
+        } catch (Exception ex) {
+            throw new NotificationSendingException(
+                "An error occurred when trying to store notification about successfully processed envelope",
+                ex
+            );
+        }
+    }
+}
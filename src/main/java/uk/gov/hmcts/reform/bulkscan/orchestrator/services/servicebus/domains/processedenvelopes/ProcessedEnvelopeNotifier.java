@@ -18,7 +18,9 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
  */
 @Service
 @Profile("!nosb") // do not register for the nosb (test) profile
-@ConditionalOnExpression("!${jms.enabled}")
+@ConditionalOnExpression(
+    "!${jms.enabled} && '${azure.servicebus.processed-envelopes.notification-mode}' == 'direct'"
+)
 public class ProcessedEnvelopeNotifier implements IProcessedEnvelopeNotifier {
 
     // TODO: make jms version of this
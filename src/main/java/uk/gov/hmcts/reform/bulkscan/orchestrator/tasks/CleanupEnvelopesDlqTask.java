@@ -96,7 +96,7 @@ public class CleanupEnvelopesDlqTask {
 
     private void logMessage(ServiceBusReceivedMessage msg) {
         try {
-            Envelope envelope = EnvelopeParser.parse(msg.getBody().toBytes());
+            Envelope envelope = EnvelopeParser.parse(msg.getBody());
 
             log.info(
                 "Completing dlq message. messageId: {}, Envelope ID: {}, File name: {}, Jurisdiction: {},"
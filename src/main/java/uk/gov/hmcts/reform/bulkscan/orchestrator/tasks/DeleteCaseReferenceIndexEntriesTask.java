@@ -0,0 +1,43 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.tasks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.CaseReferenceIndexRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes case reference index entries old enough for CCD search to find the cases they point to.
+ */
+@Component
+@ConditionalOnProperty("case-reference-index.enabled")
+public class DeleteCaseReferenceIndexEntriesTask {
+
+    private static final Logger log = LoggerFactory.getLogger(DeleteCaseReferenceIndexEntriesTask.class);
+    private static final String TASK_NAME = "delete-case-reference-index-entries";
+
+    private final CaseReferenceIndexRepository repository;
+    private final Duration ttl;
+
+    public DeleteCaseReferenceIndexEntriesTask(
+        CaseReferenceIndexRepository repository,
+        @Value("${scheduling.task.delete-case-reference-index-entries.ttl}") Duration ttl
+    ) {
+        this.repository = repository;
+        this.ttl = ttl;
+    }
+
+    @Scheduled(cron = "${scheduling.task.delete-case-reference-index-entries.cron}")
+    public void run() {
+        log.info("Started {} job", TASK_NAME);
+
+        int deletedCount = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+
+        log.info("Finished {} job. Deleted {} entries", TASK_NAME, deletedCount);
+    }
+}
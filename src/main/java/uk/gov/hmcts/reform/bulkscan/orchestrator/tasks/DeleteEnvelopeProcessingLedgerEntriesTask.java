@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.tasks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.EnvelopeProcessingLedgerRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes envelope processing ledger entries which are too old to be useful for resuming processing.
+ * Records of writes to CCD being started are kept for longer, see {@link EnvelopeProcessingLedgerRepository}.
+ */
+@Component
+@ConditionalOnProperty("envelope-processing-ledger.enabled")
+public class DeleteEnvelopeProcessingLedgerEntriesTask {
+
+    private static final Logger log = LoggerFactory.getLogger(DeleteEnvelopeProcessingLedgerEntriesTask.class);
+    private static final String TASK_NAME = "delete-envelope-processing-ledger-entries";
+
+    private final EnvelopeProcessingLedgerRepository repository;
+    private final Duration ttl;
+    private final Duration ccdWriteStartedTtl;
+
+    public DeleteEnvelopeProcessingLedgerEntriesTask(
+        EnvelopeProcessingLedgerRepository repository,
+        @Value("${scheduling.task.delete-envelope-processing-ledger-entries.ttl}") Duration ttl,
+        @Value("${scheduling.task.delete-envelope-processing-ledger-entries.ccd-write-started-ttl}")
+        Duration ccdWriteStartedTtl
+    ) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.ccdWriteStartedTtl = ccdWriteStartedTtl;
+    }
+
+    @Scheduled(cron = "${scheduling.task.delete-envelope-processing-ledger-entries.cron}")
+    public void run() {
+        log.info("Started {} job", TASK_NAME);
+
+        Instant now = Instant.now();
+        int deletedCount = repository.deleteCreatedBefore(now.minus(ttl), now.minus(ccdWriteStartedTtl));
+
+        log.info("Finished {} job. Deleted {} entries", TASK_NAME, deletedCount);
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.tasks;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeNotification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeOutboxRepository;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.ProcessedEnvelope;
+
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Sends notifications stored in the processed envelopes outbox to the processed envelopes queue.
+ *
+ * <p>Each batch is sent in its own transaction which keeps the rows locked until they are sent
+ * and deleted. If sending fails, the transaction is rolled back and the notifications are sent
+ * again on the next run.</p>
+ */
+@Component
+@Profile("!nosb") // do not register for the nosb (test) profile
+@ConditionalOnExpression(
+    "!${jms.enabled} && '${azure.servicebus.processed-envelopes.notification-mode}' == 'outbox'"
+)
+public class SendProcessedEnvelopeNotificationsTask {
+
+    private static final Logger log = LoggerFactory.getLogger(SendProcessedEnvelopeNotificationsTask.class);
+    private static final String TASK_NAME = "send-processed-envelope-notifications";
+
+    private final ProcessedEnvelopeOutboxRepository outboxRepository;
+    private final ServiceBusSenderClient queueClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public SendProcessedEnvelopeNotificationsTask(
+        ProcessedEnvelopeOutboxRepository outboxRepository,
+        @Qualifier("processed-envelopes") ServiceBusSenderClient queueClient,
+        ObjectMapper objectMapper,
+        TransactionTemplate transactionTemplate,
+        @Value("${scheduling.task.send-processed-envelope-notifications.batch-size}") int batchSize
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.queueClient = queueClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${scheduling.task.send-processed-envelope-notifications.fixed-delay}")
+    public void run() {
+        int sentCount = 0;
+        try {
+            int sentInBatch;
+            do {
+                sentInBatch = transactionTemplate.execute(status -> sendBatch());
+                sentCount += sentInBatch;
+            } while (sentInBatch == batchSize);
+        } catch (Exception ex) {
+            log.error("Error when running {} task. Sent {} notifications before the error", TASK_NAME, sentCount, ex);
+            return;
+        }
+
+        if (sentCount > 0) {
+            log.info("Sent {} processed envelope notifications from the outbox", sentCount);
+        }
+    }
+
+    private int sendBatch() {
+        List<ProcessedEnvelopeNotification> notifications = outboxRepository.findPendingForUpdate(batchSize);
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        ServiceBusMessageBatch batch = queueClient.createMessageBatch();
+        for (ProcessedEnvelopeNotification notification : notifications) {
+            ServiceBusMessage message = toMessage(notification);
+            if (!batch.tryAddMessage(message)) {
+                // batch is full in terms of size in bytes - send it and start a new one
+                queueClient.sendMessages(batch);
+                batch = queueClient.createMessageBatch();
+                if (!batch.tryAddMessage(message)) {
+                    throw new IllegalStateException(
+                        "Notification too large for a batch. Envelope ID: " + notification.envelopeId
+                    );
+                }
+            }
+        }
+        queueClient.sendMessages(batch);
+
+        outboxRepository.delete(notifications.stream().map(notification -> notification.id).toList());
+        return notifications.size();
+    }
+
+    private ServiceBusMessage toMessage(ProcessedEnvelopeNotification notification) {
+        try {
+            String messageBody = objectMapper.writeValueAsString(
+                new ProcessedEnvelope(notification.envelopeId, notification.ccdId, notification.envelopeCcdAction)
+            );
+
+            ServiceBusMessage message = new ServiceBusMessage(messageBody);
+            message.setContentType(APPLICATION_JSON.toString());
+            message.setMessageId(notification.envelopeId);
+            return message;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(
+                "Failed to serialise processed envelope notification. Envelope ID: " + notification.envelopeId,
+                ex
+            );
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Groups items submitted concurrently with the same key, so that they are handled together.
+ *
+ * <p>The first item for a key opens a batch and its caller waits for other items to join it, until the batch
+ * is full or the window has passed. That caller then handles all items of the batch on behalf of the others.
+ * Each caller gets the result for its own item, or the failure of the whole batch.</p>
+ *
+ * @param <K> type of keys items are grouped by
+ * @param <T> type of items
+ * @param <R> type of results
+ */
+public class ConcurrentBatcher<K, T, R> {
+
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchClosed = lock.newCondition();
+    private final Map<K, Batch<T, R>> openBatches = new HashMap<>();
+
+    public ConcurrentBatcher(Duration window, int maxBatchSize) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Handles given item together with other items submitted with the same key.
+     *
+     * @param batchHandler handles all items of a batch, returning their results in the same order
+     * @return result for given item
+     */
+    public R submit(K key, T item, Function<List<T>, List<R>> batchHandler) {
+        Batch<T, R> batch;
+        int index;
+        boolean leader = false;
+
+        lock.lock();
+        try {
+            batch = openBatches.get(key);
+            if (batch == null) {
+                batch = new Batch<>();
+                openBatches.put(key, batch);
+                leader = true;
+            }
+            index = batch.items.size();
+            batch.items.add(item);
+            if (batch.items.size() >= maxBatchSize) {
+                close(key, batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitClosing(key, batch);
+            runBatch(batch, batchHandler);
+        }
+
+        try {
+            return batch.results.join().get(index);
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void awaitClosing(K key, Batch<T, R> batch) {
+        lock.lock();
+        try {
+            long remainingNanos = window.toNanos();
+            while (openBatches.get(key) == batch && remainingNanos > 0) {
+                remainingNanos = batchClosed.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(key, batch);
+            lock.unlock();
+        }
+    }
+
+    // must be called holding the lock
+    private void close(K key, Batch<T, R> batch) {
+        if (openBatches.remove(key, batch)) {
+            batchClosed.signalAll();
+        }
+    }
+
+    private void runBatch(Batch<T, R> batch, Function<List<T>, List<R>> batchHandler) {
+        try {
+            batch.results.complete(batchHandler.apply(List.copyOf(batch.items)));
+        } catch (Exception ex) {
+            batch.results.completeExceptionally(ex);
+        }
+    }
+
+    private static class Batch<T, R> {
+        final List<T> items = new ArrayList<>();
+        final CompletableFuture<List<R>> results = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,9 @@
+CREATE TABLE processed_envelope_outbox (
+  id UUID PRIMARY KEY,
+  created_at TIMESTAMP NOT NULL,
+  envelope_id VARCHAR(50) NOT NULL,
+  ccd_id BIGINT,
+  envelope_ccd_action VARCHAR(50) NOT NULL
+);
+
+CREATE INDEX processed_envelope_outbox_created_at_idx ON processed_envelope_outbox (created_at);
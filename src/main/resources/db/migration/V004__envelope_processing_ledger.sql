@@ -0,0 +1,9 @@
+CREATE TABLE envelope_processing_ledger (
+  envelope_id VARCHAR(50) NOT NULL,
+  step VARCHAR(50) NOT NULL,
+  output TEXT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (envelope_id, step)
+);
+
+CREATE INDEX envelope_processing_ledger_created_at_idx ON envelope_processing_ledger (created_at);
@@ -0,0 +1,8 @@
+CREATE TABLE case_reference_index (
+  reference_type VARCHAR(50) NOT NULL,
+  reference VARCHAR(100) NOT NULL,
+  service VARCHAR(50) NOT NULL,
+  case_id BIGINT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (reference_type, reference, service, case_id)
+);
@@ -0,0 +1,2 @@
+-- transformation results held case data and are no longer recorded
+DELETE FROM envelope_processing_ledger WHERE step = 'TRANSFORMATION';
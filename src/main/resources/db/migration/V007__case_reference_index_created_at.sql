@@ -0,0 +1 @@
+CREATE INDEX case_reference_index_created_at_idx ON case_reference_index (created_at);
@@ -0,0 +1,51 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+/**
+ * Measures latency and allocation of an operation run on the current thread, for benchmark tests.
+ */
+public final class BenchmarkHelper {
+
+    private BenchmarkHelper() {
+        // util class
+    }
+
+    /**
+     * Runs the operation to warm it up, checking each result, then measures it.
+     *
+     * @return average time and memory allocated per measured run
+     */
+    public static <T> Result measure(
+        int warmupIterations,
+        int measuredIterations,
+        Operation<T> operation,
+        Consumer<T> warmupCheck
+    ) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            warmupCheck.accept(operation.run());
+        }
+
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredIterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(elapsed / 1_000 / measuredIterations, allocated / 1_024 / measuredIterations);
+    }
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T run() throws Exception;
+    }
+
+    public record Result(long micros, long kilobytes) {
+    }
+}
@@ -1,9 +1,10 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.client.cdam;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
@@ -17,13 +18,19 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +43,9 @@ class CdamApiClientTest {
     @Mock
     private IdamCachedClient idamCachedClient;
 
-    @InjectMocks
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
     private CdamApiClient cdamApiClient;
 
     private static final String S2S_TOKEN = "s2sToken-123123";
@@ -45,9 +54,15 @@ class CdamApiClientTest {
 
     @BeforeEach
     void enabledCdam() {
+        cdamApiClient = cdamApiClient(false, 1);
         cdamApiClient.setCdamEnabled(true);
     }
 
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
     @Test
     void should_get_allHashTokens_for_all_docs() {
 
@@ -104,53 +119,87 @@ class CdamApiClientTest {
     }
 
     @Test
-    void should_get_hashToken_by_uuid_for_a_doc() {
+    void should_hashToken_for_list_return_emptyMap_when_cdam_disabled() {
+        cdamApiClient.setCdamEnabled(false);
+        Map<String, String> result = cdamApiClient.getDocumentHash(
+            JURISDICTION,
+            List.of(getDocument("2312"), getDocument("321321"))
+        );
+        assertThat(result).isEmpty();
+        verify(s2sTokenGenerator, never()).generate();
+        verify(idamCachedClient, never()).getIdamCredentials(anyString());
+        verify(cdamApi, never()).getDocumentHash(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void should_get_hashTokens_of_documents_concurrently() {
+        // given
+        cdamApiClient = cdamApiClient(false, 3);
+        cdamApiClient.setCdamEnabled(true);
 
         var cachedIdamCredential = new CachedIdamCredential(IDAM_TOKEN, "user-1", 132131);
         given(s2sTokenGenerator.generate()).willReturn(S2S_TOKEN);
         given(idamCachedClient.getIdamCredentials(JURISDICTION)).willReturn(cachedIdamCredential);
 
-        var document1Uuid = UUID.randomUUID().toString();
-        var docHash1 = "23fdasaf3123sdvvs21wdeqa";
-        given(cdamApi.getDocumentHash(S2S_TOKEN, IDAM_TOKEN, document1Uuid)).willReturn(docHash1);
-
-        String result = cdamApiClient.getDocumentHash(
-            JURISDICTION,
-            document1Uuid
+        // each request completes only when all three are in flight
+        var allInFlight = new CountDownLatch(3);
+        given(cdamApi.getDocumentHash(eq(S2S_TOKEN), eq(IDAM_TOKEN), anyString())).willAnswer(invocation -> {
+            allInFlight.countDown();
+            assertThat(allInFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            return "hash-" + invocation.getArgument(2);
+        });
+
+        // when
+        Map<String, String> result = cdamApiClient.getDocumentHashes(JURISDICTION, List.of("uuid1", "uuid2", "uuid3"));
+
+        // then
+        assertThat(result).containsOnly(
+            entry("uuid1", "hash-uuid1"),
+            entry("uuid2", "hash-uuid2"),
+            entry("uuid3", "hash-uuid3")
         );
-
-        assertThat(result).isEqualTo(docHash1);
-
         verify(s2sTokenGenerator).generate();
         verify(idamCachedClient).getIdamCredentials(JURISDICTION);
-        verify(cdamApi).getDocumentHash(S2S_TOKEN, IDAM_TOKEN, document1Uuid);
     }
 
     @Test
-    void should_hashToken_by_uuid_return_null_when_cdam_disabled() {
-        cdamApiClient.setCdamEnabled(false);
-        String result = cdamApiClient.getDocumentHash(
-            JURISDICTION,
-            "eewwew"
-        );
+    void should_not_request_cached_hashTokens_again() {
+        // given
+        cdamApiClient = cdamApiClient(true, 1);
+        cdamApiClient.setCdamEnabled(true);
 
-        assertThat(result).isNull();
-        verify(s2sTokenGenerator, never()).generate();
-        verify(idamCachedClient, never()).getIdamCredentials(anyString());
-        verify(cdamApi, never()).getDocumentHash(anyString(), anyString(), anyString());
+        var cachedIdamCredential = new CachedIdamCredential(IDAM_TOKEN, "user-1", 132131);
+        given(s2sTokenGenerator.generate()).willReturn(S2S_TOKEN);
+        given(idamCachedClient.getIdamCredentials(JURISDICTION)).willReturn(cachedIdamCredential);
+        given(cdamApi.getDocumentHash(S2S_TOKEN, IDAM_TOKEN, "uuid1")).willReturn("hash1");
+        given(cdamApi.getDocumentHash(S2S_TOKEN, IDAM_TOKEN, "uuid2")).willReturn("hash2");
+
+        cdamApiClient.getDocumentHashes(JURISDICTION, List.of("uuid1"));
+
+        // when
+        Map<String, String> result = cdamApiClient.getDocumentHashes(JURISDICTION, List.of("uuid1", "uuid2"));
+        Map<String, String> secondResult = cdamApiClient.getDocumentHashes(JURISDICTION, List.of("uuid2"));
+
+        // then
+        assertThat(result).containsOnly(entry("uuid1", "hash1"), entry("uuid2", "hash2"));
+        assertThat(secondResult).containsOnly(entry("uuid2", "hash2"));
+        verify(cdamApi, times(1)).getDocumentHash(S2S_TOKEN, IDAM_TOKEN, "uuid1");
+        verify(cdamApi, times(1)).getDocumentHash(S2S_TOKEN, IDAM_TOKEN, "uuid2");
+        assertThat(meterRegistry.counter("cdam.document_hash.cache", "result", "hit").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("cdam.document_hash.cache", "result", "miss").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("cdam.document_hash.request").count()).isEqualTo(2);
     }
 
-    @Test
-    void should_hashToken_for_list_return_emptyMap_when_cdam_disabled() {
-        cdamApiClient.setCdamEnabled(false);
-        Map<String, String> result = cdamApiClient.getDocumentHash(
-            JURISDICTION,
-            List.of(getDocument("2312"), getDocument("321321"))
+    private CdamApiClient cdamApiClient(boolean cacheEnabled, int parallelism) {
+        return new CdamApiClient(
+            cdamApi,
+            s2sTokenGenerator,
+            idamCachedClient,
+            new DocumentHashCache(cacheEnabled, 100, meterRegistry),
+            meterRegistry,
+            parallelism,
+            executor
         );
-        assertThat(result).isEmpty();
-        verify(s2sTokenGenerator, never()).generate();
-        verify(idamCachedClient, never()).getIdamCredentials(anyString());
-        verify(cdamApi, never()).getDocumentHash(anyString(), anyString(), anyString());
     }
 
     private static Document getDocument(String documentUuid) {
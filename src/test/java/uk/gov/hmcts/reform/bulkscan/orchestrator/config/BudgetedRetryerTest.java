@@ -0,0 +1,127 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class BudgetedRetryerTest {
+
+    private static final Duration BACKOFF = Duration.ofMillis(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void should_retry_until_max_attempts_are_reached() {
+        // given
+        var retryer = new BudgetedRetryer(budget(0.1, 10), 3, BACKOFF, BACKOFF);
+        var exception = statusException(HttpMethod.GET, 503);
+
+        // when
+        retryer.continueOrPropagate(exception);
+        retryer.continueOrPropagate(exception);
+
+        // then
+        assertThatThrownBy(() -> retryer.continueOrPropagate(exception)).isSameAs(exception);
+        assertThat(retries("retried")).isEqualTo(2);
+    }
+
+    @Test
+    void should_stop_retrying_when_budget_is_exhausted() {
+        // given
+        var budget = budget(0.5, 2);
+        var exception = statusException(HttpMethod.GET, 503);
+
+        // when
+        new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF).continueOrPropagate(exception);
+        new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF).continueOrPropagate(exception);
+
+        // then
+        assertThatThrownBy(() -> new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF).continueOrPropagate(exception))
+            .isSameAs(exception);
+        assertThat(retries("budget_exhausted")).isEqualTo(1);
+
+        // and budget is earned back by calls made
+        new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF).clone();
+        new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF).clone();
+        assertThatCode(() -> new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF).continueOrPropagate(exception))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    void should_not_retry_non_idempotent_call_which_may_have_reached_the_service() {
+        // given
+        var retryer = new BudgetedRetryer(budget(0.1, 10), 3, BACKOFF, BACKOFF);
+        var readTimeout = ioException(HttpMethod.POST, new SocketTimeoutException("Read timed out"));
+        var connectFailure = ioException(HttpMethod.POST, new ConnectException("Connection refused"));
+
+        // when
+        // then
+        assertThatThrownBy(() -> retryer.continueOrPropagate(readTimeout)).isSameAs(readTimeout);
+        assertThatCode(() -> retryer.continueOrPropagate(connectFailure)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void should_give_each_call_its_own_attempts_and_share_budget() {
+        // given
+        var budget = budget(0.1, 10);
+        var retryer = new BudgetedRetryer(budget, 2, BACKOFF, BACKOFF);
+        var exception = statusException(HttpMethod.GET, 503);
+        retryer.continueOrPropagate(exception);
+
+        // when
+        // then
+        assertThatCode(() -> retryer.clone().continueOrPropagate(exception)).doesNotThrowAnyException();
+        assertThat(budget.getTokens()).isCloseTo(8.1, within(0.001));
+    }
+
+    @Test
+    void should_credit_budget_once_per_call_and_not_for_retries() {
+        // given
+        var budget = budget(0.5, 10);
+        var exception = statusException(HttpMethod.GET, 503);
+        var retryer = new BudgetedRetryer(budget, 3, BACKOFF, BACKOFF);
+
+        // when
+        Retryer callRetryer = retryer.clone();
+        callRetryer.continueOrPropagate(exception);
+        callRetryer.continueOrPropagate(exception);
+
+        // then
+        assertThat(budget.getTokens()).isEqualTo(8);
+    }
+
+    private RetryBudget budget(double ratio, int maxTokens) {
+        return new RetryBudget("test-client", ratio, maxTokens, meterRegistry);
+    }
+
+    private double retries(String result) {
+        return meterRegistry.counter("downstream.retries", "client", "test-client", "result", result).count();
+    }
+
+    private static RetryableException statusException(HttpMethod method, int status) {
+        return new RetryableException(status, "failed", method, (Long) null, request(method));
+    }
+
+    private static RetryableException ioException(HttpMethod method, IOException cause) {
+        return new RetryableException(-1, cause.getMessage(), method, cause, (Long) null, request(method));
+    }
+
+    private static Request request(HttpMethod method) {
+        return Request.create(method, "http://localhost/call", Map.of(), null, UTF_8, null);
+    }
+}
@@ -0,0 +1,91 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpConfigurationTest {
+
+    private final HttpConfiguration configuration = new HttpConfiguration();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionManager != null) {
+            connectionManager.close();
+        }
+    }
+
+    @Test
+    void should_limit_connections_per_route_with_overrides() {
+        // given
+        HttpClientProperties properties = properties();
+        properties.setRoutes(List.of(route("http://ccd-data-store:4452", 30), route("https://cdam", 5)));
+
+        // when
+        connectionManager = configuration.httpClientConnectionManager(properties, meterRegistry);
+
+        // then
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(100);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(10);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("http", "ccd-data-store", 4452))))
+            .isEqualTo(30);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("https", "cdam", 443), null, true)))
+            .isEqualTo(5);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("http", "other", 80))))
+            .isEqualTo(10);
+    }
+
+    @Test
+    void should_publish_connection_pool_metrics() {
+        // when
+        connectionManager = configuration.httpClientConnectionManager(properties(), meterRegistry);
+
+        // then
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "downstream")
+            .gauge().value()).isEqualTo(100);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+            .gauge().value()).isZero();
+    }
+
+    @Test
+    void should_give_feign_requests_same_timeouts_as_http_client() {
+        // when
+        Request.Options options = configuration.feignRequestOptions(properties());
+
+        // then
+        assertThat(options.connectTimeoutMillis()).isEqualTo(2_000);
+        assertThat(options.readTimeoutMillis()).isEqualTo(20_000);
+    }
+
+    private static HttpClientProperties properties() {
+        var properties = new HttpClientProperties();
+        properties.setMaxTotal(100);
+        properties.setMaxPerRoute(10);
+        properties.setConnectTimeout(Duration.ofSeconds(2));
+        properties.setReadTimeout(Duration.ofSeconds(20));
+        properties.setConnectionRequestTimeout(Duration.ofSeconds(5));
+        properties.setKeepAlive(Duration.ofSeconds(30));
+        properties.setIdleEviction(Duration.ofSeconds(30));
+        properties.setValidateAfterInactivity(Duration.ofSeconds(2));
+        return properties;
+    }
+
+    private static HttpClientProperties.Route route(String url, int maxConnections) {
+        var route = new HttpClientProperties.Route();
+        route.setUrl(url);
+        route.setMaxConnections(maxConnections);
+        return route;
+    }
+}
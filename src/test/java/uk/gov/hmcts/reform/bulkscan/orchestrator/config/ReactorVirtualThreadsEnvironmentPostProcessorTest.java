@@ -0,0 +1,60 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.config.ReactorVirtualThreadsEnvironmentPostProcessor.BOUNDED_ELASTIC_ON_VIRTUAL_THREADS;
+
+class ReactorVirtualThreadsEnvironmentPostProcessorTest {
+
+    private final ReactorVirtualThreadsEnvironmentPostProcessor postProcessor =
+        new ReactorVirtualThreadsEnvironmentPostProcessor(Supplier::get);
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS);
+    }
+
+    @Test
+    void should_run_bounded_elastic_scheduler_on_virtual_threads_when_virtual_threads_are_enabled() {
+        // when
+        postProcessor.postProcessEnvironment(
+            new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"),
+            null
+        );
+
+        // then
+        assertThat(System.getProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS)).isEqualTo("true");
+    }
+
+    @Test
+    void should_not_change_reactor_schedulers_when_virtual_threads_are_disabled() {
+        // when
+        postProcessor.postProcessEnvironment(
+            new MockEnvironment().withProperty("spring.threads.virtual.enabled", "false"),
+            null
+        );
+
+        // then
+        assertThat(System.getProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS)).isNull();
+    }
+
+    @Test
+    void should_keep_reactor_property_set_explicitly() {
+        // given
+        System.setProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS, "false");
+
+        // when
+        postProcessor.postProcessEnvironment(
+            new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"),
+            null
+        );
+
+        // then
+        assertThat(System.getProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS)).isEqualTo("false");
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.RetryableException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryableErrorDecoderTest {
+
+    private final RetryableErrorDecoder decoder = new RetryableErrorDecoder();
+
+    @ParameterizedTest
+    @CsvSource({
+        "GET, 503, true",
+        "GET, 504, true",
+        "GET, 429, true",
+        "PUT, 502, true",
+        "GET, 400, false",
+        "GET, 404, false",
+        "GET, 500, false",
+        "POST, 429, true",
+        "POST, 503, false",
+        "POST, 422, false"
+    })
+    void should_only_retry_transient_statuses_which_are_safe_for_the_method(
+        HttpMethod method,
+        int status,
+        boolean retryable
+    ) {
+        // when
+        Exception exception = decoder.decode("Client#call()", response(method, status, Map.of()));
+
+        // then
+        assertThat(exception).isInstanceOf(FeignException.class);
+        assertThat(exception instanceof RetryableException).isEqualTo(retryable);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"5, true", "'Wed, 21 Oct 2026 07:28:00 GMT', false"})
+    void should_retry_after_seconds_given_by_response(String retryAfter, boolean expectedRetryAfter) {
+        // when
+        Exception exception = decoder.decode(
+            "Client#call()",
+            response(HttpMethod.POST, 429, Map.of("Retry-After", List.of(retryAfter)))
+        );
+
+        // then
+        assertThat(((RetryableException) exception).retryAfter() != null).isEqualTo(expectedRetryAfter);
+    }
+
+    private static Response response(HttpMethod method, int status, Map<String, Collection<String>> headers) {
+        return Response.builder()
+            .status(status)
+            .headers(headers)
+            .request(Request.create(method, "http://localhost/call", Map.of(), null, UTF_8, null))
+            .build();
+    }
+}
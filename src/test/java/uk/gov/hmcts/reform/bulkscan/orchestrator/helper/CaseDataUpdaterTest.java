@@ -63,10 +63,8 @@ class CaseDataUpdaterTest {
 
         var hashToken1 = "321hhjRETE31321dsds";
         var hashToken2 = "321hhjRETE31321dsds";
-        given(cdamApiClient.getDocumentHash(jurisdiction, "uuid1"))
-            .willReturn(hashToken1);
-        given(cdamApiClient.getDocumentHash(jurisdiction, "uuid2"))
-            .willReturn(hashToken2);
+        given(cdamApiClient.getDocumentHashes(jurisdiction, List.of("uuid1", "uuid2")))
+            .willReturn(Map.of("uuid1", hashToken1, "uuid2", hashToken2));
         var caseDetails = getCaseUpdateDetails("case-data/multiple-scanned-docs.json");
         // case contains documents with control numbers 1000, 2000, 3000
         var scannedDocuments = asList(
@@ -139,10 +137,8 @@ class CaseDataUpdaterTest {
 
         var hashToken1 = "321hhjRETE31321dsds";
         var hashToken2 = "321hhjRETE31321dsds";
-        given(cdamApiClient.getDocumentHash("jurisdiction1", docUuid1))
-            .willReturn(hashToken1);
-        given(cdamApiClient.getDocumentHash("jurisdiction1", docUuid2))
-            .willReturn(hashToken2);
+        given(cdamApiClient.getDocumentHashes("jurisdiction1", List.of(docUuid1, docUuid2)))
+            .willReturn(Map.of(docUuid1, hashToken1, docUuid2, hashToken2));
 
         Envelope envelope = sampleEnvelope(List.of(), List.of(document1, document2));
         var caseDetails = getCaseUpdateDetails("case-data/multiple-scanned-docs.json");
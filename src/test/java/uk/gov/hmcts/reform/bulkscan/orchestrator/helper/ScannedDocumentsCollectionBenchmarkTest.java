@@ -0,0 +1,153 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkHelper.Result;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.cdam.CdamApiClient;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CcdDocument;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkHelper.measure;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.objectMapper;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.client.SampleData.sampleEnvelope;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.ExceptionRecordFields.SCANNED_DOCUMENTS;
+
+/**
+ * Compares setting hashes of the documents received with an envelope on cases with many scanned documents,
+ * including serialising the case data sent to CCD, against the previous approach of converting and copying
+ * every existing document.
+ *
+ * <p>Run with {@code RUN_BENCHMARKS=true ./gradlew test --tests '*ScannedDocumentsCollectionBenchmarkTest'}.</p>
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class ScannedDocumentsCollectionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ScannedDocumentsCollectionBenchmarkTest.class);
+
+    private static final int NEW_DOCUMENTS = 3;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 100;
+
+    @Test
+    void should_compare_allocation_and_latency_of_scanned_documents_updates() throws Exception {
+        var cdamApiClient = mock(CdamApiClient.class);
+        given(cdamApiClient.getDocumentHashes(any(), any())).willReturn(Map.of());
+        var caseDataUpdater = new CaseDataUpdater(null, cdamApiClient);
+
+        for (int existingDocuments : List.of(1_000, 5_000, 10_000)) {
+            Map<String, Object> caseData = caseData(existingDocuments);
+            Envelope envelope = sampleEnvelope(List.of(), newDocuments(existingDocuments));
+
+            Result previous = measure(
+                WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS,
+                () -> objectMapper.writeValueAsBytes(convertAllDocuments(envelope, caseData)),
+                bytes -> assertThat(bytes).isNotEmpty()
+            );
+            Result current = measure(
+                WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS,
+                () -> objectMapper.writeValueAsBytes(caseDataUpdater.setDocumentHash(envelope, caseData)),
+                bytes -> assertThat(bytes).isNotEmpty()
+            );
+
+            log.info(
+                "Case with {} scanned documents, {} new. Previous: {} us, {} KB per update. "
+                    + "Current: {} us, {} KB per update",
+                existingDocuments,
+                NEW_DOCUMENTS,
+                previous.micros(),
+                previous.kilobytes(),
+                current.micros(),
+                current.kilobytes()
+            );
+
+            assertThat(current.micros()).isPositive();
+        }
+    }
+
+    // previous approach: every element converted to a scanned document and copied into a new list
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> convertAllDocuments(Envelope envelope, Map<String, Object> caseData) {
+        List<String> envelopeDcns = envelope.documents.stream().map(doc -> doc.controlNumber).collect(toList());
+        List<Map<String, ScannedDocument>> documents =
+            ((List<Map<String, Object>>) caseData.get(SCANNED_DOCUMENTS))
+                .stream()
+                .map(ScannedDocumentsHelper::createScannedDocumentWithCcdData)
+                .map(doc -> Map.of(
+                    "value",
+                    envelopeDcns.contains(doc.controlNumber)
+                        ? new ScannedDocument(
+                            doc.fileName,
+                            doc.controlNumber,
+                            doc.type,
+                            doc.subtype,
+                            doc.scannedDate,
+                            new CcdDocument(doc.url.documentUrl, null),
+                            doc.deliveryDate,
+                            null
+                        )
+                        : doc
+                ))
+                .collect(toList());
+
+        Map<String, Object> updatedCaseData = new HashMap<>(caseData);
+        updatedCaseData.put(SCANNED_DOCUMENTS, documents);
+        return updatedCaseData;
+    }
+
+    private static Map<String, Object> caseData(int existingDocuments) {
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (int i = 0; i < existingDocuments + NEW_DOCUMENTS; i++) {
+            documents.add(Map.of(
+                "id", "element-" + i,
+                "value", Map.of(
+                    "fileName", "document-" + i + ".pdf",
+                    "controlNumber", "1000" + i,
+                    "type", "other",
+                    "subtype", "subtype",
+                    "scannedDate", "2024-01-01T10:00:00.000",
+                    "deliveryDate", "2024-01-01T12:00:00.000",
+                    "url", Map.of(
+                        "document_url", "http://dm-store/documents/uuid-" + i,
+                        "document_binary_url", "http://dm-store/documents/uuid-" + i + "/binary",
+                        "document_filename", "document-" + i + ".pdf"
+                    )
+                )
+            ));
+        }
+        return Map.of(SCANNED_DOCUMENTS, documents);
+    }
+
+    // documents of the envelope are the last ones in case data returned by the case update service
+    private static List<Document> newDocuments(int existingDocuments) {
+        List<Document> documents = new ArrayList<>();
+        for (int i = existingDocuments; i < existingDocuments + NEW_DOCUMENTS; i++) {
+            documents.add(new Document(
+                "document-" + i + ".pdf",
+                "1000" + i,
+                "other",
+                "subtype",
+                Instant.EPOCH,
+                "uuid-" + i,
+                Instant.EPOCH
+            ));
+        }
+        return documents;
+    }
+}
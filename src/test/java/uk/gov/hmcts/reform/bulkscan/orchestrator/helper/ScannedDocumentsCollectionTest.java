@@ -0,0 +1,65 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScannedDocumentsCollectionTest {
+
+    @Test
+    void should_find_documents_by_control_numbers_with_their_positions() {
+        // given
+        var collection = ScannedDocumentsCollection.of(List.of(element("id1", "1000"), element("id2", "2000")));
+
+        // when
+        Map<Integer, ScannedDocument> found = collection.findByControlNumbers(Set.of("2000", "3000"));
+
+        // then
+        assertThat(found).containsOnlyKeys(1);
+        assertThat(found.get(1).controlNumber).isEqualTo("2000");
+        assertThat(found.get(1).fileName).isEqualTo("2000.pdf");
+    }
+
+    @Test
+    void should_keep_existing_elements_untouched_and_add_replaced_and_appended_ones() {
+        // given
+        Map<String, Object> existing1 = element("id1", "1000");
+        Map<String, Object> existing2 = element("id2", "2000");
+        Map<String, Object> replacement = element(null, "2000");
+        Map<String, Object> appended = element(null, "3000");
+        var collection = ScannedDocumentsCollection.of(List.of(existing1, existing2));
+
+        // when
+        collection.replace(1, replacement);
+        collection.append(List.of(appended));
+
+        // then
+        List<Object> ccdValue = collection.toCcdValue();
+        assertThat(ccdValue).containsExactly(existing1, replacement, appended);
+        assertThat(ccdValue.get(0)).isSameAs(existing1);
+    }
+
+    @Test
+    void should_be_empty_when_case_has_no_scanned_documents() {
+        // when
+        var collection = ScannedDocumentsCollection.of(null);
+
+        // then
+        assertThat(collection.findByControlNumbers(Set.of("1000"))).isEmpty();
+        assertThat(collection.toCcdValue()).isEmpty();
+    }
+
+    private static Map<String, Object> element(String id, String controlNumber) {
+        Map<String, Object> value = Map.of(
+            "controlNumber", controlNumber,
+            "fileName", controlNumber + ".pdf",
+            "url", Map.of("document_url", "https://doc-url.example.com/" + controlNumber)
+        );
+        return id == null ? Map.of("value", value) : Map.of("id", id, "value", value);
+    }
+}
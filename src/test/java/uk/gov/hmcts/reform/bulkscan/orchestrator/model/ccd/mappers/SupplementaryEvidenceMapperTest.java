@@ -5,6 +5,7 @@ import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.helper.LoggerTestUtil;
@@ -16,6 +17,7 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.SupplementaryEvidence;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EnvelopeReferenceHelper;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -32,6 +34,7 @@ import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -120,6 +123,30 @@ class SupplementaryEvidenceMapperTest {
             );
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void maps_documents_from_all_envelopes_adding_each_document_once() {
+        // given
+        Document d1 = new Document("a.pdf", "aaa", "type_a", "subtype_a", now(), "uuida", null);
+        Document d2 = new Document("b.pdf", "bbb", "type_b", "subtype_b", now(), "uuidb", null);
+        Document d3 = new Document("c.pdf", "ccc", "type_c", "subtype_c", now(), "uuidc", null);
+
+        List<Document> existingDocs = List.of(d1);
+        Envelope envelope1 = envelope(List.of(d1, d2), now());
+        Envelope envelope2 = envelope(List.of(d2, d3), now());
+        given(envelopeReferenceHelper.serviceSupportsEnvelopeReferences(any())).willReturn(false);
+
+        // when
+        mapper.mapAll(existingDocs, emptyList(), List.of(envelope1, envelope2));
+
+        // then
+        ArgumentCaptor<List<Document>> docsToAdd = ArgumentCaptor.forClass(List.class);
+        verify(docMapper).mapDocuments(eq(existingDocs), docsToAdd.capture(), eq(envelope1.deliveryDate), anyString());
+        assertThat(docsToAdd.getValue())
+            .extracting(doc -> tuple(doc.controlNumber, doc.deliveryDate))
+            .containsExactly(tuple("bbb", envelope1.deliveryDate), tuple("ccc", envelope2.deliveryDate));
+    }
+
     @Test
     void should_not_add_document_from_envelope_if_document_with_the_same_url_is_already_present_in_case() {
         // given
@@ -3,8 +3,10 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
 import com.azure.core.util.BinaryData;
 import com.azure.messaging.servicebus.ServiceBusErrorSource;
 import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import com.azure.messaging.servicebus.models.DeadLetterOptions;
 import com.fasterxml.jackson.core.JsonParseException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,13 +15,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdUnavailableException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.NotificationSendingException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.logging.AppInsights;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.envelopehandlers.EnvelopeHandler;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.EnvelopeMessageProcessor;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.EnvelopeProcessingLanes;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.RedeliveryBackoff;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.SupplementaryEvidenceCoalescer;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.ProcessedEnvelopeNotifier;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,6 +43,7 @@ import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -67,7 +79,12 @@ class EnvelopeMessageProcessorTest {
             envelopeHandler,
             processedEnvelopeNotifier,
             10,
-            appInsights
+            appInsights,
+            new EnvelopeProcessingLanes(1, mock(CaseReferenceIndex.class)),
+            new SupplementaryEvidenceCoalescer(false, Duration.ZERO, 1),
+            Duration.ofMinutes(5),
+            new RedeliveryBackoff(false, Duration.ofSeconds(30), Duration.ofMinutes(30)),
+            Optional.empty()
         );
     }
 
@@ -187,6 +204,99 @@ class EnvelopeMessageProcessorTest {
         verifyNoMoreInteractions(appInsights, messageContext);
     }
 
+    @Test
+    void should_reschedule_the_message_with_backoff_when_recoverable_failure_and_backoff_enabled() {
+        // given
+        ServiceBusSenderClient retrySender = mock(ServiceBusSenderClient.class);
+        processor = processorWithBackoff(retrySender);
+        byte[] envelopeJson = envelopeJson();
+
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromBytes(envelopeJson));
+        given(message.getMessageId()).willReturn("message-id-retry-2");
+        given(message.getDeliveryCount()).willReturn(1L);
+        given(message.getApplicationProperties()).willReturn(Map.of(
+            RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, 2,
+            RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, "message-id"
+        ));
+
+        willThrow(new RuntimeException("recoverable")).given(envelopeHandler).handleEnvelope(any(), anyLong());
+
+        // when
+        processor.processMessage(messageContext);
+
+        // then delivery count includes attempts made before the message was re-sent
+        verify(envelopeHandler).handleEnvelope(any(), eq(3L));
+
+        ArgumentCaptor<ServiceBusMessage> retryMessageCaptor = ArgumentCaptor.forClass(ServiceBusMessage.class);
+        verify(retrySender).sendMessage(retryMessageCaptor.capture());
+        ServiceBusMessage retryMessage = retryMessageCaptor.getValue();
+        // and the ID does not grow with each re-sent copy of the message
+        assertThat(retryMessage.getMessageId()).isEqualTo("message-id-retry-4");
+        assertThat(retryMessage.getApplicationProperties())
+            .containsEntry(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, 4)
+            .containsEntry(RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, "message-id");
+        assertThat(retryMessage.getScheduledEnqueueTime()).isAfter(OffsetDateTime.now());
+        assertThat(retryMessage.getBody().toBytes()).isEqualTo(envelopeJson);
+
+        verify(messageContext).complete();
+        verifyNoInteractions(appInsights);
+    }
+
+    @Test
+    void should_defer_the_message_without_counting_attempt_when_ccd_is_unavailable() {
+        // given
+        ServiceBusSenderClient retrySender = mock(ServiceBusSenderClient.class);
+        processor = processorWithBackoff(retrySender);
+
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromBytes(envelopeJson()));
+        given(message.getMessageId()).willReturn("message-id-deferred-1700000000000");
+        given(message.getDeliveryCount()).willReturn(1L);
+        given(message.getApplicationProperties()).willReturn(Map.of(
+            RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, 2,
+            RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, "message-id"
+        ));
+
+        willThrow(new CcdUnavailableException("circuit open", Duration.ofMinutes(1), null))
+            .given(envelopeHandler).handleEnvelope(any(), anyLong());
+
+        // when
+        processor.processMessage(messageContext);
+
+        // then
+        ArgumentCaptor<ServiceBusMessage> deferredMessageCaptor = ArgumentCaptor.forClass(ServiceBusMessage.class);
+        verify(retrySender).sendMessage(deferredMessageCaptor.capture());
+        ServiceBusMessage deferredMessage = deferredMessageCaptor.getValue();
+        assertThat(deferredMessage.getMessageId()).matches("message-id-deferred-\\d+");
+        assertThat(deferredMessage.getApplicationProperties())
+            .containsEntry(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, 3)
+            .containsEntry(RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, "message-id");
+        assertThat(deferredMessage.getScheduledEnqueueTime()).isAfter(OffsetDateTime.now().plusSeconds(59));
+
+        verify(messageContext).complete();
+        verifyNoInteractions(appInsights);
+    }
+
+    @Test
+    void should_not_complete_the_message_when_rescheduling_fails() {
+        // given
+        ServiceBusSenderClient retrySender = mock(ServiceBusSenderClient.class);
+        processor = processorWithBackoff(retrySender);
+
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromBytes(envelopeJson()));
+
+        willThrow(new RuntimeException("recoverable")).given(envelopeHandler).handleEnvelope(any(), anyLong());
+        willThrow(new RuntimeException("send failed")).given(retrySender).sendMessage(any());
+
+        // when
+        assertThatCode(() -> processor.processMessage(messageContext)).doesNotThrowAnyException();
+
+        // then the message lock is left to expire
+        verify(messageContext, never()).complete();
+    }
+
     @Test
     void should_finalize_the_message_when_recoverable_failure_but_delivery_maxed() {
         // given
@@ -197,7 +307,12 @@ class EnvelopeMessageProcessorTest {
             envelopeHandler,
             processedEnvelopeNotifier,
             1,
-            appInsights
+            appInsights,
+            new EnvelopeProcessingLanes(1, mock(CaseReferenceIndex.class)),
+            new SupplementaryEvidenceCoalescer(false, Duration.ZERO, 1),
+            Duration.ofMinutes(5),
+            new RedeliveryBackoff(false, Duration.ofSeconds(30), Duration.ofMinutes(30)),
+            Optional.empty()
         );
         Exception processingFailureCause = new RuntimeException(
             "exception of type treated as recoverable"
@@ -326,4 +441,18 @@ class EnvelopeMessageProcessorTest {
         verify(messageContext).complete();
         verifyNoMoreInteractions(appInsights, messageContext);
     }
+
+    private EnvelopeMessageProcessor processorWithBackoff(ServiceBusSenderClient retrySender) {
+        return new EnvelopeMessageProcessor(
+            envelopeHandler,
+            processedEnvelopeNotifier,
+            10,
+            appInsights,
+            new EnvelopeProcessingLanes(1, mock(CaseReferenceIndex.class)),
+            new SupplementaryEvidenceCoalescer(false, Duration.ZERO, 1),
+            Duration.ofMinutes(5),
+            new RedeliveryBackoff(true, Duration.ofSeconds(30), Duration.ofMinutes(30)),
+            Optional.of(retrySender)
+        );
+    }
 }
@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.CaseReferenceIndexRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.ENVELOPE_ID;
+
+@ExtendWith(MockitoExtension.class)
+class CaseReferenceIndexTest {
+
+    private static final String ENVELOPE = "envelope-id";
+    private static final String SERVICE = "bulkscan";
+
+    @Mock
+    private CaseReferenceIndexRepository repository;
+
+    @Test
+    void should_find_recorded_case_ids() {
+        // given
+        var index = new CaseReferenceIndex(repository, true);
+        given(repository.findCaseIds(ENVELOPE_ID, ENVELOPE, SERVICE)).willReturn(List.of(1L));
+
+        // when
+        index.record(ENVELOPE_ID, ENVELOPE, SERVICE, 1L);
+        List<Long> caseIds = index.findCaseIds(ENVELOPE_ID, ENVELOPE, SERVICE);
+
+        // then
+        verify(repository).insert(ENVELOPE_ID, ENVELOPE, SERVICE, 1L);
+        assertThat(caseIds).containsExactly(1L);
+    }
+
+    @Test
+    void should_not_fail_when_index_is_unavailable() {
+        // given
+        var index = new CaseReferenceIndex(repository, true);
+        var failure = new DataAccessResourceFailureException("db down");
+        given(repository.findCaseIds(ENVELOPE_ID, ENVELOPE, SERVICE)).willThrow(failure);
+        willThrow(failure).given(repository).insert(ENVELOPE_ID, ENVELOPE, SERVICE, 1L);
+
+        // when
+        List<Long> caseIds = index.findCaseIds(ENVELOPE_ID, ENVELOPE, SERVICE);
+
+        // then
+        assertThat(caseIds).isEmpty();
+        assertThatCode(() -> index.record(ENVELOPE_ID, ENVELOPE, SERVICE, 1L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void should_not_use_repository_when_disabled() {
+        // given
+        var index = new CaseReferenceIndex(repository, false);
+
+        // when
+        index.record(ENVELOPE_ID, ENVELOPE, SERVICE, 1L);
+        List<Long> caseIds = index.findCaseIds(ENVELOPE_ID, ENVELOPE, SERVICE);
+
+        // then
+        assertThat(caseIds).isEmpty();
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,163 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkHelper.Result;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkHelper.measure;
+
+/**
+ * Compares the duplicate-document checks made when attaching documents to cases with many scanned documents,
+ * using a {@link CaseDocumentsIndex}, against the previous approach of scanning all documents of the case
+ * for each check, and for each new document.
+ *
+ * <p>Run with {@code RUN_BENCHMARKS=true ./gradlew test --tests '*CaseDocumentsIndexBenchmarkTest'}.</p>
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class CaseDocumentsIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseDocumentsIndexBenchmarkTest.class);
+
+    private static final String EXCEPTION_RECORD_REF = "ER-1";
+    private static final int NEW_DOCUMENTS = 50;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 100;
+
+    @Test
+    void should_compare_allocation_and_latency_of_duplicate_document_checks() throws Exception {
+        for (int existingDocuments : List.of(1_000, 5_000, 10_000)) {
+            List<Map<String, Object>> caseDocuments = caseDocuments(existingDocuments);
+            List<Map<String, Object>> exceptionRecordDocuments = caseDocuments.subList(
+                existingDocuments - NEW_DOCUMENTS,
+                existingDocuments
+            );
+            List<Document> existingDocs = documents(0, existingDocuments);
+            List<Document> newDocs = documents(existingDocuments - NEW_DOCUMENTS / 2, NEW_DOCUMENTS);
+
+            Result previous = measure(
+                WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS,
+                () -> checkWithScans(caseDocuments, exceptionRecordDocuments, existingDocs, newDocs),
+                found -> assertThat(found).isPositive()
+            );
+            Result current = measure(
+                WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS,
+                () -> checkWithIndex(caseDocuments, exceptionRecordDocuments, existingDocs, newDocs),
+                found -> assertThat(found).isPositive()
+            );
+
+            log.info(
+                "Case with {} scanned documents, {} new. Previous: {} us, {} KB per attach. "
+                    + "Current: {} us, {} KB per attach",
+                existingDocuments,
+                NEW_DOCUMENTS,
+                previous.micros(),
+                previous.kilobytes(),
+                current.micros(),
+                current.kilobytes()
+            );
+
+            assertThat(current.micros()).isPositive();
+        }
+    }
+
+    // previous approach: each check scans all documents of the case, new envelope documents are checked one by one
+    private static int checkWithScans(
+        List<Map<String, Object>> caseDocuments,
+        List<Map<String, Object>> exceptionRecordDocuments,
+        List<Document> existingDocs,
+        List<Document> newDocs
+    ) {
+        int found = 0;
+        for (Map<String, Object> erDocument : exceptionRecordDocuments) {
+            String dcn = Documents.getDocumentId(erDocument);
+            // already attached from the exception record, clashing, and to remove before attaching
+            found += caseDocuments.stream().anyMatch(doc -> attachedFrom(doc, dcn, true)) ? 1 : 0;
+            found += caseDocuments.stream().anyMatch(doc -> attachedFrom(doc, dcn, false)) ? 1 : 0;
+            found += caseDocuments.stream().anyMatch(doc -> attachedFrom(doc, dcn, true)) ? 1 : 0;
+        }
+        for (Document newDoc : newDocs) {
+            found += existingDocs
+                .stream()
+                .noneMatch(doc -> Objects.equals(doc.uuid, newDoc.uuid)
+                    || Objects.equals(doc.controlNumber, newDoc.controlNumber)
+                ) ? 1 : 0;
+        }
+        return found;
+    }
+
+    private static boolean attachedFrom(Map<String, Object> caseDocument, String dcn, boolean fromExceptionRecord) {
+        return Documents.getDocumentId(caseDocument).equals(dcn)
+            && fromExceptionRecord == EXCEPTION_RECORD_REF.equals(Documents.getExceptionRecordReference(caseDocument));
+    }
+
+    private static int checkWithIndex(
+        List<Map<String, Object>> caseDocuments,
+        List<Map<String, Object>> exceptionRecordDocuments,
+        List<Document> existingDocs,
+        List<Document> newDocs
+    ) {
+        var caseIndex = CaseDocumentsIndex.of(caseDocuments);
+        int found = 0;
+        for (Map<String, Object> erDocument : exceptionRecordDocuments) {
+            String dcn = Documents.getDocumentId(erDocument);
+            found += caseIndex.getControlNumbersAttachedFrom(EXCEPTION_RECORD_REF).contains(dcn) ? 1 : 0;
+            found += caseIndex.containsFromOtherSource(dcn, EXCEPTION_RECORD_REF) ? 1 : 0;
+            found += caseIndex.getControlNumbersAttachedFrom(EXCEPTION_RECORD_REF).contains(dcn) ? 1 : 0;
+        }
+        var docsIndex = CaseDocumentsIndex.ofDocuments(existingDocs);
+        for (Document newDoc : newDocs) {
+            found += docsIndex.containsDuplicateOf(newDoc) ? 0 : 1;
+        }
+        return found;
+    }
+
+    // every other document was attached from the exception record
+    private static List<Map<String, Object>> caseDocuments(int count) {
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            documents.add(Map.of(
+                "id", "element-" + i,
+                "value", Map.of(
+                    "fileName", "document-" + i + ".pdf",
+                    "controlNumber", "1000" + i,
+                    "type", "other",
+                    "exceptionRecordReference", i % 2 == 0 ? EXCEPTION_RECORD_REF : "ER-" + i,
+                    "url", Map.of(
+                        "document_url", "http://dm-store/documents/uuid-" + i,
+                        "document_binary_url", "http://dm-store/documents/uuid-" + i + "/binary",
+                        "document_filename", "document-" + i + ".pdf"
+                    )
+                )
+            ));
+        }
+        return documents;
+    }
+
+    private static List<Document> documents(int from, int count) {
+        List<Document> documents = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            documents.add(new Document(
+                "document-" + i + ".pdf",
+                "1000" + i,
+                "other",
+                null,
+                Instant.EPOCH,
+                "uuid-" + i,
+                Instant.EPOCH
+            ));
+        }
+        return documents;
+    }
+}
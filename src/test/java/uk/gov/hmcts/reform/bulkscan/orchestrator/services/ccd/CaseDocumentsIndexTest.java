@@ -0,0 +1,89 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaseDocumentsIndexTest {
+
+    @Test
+    void should_group_control_numbers_by_exception_record_they_were_attached_from() {
+        // given
+        var index = CaseDocumentsIndex.of(List.of(
+            caseDocument("1000", "ER-1"),
+            caseDocument("2000", "ER-2"),
+            caseDocument("3000", "ER-1"),
+            caseDocument("4000", null)
+        ));
+
+        // when, then
+        assertThat(index.getControlNumbersAttachedFrom("ER-1")).containsOnly("1000", "3000");
+        assertThat(index.getControlNumbersAttachedFrom(null)).containsOnly("4000");
+        assertThat(index.getControlNumbersAttachedFrom("ER-3")).isEmpty();
+    }
+
+    @Test
+    void should_find_documents_attached_from_other_sources() {
+        // given
+        var index = CaseDocumentsIndex.of(List.of(
+            caseDocument("1000", "ER-1"),
+            caseDocument("2000", null)
+        ));
+
+        // when, then
+        assertThat(index.containsFromOtherSource("1000", "ER-1")).isFalse();
+        assertThat(index.containsFromOtherSource("1000", "ER-2")).isTrue();
+        assertThat(index.containsFromOtherSource("2000", "ER-1")).isTrue();
+        assertThat(index.containsFromOtherSource("3000", "ER-1")).isFalse();
+    }
+
+    @Test
+    void should_find_duplicates_by_control_number_or_uuid_including_added_documents() {
+        // given
+        var index = CaseDocumentsIndex.ofDocuments(List.of(document("1000", "uuid1")));
+
+        // when
+        index.add(document("2000", "uuid2"));
+
+        // then
+        assertThat(index.containsDuplicateOf(document("1000", "uuid3"))).isTrue();
+        assertThat(index.containsDuplicateOf(document("3000", "uuid1"))).isTrue();
+        assertThat(index.containsDuplicateOf(document("2000", "uuid4"))).isTrue();
+        assertThat(index.containsDuplicateOf(document("3000", "uuid3"))).isFalse();
+    }
+
+    @Test
+    void should_read_uuid_from_document_url_of_case_documents() {
+        // given
+        var index = CaseDocumentsIndex.of(List.of(caseDocument("1000", null)));
+
+        // when, then
+        assertThat(index.containsDuplicateOf(document("2000", "uuid-1000"))).isTrue();
+    }
+
+    private static Map<String, Object> caseDocument(String controlNumber, String exceptionRecordReference) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("controlNumber", controlNumber);
+        value.put("url", Map.of("document_url", "http://dm-store/documents/uuid-" + controlNumber));
+        value.put("exceptionRecordReference", exceptionRecordReference);
+        return Map.of("value", value);
+    }
+
+    private static Document document(String controlNumber, String uuid) {
+        return new Document(
+            controlNumber + ".pdf",
+            controlNumber,
+            "other",
+            null,
+            Instant.EPOCH,
+            uuid,
+            Instant.EPOCH
+        );
+    }
+}
@@ -11,6 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CaseNotFoundException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.internal.ExceptionRecord;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Classification;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -29,7 +30,11 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.ENVELOPE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.EXCEPTION_RECORD_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
 
 @ExtendWith(MockitoExtension.class)
 class CaseFinderTest {
@@ -42,11 +47,14 @@ class CaseFinderTest {
     @Mock
     private CcdApi ccdApi;
 
+    @Mock
+    private CaseReferenceIndex caseReferenceIndex;
+
     private CaseFinder caseFinder;
 
     @BeforeEach
     void setUp() {
-        caseFinder = new CaseFinder(ccdApi);
+        caseFinder = new CaseFinder(ccdApi, caseReferenceIndex);
     }
 
     @ParameterizedTest
@@ -113,6 +121,44 @@ class CaseFinderTest {
         verify(ccdApi, never()).getCaseRefsByEnvelopeId(anyString(), anyString());
     }
 
+    @Test
+    void should_not_search_ccd_when_case_created_from_exception_record_is_indexed() {
+        // given
+        var serviceCfg = mock(ServiceConfigItem.class);
+        given(serviceCfg.getService()).willReturn(SERVICE);
+        given(caseReferenceIndex.findCaseIds(EXCEPTION_RECORD_ID, "er-id", SERVICE)).willReturn(List.of(193623L));
+
+        // when
+        List<Long> ids = caseFinder.findCases(exceptionRecord(), serviceCfg);
+
+        // then
+        assertThat(ids).containsExactly(193623L);
+        verifyNoInteractions(ccdApi);
+    }
+
+    @Test
+    void should_index_case_created_from_exception_record() {
+        // given
+        var serviceCfg = mock(ServiceConfigItem.class);
+        given(serviceCfg.getService()).willReturn(SERVICE);
+
+        // when
+        caseFinder.recordCaseCreatedFrom(exceptionRecord(), serviceCfg, 193623L);
+
+        // then
+        verify(caseReferenceIndex).record(EXCEPTION_RECORD_ID, "er-id", SERVICE, 193623L);
+        verify(caseReferenceIndex).record(ENVELOPE_ID, "envelope-id", SERVICE, 193623L);
+    }
+
+    @Test
+    void should_index_case_envelope_is_attached_to() {
+        // when
+        caseFinder.recordEnvelopeAttachedTo(envelope(CASE_REF, null), 123123123L);
+
+        // then
+        verify(caseReferenceIndex).record(ENVELOPE_ID, "id123", SERVICE, 123123123L);
+    }
+
     @Test
     void should_search_case_by_ccd_id_when_envelope_has_it() {
         given(ccdApi.getCase(CASE_REF, JURISDICTION))
@@ -289,6 +335,57 @@ class CaseFinderTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void should_not_search_ccd_when_case_is_indexed_by_legacy_id() {
+        // given
+        given(caseReferenceIndex.findCaseIds(LEGACY_ID, LEGACY_CASE_REF, SERVICE))
+            .willReturn(singletonList(Long.parseLong(CASE_REF)));
+
+        CaseDetails expectedCase = CaseDetails.builder().build();
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(expectedCase);
+
+        // when
+        Optional<CaseDetails> result = caseFinder.findCase(
+            envelope(null, LEGACY_CASE_REF)
+        );
+
+        // then
+        assertThat(result).hasValue(expectedCase);
+        verify(ccdApi, never()).getCaseRefsByLegacyId(any(), any());
+    }
+
+    @Test
+    void should_index_case_found_by_legacy_id() {
+        // given
+        given(ccdApi.getCaseRefsByLegacyId(LEGACY_CASE_REF, SERVICE))
+            .willReturn(singletonList(Long.parseLong(CASE_REF)));
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(CaseDetails.builder().build());
+
+        // when
+        caseFinder.findCase(
+            envelope(null, LEGACY_CASE_REF)
+        );
+
+        // then
+        verify(caseReferenceIndex).record(LEGACY_ID, LEGACY_CASE_REF, SERVICE, Long.parseLong(CASE_REF));
+    }
+
+    private ExceptionRecord exceptionRecord() {
+        return new ExceptionRecord(
+            "er-id",
+            null,
+            "envelope-id",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            emptyList(),
+            emptyList()
+        );
+    }
+
     private Envelope envelope(String caseRef, String legacyCaseRef) {
         return new Envelope(
             "id123",
@@ -0,0 +1,203 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdCallException;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaseReadCacheTest {
+
+    private static final String CASE_REF = "1234";
+    private static final String JURISDICTION = "BULKSCAN";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_reuse_case_read_earlier_in_the_same_scope() {
+        // given
+        var cache = new CaseReadCache(true, meterRegistry);
+        var reader = new CountingReader();
+
+        // when
+        CaseDetails first;
+        CaseDetails second;
+        try (var scope = CaseReadCache.openScope()) {
+            first = cache.getCase(CASE_REF, JURISDICTION, reader);
+            second = cache.getCase(CASE_REF, JURISDICTION, reader);
+        }
+
+        // then
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+        assertThat(reader.reads.get()).isEqualTo(1);
+        assertThat(count("fetched")).isEqualTo(1);
+        assertThat(count("scope_hit")).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_not_share_changes_to_case_data_between_readers() {
+        // given
+        var cache = new CaseReadCache(true, meterRegistry);
+        Supplier<CaseDetails> reader = () -> CaseDetails.builder()
+            .id(Long.valueOf(CASE_REF))
+            .data(new HashMap<>(Map.of("scannedDocuments", new ArrayList<>(List.of(Map.of("id", "1"))))))
+            .build();
+
+        // when
+        CaseDetails second;
+        try (var scope = CaseReadCache.openScope()) {
+            CaseDetails first = cache.getCase(CASE_REF, JURISDICTION, reader);
+            first.getData().put("evidenceHandled", "Yes");
+            ((List<Object>) first.getData().get("scannedDocuments")).add(Map.of("id", "2"));
+            second = cache.getCase(CASE_REF, JURISDICTION, reader);
+        }
+
+        // then
+        assertThat(second.getData()).containsOnlyKeys("scannedDocuments");
+        assertThat((List<?>) second.getData().get("scannedDocuments")).hasSize(1);
+    }
+
+    @Test
+    void should_read_case_again_in_new_scope() {
+        // given
+        var cache = new CaseReadCache(true, meterRegistry);
+        var reader = new CountingReader();
+
+        // when
+        try (var scope = CaseReadCache.openScope()) {
+            cache.getCase(CASE_REF, JURISDICTION, reader);
+        }
+        try (var scope = CaseReadCache.openScope()) {
+            cache.getCase(CASE_REF, JURISDICTION, reader);
+        }
+
+        // then
+        assertThat(reader.reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void should_read_case_again_after_it_was_modified() {
+        // given
+        var cache = new CaseReadCache(true, meterRegistry);
+        var reader = new CountingReader();
+
+        // when
+        try (var scope = CaseReadCache.openScope()) {
+            cache.getCase(CASE_REF, JURISDICTION, reader);
+            cache.invalidate(CASE_REF);
+            cache.getCase(CASE_REF, JURISDICTION, reader);
+        }
+
+        // then
+        assertThat(reader.reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void should_share_single_read_between_concurrent_readers() throws Exception {
+        // given
+        var cache = new CaseReadCache(true, meterRegistry);
+        var readStarted = new CountDownLatch(1);
+        var readAllowed = new CountDownLatch(1);
+        var reads = new AtomicInteger();
+        Supplier<CaseDetails> reader = () -> {
+            reads.incrementAndGet();
+            readStarted.countDown();
+            await(readAllowed);
+            return CaseDetails.builder().id(Long.valueOf(CASE_REF)).build();
+        };
+
+        // when
+        final Future<CaseDetails> first = executor.submit(() -> cache.getCase(CASE_REF, JURISDICTION, reader));
+        await(readStarted);
+        Future<CaseDetails> second = executor.submit(() -> cache.getCase(CASE_REF, JURISDICTION, reader));
+        while (count("coalesced") == 0) {
+            Thread.sleep(5);
+        }
+        readAllowed.countDown();
+
+        // then
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void should_rethrow_read_failure_and_not_remember_it() {
+        // given
+        var cache = new CaseReadCache(true, meterRegistry);
+        var failure = new CcdCallException("read failed", null);
+
+        // when
+        try (var scope = CaseReadCache.openScope()) {
+            assertThatThrownBy(() -> cache.getCase(CASE_REF, JURISDICTION, () -> {
+                throw failure;
+            })).isSameAs(failure);
+
+            // then
+            var reader = new CountingReader();
+            cache.getCase(CASE_REF, JURISDICTION, reader);
+            assertThat(reader.reads.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void should_always_read_case_when_disabled() {
+        // given
+        var cache = new CaseReadCache(false, meterRegistry);
+        var reader = new CountingReader();
+
+        // when
+        try (var scope = CaseReadCache.openScope()) {
+            List.of(1, 2).forEach(i -> cache.getCase(CASE_REF, JURISDICTION, reader));
+        }
+
+        // then
+        assertThat(reader.reads.get()).isEqualTo(2);
+        assertThat(count("fetched")).isZero();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("ccd.case_reads", "result", result).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static class CountingReader implements Supplier<CaseDetails> {
+
+        final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public CaseDetails get() {
+            reads.incrementAndGet();
+            return CaseDetails.builder().id(Long.valueOf(CASE_REF)).build();
+        }
+    }
+}
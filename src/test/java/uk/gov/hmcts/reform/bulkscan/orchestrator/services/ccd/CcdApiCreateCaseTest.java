@@ -1,17 +1,22 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import java.time.Duration;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +36,9 @@ class CcdApiCreateCaseTest {
     @Mock
     private CoreCaseDataApi feignCcdApi;
 
+    @Mock
+    private CcdCaseIdSearchApi caseIdSearchApi;
+
     @Mock
     private CcdAuthenticatorFactory authenticatorFactory;
 
@@ -42,9 +50,26 @@ class CcdApiCreateCaseTest {
 
     private CcdApi ccdApi;
 
+    private final CaseReadCache caseReadCache = new CaseReadCache(false, new SimpleMeterRegistry());
+    private final CcdCallGuard callGuard = new CcdCallGuard(
+        CircuitBreakerRegistry.ofDefaults(),
+        BulkheadRegistry.ofDefaults(),
+        false
+    );
+    private final CcdEventConflictRetry conflictRetry =
+        new CcdEventConflictRetry(1, Duration.ZERO, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
-        ccdApi = new CcdApi(feignCcdApi, authenticatorFactory, serviceConfigProvider);
+        ccdApi = new CcdApi(
+            feignCcdApi,
+            caseIdSearchApi,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            conflictRetry
+        );
     }
 
     @Test
@@ -1,5 +1,8 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,22 +10,32 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseEnvelopeIdsSearchResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseIdSearchResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseIdSearchResult.FoundCase;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ObjectMapperConfiguration;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
-import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
-import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class CcdApiSearchTest {
 
     @Mock CoreCaseDataApi feignCcdApi;
+    @Mock CcdCaseIdSearchApi caseIdSearchApi;
     @Mock CcdAuthenticatorFactory authenticatorFactory;
     @Mock ServiceConfigProvider serviceConfigProvider;
 
@@ -35,9 +48,26 @@ class CcdApiSearchTest {
 
     CcdApi ccdApi;
 
+    private final CaseReadCache caseReadCache = new CaseReadCache(false, new SimpleMeterRegistry());
+    private final CcdCallGuard callGuard = new CcdCallGuard(
+        CircuitBreakerRegistry.ofDefaults(),
+        BulkheadRegistry.ofDefaults(),
+        false
+    );
+    private final CcdEventConflictRetry conflictRetry =
+        new CcdEventConflictRetry(1, Duration.ZERO, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
-        ccdApi = new CcdApi(feignCcdApi, authenticatorFactory, serviceConfigProvider);
+        ccdApi = new CcdApi(
+            feignCcdApi,
+            caseIdSearchApi,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            conflictRetry
+        );
     }
 
     @Test
@@ -58,20 +88,14 @@ class CcdApiSearchTest {
         given(ccdAuthenticator.getUserToken()).willReturn(idamToken);
 
         given(
-            feignCcdApi.searchCases(
+            caseIdSearchApi.searchCaseIds(
                 idamTokenCaptor.capture(),
                 s2sTokenCaptor.capture(),
                 caseTypeCaptor.capture(),
                 searchQueryCaptor.capture()
             )
         ).willReturn(
-            SearchResult
-                .builder()
-                .cases(asList(
-                    CaseDetails.builder().id(111L).build(),
-                    CaseDetails.builder().id(222L).build()
-                ))
-                .build()
+            new CaseIdSearchResult(asList(new FoundCase(111L), new FoundCase(222L)))
         );
 
         // when
@@ -83,7 +107,76 @@ class CcdApiSearchTest {
         assertThat(idamTokenCaptor.getValue()).isEqualTo(idamToken);
         assertThat(s2sTokenCaptor.getValue()).isEqualTo(s2sToken);
         assertThat(caseTypeCaptor.getValue()).isEqualTo("case-type-a,case-type-b");
-        assertThat(searchQueryCaptor.getValue()).contains(envelopeId);
+        assertThat(searchQueryCaptor.getValue()).isEqualTo(
+            "{\"query\":{\"match_phrase\":{\"data.bulkScanEnvelopes.value.id\":\"abc123\"}},"
+                + "\"_source\":[\"reference\"]}"
+        );
+        verifyNoInteractions(feignCcdApi);
+    }
+
+    @Test
+    void getCaseRefsByLegacyId_should_escape_searched_value() {
+        // given
+        var serviceCfg = serviceConfig("some-jurisdiction", asList("case-type-a"));
+
+        given(serviceConfigProvider.getConfig("hello")).willReturn(serviceCfg);
+        given(authenticatorFactory.createForJurisdiction(serviceCfg.getJurisdiction())).willReturn(ccdAuthenticator);
+        given(
+            caseIdSearchApi.searchCaseIds(any(), any(), caseTypeCaptor.capture(), searchQueryCaptor.capture())
+        ).willReturn(
+            new CaseIdSearchResult(null)
+        );
+
+        // when
+        List<Long> caseRefs = ccdApi.getCaseRefsByLegacyId("legacy\"id\\", "hello");
+
+        // then
+        assertThat(caseRefs).isEmpty();
+        assertThat(caseTypeCaptor.getValue()).isEqualTo("case-type-a");
+        assertThat(searchQueryCaptor.getValue()).isEqualTo(
+            "{\"query\":{\"match_phrase\":{\"alias.previousServiceCaseReference\":\"legacy\\\"id\\\\\"}},"
+                + "\"_source\":[\"reference\"]}"
+        );
+    }
+
+    @Test
+    void getCaseRefsByEnvelopeIds_should_find_cases_of_all_envelopes_with_single_search() throws Exception {
+        // given
+        var serviceCfg = serviceConfig("some-jurisdiction", asList("case-type-a"));
+
+        given(serviceConfigProvider.getConfig("hello")).willReturn(serviceCfg);
+        given(authenticatorFactory.createForJurisdiction(serviceCfg.getJurisdiction())).willReturn(ccdAuthenticator);
+        given(
+            caseIdSearchApi.searchCaseEnvelopeIds(any(), any(), caseTypeCaptor.capture(), searchQueryCaptor.capture())
+        ).willReturn(
+            new ObjectMapperConfiguration().objectMapper().readValue(
+                "{\"total\": 2, \"cases\": ["
+                    + "{\"id\": 111, \"case_data\": {\"bulkScanEnvelopes\": ["
+                    + "{\"value\": {\"id\": \"env-1\", \"action\": \"create\"}},"
+                    + "{\"value\": {\"id\": \"env-2\", \"action\": \"update\"}},"
+                    + "{\"value\": {\"id\": \"other\", \"action\": \"update\"}}"
+                    + "]}},"
+                    + "{\"id\": 222, \"case_data\": {\"bulkScanEnvelopes\": ["
+                    + "{\"value\": {\"id\": \"env-2\", \"action\": \"update\"}}"
+                    + "]}}"
+                    + "]}",
+                CaseEnvelopeIdsSearchResult.class
+            )
+        );
+
+        // when
+        Map<String, List<Long>> caseRefs = ccdApi.getCaseRefsByEnvelopeIds(Set.of("env-1", "env-2", "env-3"), "hello");
+
+        // then
+        assertThat(caseRefs).containsOnly(
+            entry("env-1", List.of(111L)),
+            entry("env-2", List.of(111L, 222L))
+        );
+        assertThat(caseTypeCaptor.getValue()).isEqualTo("case-type-a");
+        assertThat(searchQueryCaptor.getValue())
+            .startsWith("{\"query\":{\"terms\":{\"data.bulkScanEnvelopes.value.id.keyword\":[")
+            .contains("\"env-1\"", "\"env-2\"", "\"env-3\"")
+            .endsWith("]}},\"_source\":[\"reference\",\"data.bulkScanEnvelopes\"],\"size\":30}");
     }
 
     private ServiceConfigItem serviceConfig(String jurisdiction, List<String> caseTypes) {
@@ -2,22 +2,30 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 
 import feign.FeignException;
 import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.model.request.DocumentType;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.model.request.DocumentUrl;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.model.request.ScannedDocument;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdCallException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.internal.ExceptionRecord;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.envelopehandlers.UnableToAttachDocumentsException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import static java.time.LocalDateTime.now;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -43,6 +51,9 @@ class CcdApiTest {
     @Mock
     private CoreCaseDataApi feignCcdApi;
 
+    @Mock
+    private CcdCaseIdSearchApi caseIdSearchApi;
+
     @Mock
     private CcdAuthenticatorFactory authenticatorFactory;
 
@@ -54,9 +65,26 @@ class CcdApiTest {
 
     private CcdApi ccdApi;
 
+    private final CaseReadCache caseReadCache = new CaseReadCache(false, new SimpleMeterRegistry());
+    private final CcdCallGuard callGuard = new CcdCallGuard(
+        CircuitBreakerRegistry.ofDefaults(),
+        BulkheadRegistry.ofDefaults(),
+        false
+    );
+    private final CcdEventConflictRetry conflictRetry =
+        new CcdEventConflictRetry(1, Duration.ZERO, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
-        ccdApi = new CcdApi(feignCcdApi, authenticatorFactory, serviceConfigProvider);
+        ccdApi = new CcdApi(
+            feignCcdApi,
+            caseIdSearchApi,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            conflictRetry
+        );
     }
 
     @Test
@@ -185,6 +213,30 @@ class CcdApiTest {
             + "ref 123-123-123. CCD response: null");
     }
 
+    @Test
+    void attach_scanned_docs_by_case_id_should_throw_unable_to_attach_when_ccd_rejects_case_ref() {
+        // given
+        var ccdException = mock(FeignException.BadRequest.class);
+        given(feignCcdApi.startEvent("userToken", "serviceToken", "1234", "eventId")).willThrow(ccdException);
+
+        // when
+        Throwable exc = catchThrowable(
+            () -> ccdApi.attachScannedDocsByCaseId(
+                new CcdAuthenticator(() -> "serviceToken", "userId", "userToken"),
+                "jurisdiction",
+                "1234",
+                "eventId",
+                startEventResponse -> Optional.empty(),
+                "log"
+            )
+        );
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(UnableToAttachDocumentsException.class)
+            .hasCause(ccdException);
+    }
+
     @Test
     void updateCaseInCcd_should_handle_feign_exception() {
         // given
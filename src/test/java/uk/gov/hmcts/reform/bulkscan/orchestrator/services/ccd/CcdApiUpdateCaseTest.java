@@ -1,40 +1,65 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import java.time.Duration;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class CcdApiUpdateCaseTest {
 
     @Mock CoreCaseDataApi feignCcdApi;
+    @Mock CcdCaseIdSearchApi caseIdSearchApi;
     @Mock CcdAuthenticatorFactory authenticatorFactory;
     @Mock ServiceConfigProvider serviceConfigProvider;
     @Mock Function<StartEventResponse, CaseDataContent> caseDataContentBuilder;
 
     CcdApi ccdApi;
 
+    private final CaseReadCache caseReadCache = new CaseReadCache(false, new SimpleMeterRegistry());
+    private final CcdCallGuard callGuard = new CcdCallGuard(
+        CircuitBreakerRegistry.ofDefaults(),
+        BulkheadRegistry.ofDefaults(),
+        false
+    );
+    private final CcdEventConflictRetry conflictRetry =
+        new CcdEventConflictRetry(1, Duration.ZERO, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
-        ccdApi = new CcdApi(feignCcdApi, authenticatorFactory, serviceConfigProvider);
+        ccdApi = new CcdApi(
+            feignCcdApi,
+            caseIdSearchApi,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            conflictRetry
+        );
     }
 
     @Test
@@ -112,6 +137,75 @@ class CcdApiUpdateCaseTest {
         assertThat(exc).isSameAs(ccdException);
     }
 
+    @Test
+    void should_restart_event_when_case_was_updated_in_the_meantime() {
+        // given
+        var meterRegistry = new SimpleMeterRegistry();
+        ccdApi = new CcdApi(
+            feignCcdApi,
+            caseIdSearchApi,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            new CcdEventConflictRetry(2, Duration.ZERO, meterRegistry)
+        );
+        given(authenticatorFactory.createForJurisdiction(any())).willReturn(sampleCcdAuthenticator());
+
+        var firstStartEventResponse = StartEventResponse.builder().token("token1").build();
+        var secondStartEventResponse = StartEventResponse.builder().token("token2").build();
+        given(feignCcdApi.startEventForCaseWorker(any(), any(), any(), any(), any(), any(), any()))
+            .willReturn(firstStartEventResponse, secondStartEventResponse);
+
+        var firstCaseDataContent = CaseDataContent.builder().eventToken("token1").build();
+        var secondCaseDataContent = CaseDataContent.builder().eventToken("token2").build();
+        given(caseDataContentBuilder.apply(firstStartEventResponse)).willReturn(firstCaseDataContent);
+        given(caseDataContentBuilder.apply(secondStartEventResponse)).willReturn(secondCaseDataContent);
+
+        willThrow(mock(FeignException.Conflict.class))
+            .given(feignCcdApi)
+            .submitEventForCaseWorker(any(), any(), any(), any(), any(), any(), anyBoolean(), eq(firstCaseDataContent));
+
+        // when
+        ccdApi.updateCase("jurisdiction", "caseTypeId", "eventId", "caseId", caseDataContentBuilder, "logContext1");
+
+        // then
+        verify(feignCcdApi).submitEventForCaseWorker(
+            any(), any(), any(), any(), any(), any(), anyBoolean(), eq(secondCaseDataContent)
+        );
+        assertThat(
+            meterRegistry.get("ccd.event.conflicts").tag("case_type", "caseTypeId").tag("result", "retried")
+                .counter().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void should_rethrow_conflict_when_there_are_no_attempts_left() {
+        // given
+        given(authenticatorFactory.createForJurisdiction(any())).willReturn(sampleCcdAuthenticator());
+
+        var conflict = mock(FeignException.Conflict.class);
+        willThrow(conflict)
+            .given(feignCcdApi)
+            .submitEventForCaseWorker(any(), any(), any(), any(), any(), any(), anyBoolean(), any());
+
+        // when
+        Throwable exc = catchThrowable(
+            () -> ccdApi.updateCase(
+                "jurisdiction",
+                "caseTypeId",
+                "eventId",
+                "caseId",
+                caseDataContentBuilder,
+                "logContext1"
+            )
+        );
+
+        // then
+        assertThat(exc).isSameAs(conflict);
+        verify(feignCcdApi, times(1)).startEventForCaseWorker(any(), any(), any(), any(), any(), any(), any());
+    }
+
     private CcdAuthenticator sampleCcdAuthenticator() {
         return new CcdAuthenticator(
             () -> "serviceToken1",
@@ -0,0 +1,137 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class CcdCallGuardTest {
+
+    private final CcdCallGuard guard = new CcdCallGuard(
+        CircuitBreakerRegistry.of(Map.of(
+            CcdCallGuard.CONFIG_NAME,
+            CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(new CcdFailurePredicate())
+                .build()
+        )),
+        BulkheadRegistry.of(Map.of(
+            CcdCallGuard.CONFIG_NAME,
+            BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build()
+        )),
+        true
+    );
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_stop_calls_for_jurisdiction_and_case_type_when_ccd_keeps_failing() {
+        // given
+        failTwice("PROBATE", "GrantOfRepresentation", 500);
+
+        // when
+        Throwable failure = catchThrowable(() -> guard.call("PROBATE", "GrantOfRepresentation", () -> "case"));
+
+        // then
+        assertThat(failure).isInstanceOf(CcdUnavailableException.class);
+        assertThat(((CcdUnavailableException) failure).getRetryAfter()).isEqualTo(Duration.ofMinutes(1));
+
+        // and calls for other case types go ahead
+        assertThat(guard.call("PROBATE", "Caveat", () -> "case")).isEqualTo("case");
+        assertThat(guard.call("DIVORCE", "GrantOfRepresentation", () -> "case")).isEqualTo("case");
+    }
+
+    @Test
+    void should_not_stop_calls_when_ccd_rejects_requests() {
+        // given
+        failTwice("PROBATE", "GrantOfRepresentation", 422);
+
+        // when
+        String result = guard.call("PROBATE", "GrantOfRepresentation", () -> "case");
+
+        // then
+        assertThat(result).isEqualTo("case");
+    }
+
+    @Test
+    void should_not_make_call_when_too_many_calls_are_in_progress() throws Exception {
+        // given
+        var callStarted = new CountDownLatch(1);
+        var callAllowed = new CountDownLatch(1);
+        executor.submit(() -> guard.call("PROBATE", "Caveat", () -> {
+            callStarted.countDown();
+            return await(callAllowed);
+        }));
+        assertThat(callStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        // then
+        assertThatThrownBy(() -> guard.call("PROBATE", "Caveat", () -> "case"))
+            .isInstanceOf(CcdUnavailableException.class);
+        assertThat(guard.call("PROBATE", "GrantOfRepresentation", () -> "case")).isEqualTo("case");
+
+        callAllowed.countDown();
+    }
+
+    @Test
+    void should_always_make_call_when_disabled() {
+        // given
+        var disabledGuard = new CcdCallGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), false);
+
+        // when
+        String result = disabledGuard.call("PROBATE", "Caveat", () -> "case");
+
+        // then
+        assertThat(result).isEqualTo("case");
+    }
+
+    private void failTwice(String jurisdiction, String caseTypeId, int status) {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.call(jurisdiction, caseTypeId, () -> {
+                throw feignException(status);
+            })).isInstanceOf(FeignException.class);
+        }
+    }
+
+    private static FeignException feignException(int status) {
+        var request = Request.create(Request.HttpMethod.GET, "/cases", Map.of(), null, UTF_8, null);
+        return FeignException.errorStatus(
+            "getCase",
+            Response.builder().status(status).request(request).headers(Map.of()).build()
+        );
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
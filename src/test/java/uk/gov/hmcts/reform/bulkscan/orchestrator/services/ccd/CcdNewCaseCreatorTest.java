@@ -267,7 +267,8 @@ class CcdNewCaseCreatorTest {
             null
         );
 
-        given(cdamApiClient.getDocumentHash(JURISDICTION, DOCUMENT_UUID)).willReturn(DOCUMENT_HASH_1);
+        given(cdamApiClient.getDocumentHashes(JURISDICTION, List.of(DOCUMENT_UUID)))
+            .willReturn(Map.of(DOCUMENT_UUID, DOCUMENT_HASH_1));
 
         ServiceConfigItem configItem = getConfigItem();
         ExceptionRecord exceptionRecord = getExceptionRecord();
@@ -407,6 +407,7 @@ class CreateCaseCallbackServiceTest {
 
         verifyNoInteractions(callbackResultRepositoryProxy);
         verify(exceptionRecordFinalizer).finalizeExceptionRecord(caseData, "345", CASE_CREATION);
+        verify(caseFinder).recordCaseCreatedFrom(any(ExceptionRecord.class), any(ServiceConfigItem.class), eq(345L));
     }
 
     @Test
@@ -554,6 +555,7 @@ class CreateCaseCallbackServiceTest {
         assertThat(result.getErrors()).isEmpty();
         assertThat(result.getWarnings()).isEmpty();
         verify(paymentsService).updatePayments(any(), anyString(), anyString(), eq(Long.toString(newCaseId)));
+        verify(caseFinder).recordCaseCreatedFrom(any(ExceptionRecord.class), any(ServiceConfigItem.class), eq(newCaseId));
     }
 
     @Test
@@ -32,7 +32,7 @@ class DocumentsTest {
         // when
         List<Map<String, Object>> actualDocumentsToAttach = removeAlreadyAttachedDocuments(
             exceptionRecordDocuments,
-            targetCaseDocuments,
+            CaseDocumentsIndex.of(targetCaseDocuments),
             exceptionRecordReference
         );
 
@@ -58,7 +58,7 @@ class DocumentsTest {
         // when
         List<Map<String, Object>> actualDocumentsToAttach = removeAlreadyAttachedDocuments(
             exceptionRecordDocuments,
-            targetCaseDocuments,
+            CaseDocumentsIndex.of(targetCaseDocuments),
             exceptionRecordReference
         );
 
@@ -95,7 +95,7 @@ class DocumentsTest {
         // when
         List<Map<String, Object>> actualDocumentsToAttach = removeAlreadyAttachedDocuments(
             exceptionRecordDocuments,
-            targetCaseDocuments,
+            CaseDocumentsIndex.of(targetCaseDocuments),
             "REF-2"
         );
 
@@ -0,0 +1,151 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.CcdCaseIdSearchApi;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseEnvelopeIdsSearchResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.client.ccd.model.CaseIdSearchResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares envelope ID lookups made one search per envelope against lookups coalesced into batched searches,
+ * with many envelopes of the same service processed concurrently by a CCD stub with fixed search latency
+ * and limited search capacity.
+ *
+ * <p>Run with {@code RUN_BENCHMARKS=true ./gradlew test --tests '*EnvelopeIdLookupBenchmarkTest'}.</p>
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class EnvelopeIdLookupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeIdLookupBenchmarkTest.class);
+
+    private static final String SERVICE = "bulkscan";
+    private static final int ENVELOPES = 1_000;
+    private static final int CONCURRENT_ENVELOPES = 64;
+    private static final int CCD_CONCURRENT_SEARCHES = 16;
+    private static final Duration CCD_SEARCH_LATENCY = Duration.ofMillis(40);
+
+    @Test
+    void should_compare_throughput_of_single_and_batched_envelope_id_lookups() throws Exception {
+        Result single = run(false);
+        Result batched = run(true);
+
+        log.info(
+            "{} envelope ID lookups, {} at a time. Single: {} CCD searches in {} ms. Batched: {} CCD searches in {} ms",
+            ENVELOPES,
+            CONCURRENT_ENVELOPES,
+            single.searches,
+            single.millis,
+            batched.searches,
+            batched.millis
+        );
+
+        assertThat(batched.searches).isLessThan(single.searches);
+    }
+
+    private static Result run(boolean batchingEnabled) throws Exception {
+        var serviceConfig = new ServiceConfigItem();
+        serviceConfig.setJurisdiction("BULKSCAN");
+        serviceConfig.setCaseTypeIds(List.of("Bulk_Scanned"));
+        var serviceConfigProvider = mock(ServiceConfigProvider.class);
+        given(serviceConfigProvider.getConfig(SERVICE)).willReturn(serviceConfig);
+        var authenticatorFactory = mock(CcdAuthenticatorFactory.class);
+        given(authenticatorFactory.createForJurisdiction(any()))
+            .willReturn(new CcdAuthenticator(() -> "s2s-token", "user-id", "idam-token"));
+
+        var ccdStub = new CcdStub();
+        var caseReadCache = new CaseReadCache(false, new SimpleMeterRegistry());
+        var callGuard = new CcdCallGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), false);
+        var conflictRetry = new CcdEventConflictRetry(1, Duration.ZERO, new SimpleMeterRegistry());
+        var ccdApi = new CcdApi(
+            null,
+            ccdStub,
+            authenticatorFactory,
+            serviceConfigProvider,
+            caseReadCache,
+            callGuard,
+            conflictRetry
+        );
+        var lookup = new EnvelopeIdLookup(ccdApi, batchingEnabled, Duration.ofMillis(20), 50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_ENVELOPES);
+        try {
+            long start = System.nanoTime();
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < ENVELOPES; i++) {
+                String envelopeId = "envelope-" + i;
+                results.add(executor.submit(() -> lookup.getCaseRefsByEnvelopeId(envelopeId, SERVICE)));
+            }
+            for (Future<List<Long>> result : results) {
+                assertThat(result.get()).isEmpty();
+            }
+            return new Result(ccdStub.searches.get(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds no cases, taking fixed time per search and handling a limited number of searches at a time.
+     */
+    private static class CcdStub implements CcdCaseIdSearchApi {
+
+        final AtomicInteger searches = new AtomicInteger();
+        final Semaphore capacity = new Semaphore(CCD_CONCURRENT_SEARCHES);
+
+        @Override
+        public CaseIdSearchResult searchCaseIds(String idamToken, String s2sToken, String caseType, String query) {
+            search();
+            return new CaseIdSearchResult(null);
+        }
+
+        @Override
+        public CaseEnvelopeIdsSearchResult searchCaseEnvelopeIds(
+            String idamToken,
+            String s2sToken,
+            String caseType,
+            String query
+        ) {
+            search();
+            return new CaseEnvelopeIdsSearchResult(null);
+        }
+
+        private void search() {
+            searches.incrementAndGet();
+            try {
+                capacity.acquire();
+                try {
+                    Thread.sleep(CCD_SEARCH_LATENCY.toMillis());
+                } finally {
+                    capacity.release();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private record Result(int searches, long millis) {
+    }
+}
@@ -0,0 +1,135 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CcdCallException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EnvelopeIdLookupTest {
+
+    private static final String SERVICE = "bulkscan";
+
+    @Mock
+    private CcdApi ccdApi;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_search_for_each_envelope_separately_when_batching_is_disabled() {
+        // given
+        var lookup = new EnvelopeIdLookup(ccdApi, false, Duration.ofSeconds(1), 10);
+        given(ccdApi.getCaseRefsByEnvelopeId("envelope-1", SERVICE)).willReturn(List.of(1L));
+
+        // when
+        List<Long> caseRefs = lookup.getCaseRefsByEnvelopeId("envelope-1", SERVICE);
+
+        // then
+        assertThat(caseRefs).containsExactly(1L);
+        verify(ccdApi, never()).getCaseRefsByEnvelopeIds(any(), anyString());
+    }
+
+    @Test
+    void should_search_for_concurrently_looked_up_envelopes_together() throws Exception {
+        // given
+        var lookup = new EnvelopeIdLookup(ccdApi, true, Duration.ofSeconds(5), 3);
+        given(ccdApi.getExceptionRecordRefsByEnvelopeIds(any(), eq(SERVICE)))
+            .willReturn(Map.of("envelope-1", List.of(11L), "envelope-3", List.of(31L, 32L)));
+
+        // when
+        List<Future<List<Long>>> results = List.of("envelope-1", "envelope-2", "envelope-3")
+            .stream()
+            .map(id -> executor.submit(() -> lookup.getExceptionRecordRefsByEnvelopeId(id, SERVICE)))
+            .toList();
+
+        // then
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).containsExactly(11L);
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).containsExactly(31L, 32L);
+
+        // the batch was full, so the search did not wait for the whole window
+        verify(ccdApi).getExceptionRecordRefsByEnvelopeIds(
+            argThat(ids -> Set.copyOf(ids).equals(Set.of("envelope-1", "envelope-2", "envelope-3"))),
+            eq(SERVICE)
+        );
+    }
+
+    @Test
+    void should_search_for_single_envelope_when_no_other_lookup_joins_within_window() {
+        // given
+        var lookup = new EnvelopeIdLookup(ccdApi, true, Duration.ofMillis(10), 3);
+        given(ccdApi.getCaseRefsByEnvelopeIds(any(), eq(SERVICE))).willReturn(Map.of());
+
+        // when
+        List<Long> caseRefs = lookup.getCaseRefsByEnvelopeId("envelope-1", SERVICE);
+
+        // then
+        assertThat(caseRefs).isEmpty();
+        verify(ccdApi).getCaseRefsByEnvelopeIds(argThat(ids -> ids.contains("envelope-1")), eq(SERVICE));
+    }
+
+    @Test
+    void should_rethrow_search_failure_to_all_lookups_in_batch() {
+        // given
+        var lookup = new EnvelopeIdLookup(ccdApi, true, Duration.ofSeconds(5), 2);
+        var failure = new CcdCallException("search failed", null);
+        given(ccdApi.getCaseRefsByEnvelopeIds(any(), eq(SERVICE))).willThrow(failure);
+
+        // when
+        List<Future<List<Long>>> results = List.of("envelope-1", "envelope-2")
+            .stream()
+            .map(id -> executor.submit(() -> lookup.getCaseRefsByEnvelopeId(id, SERVICE)))
+            .toList();
+
+        // then
+        for (Future<List<Long>> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(failure);
+        }
+    }
+
+    @Test
+    void should_not_mix_lookups_of_different_kinds() {
+        // given
+        var lookup = new EnvelopeIdLookup(ccdApi, true, Duration.ofMillis(10), 10);
+        given(ccdApi.getCaseRefsByEnvelopeIds(any(), eq(SERVICE))).willReturn(Map.of("envelope-1", List.of(1L)));
+        given(ccdApi.getExceptionRecordRefsByEnvelopeIds(any(), eq(SERVICE))).willReturn(Map.of());
+
+        // when
+        List<Long> caseRefs = lookup.getCaseRefsByEnvelopeId("envelope-1", SERVICE);
+        List<Long> exceptionRecordRefs = lookup.getExceptionRecordRefsByEnvelopeId("envelope-1", SERVICE);
+
+        // then
+        assertThat(caseRefs).containsExactly(1L);
+        assertThat(exceptionRecordRefs).isEqualTo(emptyList());
+    }
+}
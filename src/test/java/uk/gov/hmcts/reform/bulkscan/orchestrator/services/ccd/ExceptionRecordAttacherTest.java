@@ -18,6 +18,7 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.CaseNo
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.PaymentsPublishingException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.internal.ExceptionRecord;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.PaymentsService;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.callback.PaymentsHelper;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Classification;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -41,6 +42,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.callbackresult.RequestType.ATTACH_TO_CASE;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackValidatorTest.JOURNEY_CLASSIFICATION;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.CaseReferenceTypes.EXTERNAL_CASE_REFERENCE;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.definition.ExceptionRecordFields.ATTACH_TO_CASE_REFERENCE;
@@ -72,6 +74,9 @@ class ExceptionRecordAttacherTest {
     @Mock
     private CcdApi ccdApi;
 
+    @Mock
+    private CaseReferenceIndex caseReferenceIndex;
+
     private ExceptionRecordAttacher exceptionRecordAttacher;
 
     private ExceptionRecord exceptionRecord;
@@ -120,7 +125,8 @@ class ExceptionRecordAttacherTest {
             supplementaryEvidenceWithOcrUpdater,
             paymentsService,
             callbackResultRepositoryProxy,
-            ccdApi
+            ccdApi,
+            caseReferenceIndex
         );
 
         exceptionRecord = getExceptionRecord();
@@ -374,6 +380,7 @@ class ExceptionRecordAttacherTest {
             assertThat(data.exceptionRecordId).isEqualTo(CASE_REF);
             assertThat(data.caseId).isEqualTo(EXISTING_CASE_ID);
         });
+        verify(caseReferenceIndex).record(LEGACY_ID, LEGACY_CASE_ID, SERVICE_NAME, Long.parseLong(EXISTING_CASE_ID));
     }
 
     @Test
@@ -94,7 +94,7 @@ class SupplementaryEvidenceUpdaterTest {
         List<Map<String, Object>> exceptionRecordDocuments = singletonList(doc1);
 
         String hashToken1 = "321hhjRETE31321dsds";
-        given(cdamApiClient.getDocumentHash(JURISDICTION, "uuid1")).willReturn(hashToken1);
+        given(cdamApiClient.getDocumentHashes(JURISDICTION, List.of("uuid1"))).willReturn(Map.of("uuid1", hashToken1));
 
         AttachToCaseEventData callBackEvent = getCallbackEvent(exceptionRecordDocuments);
 
@@ -115,8 +115,8 @@ class SupplementaryEvidenceUpdaterTest {
         );
 
         // Verify results
-        verify(scannedDocumentsValidator).verifyExceptionRecordAddsNoDuplicates(anyList(), anyList(),
-            eq(CASE_REF), eq(EXISTING_CASE_ID));
+        verify(scannedDocumentsValidator).verifyExceptionRecordAddsNoDuplicates(
+            any(CaseDocumentsIndex.class), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID));
         verify(ccdApi).startAttachScannedDocs(any(CaseDetails.class), eq(IDAM_TOKEN), eq(USER_ID));
         verify(ccdApi).attachExceptionRecord(
             eq(existingCaseDetails),
@@ -144,7 +144,9 @@ class SupplementaryEvidenceUpdaterTest {
 
         doThrow(new DuplicateDocsException("msg"))
             .when(scannedDocumentsValidator)
-            .verifyExceptionRecordAddsNoDuplicates(anyList(), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID));
+            .verifyExceptionRecordAddsNoDuplicates(
+                any(CaseDocumentsIndex.class), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID)
+            );
 
         List<Map<String, Object>> exceptionRecordDocuments = emptyList();
         AttachToCaseEventData callBackEvent = getCallbackEvent(exceptionRecordDocuments);
@@ -170,7 +172,9 @@ class SupplementaryEvidenceUpdaterTest {
 
         // then
         verify(scannedDocumentsValidator)
-            .verifyExceptionRecordAddsNoDuplicates(anyList(), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID));
+            .verifyExceptionRecordAddsNoDuplicates(
+                any(CaseDocumentsIndex.class), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID)
+            );
         verifyNoMoreInteractions(ccdApi);
     }
 
@@ -209,7 +213,9 @@ class SupplementaryEvidenceUpdaterTest {
 
         // then
         verify(scannedDocumentsValidator)
-            .verifyExceptionRecordAddsNoDuplicates(anyList(), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID));
+            .verifyExceptionRecordAddsNoDuplicates(
+                any(CaseDocumentsIndex.class), anyList(), eq(CASE_REF), eq(EXISTING_CASE_ID)
+            );
         verifyNoMoreInteractions(ccdApi);
     }
 
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.autocaseupdate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.client.caseupdate.model.response.SuccessfulUpdateResponse;
@@ -12,23 +13,30 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.caseupdatedetails.Case
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseFinder;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EventIds;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.client.SampleData.sampleCaseDetails;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.client.SampleData.sampleEnvelope;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.client.SampleData.sampleUpdateDataResponse;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CASE_UPDATED;
 
 @ExtendWith(MockitoExtension.class)
 class AutoCaseUpdaterTest {
@@ -40,12 +48,20 @@ class AutoCaseUpdaterTest {
 
     @Mock Function<StartEventResponse, CaseDataContent> caseDataContentBuilder;
     @Mock CaseDataUpdater caseDataUpdater;
+    @Mock EnvelopeProcessingLedger processingLedger;
 
     AutoCaseUpdater service;
 
     @BeforeEach
     void setUp() {
-        this.service = new AutoCaseUpdater(caseUpdateDataService, caseFinder, ccdApi, caseDataBuilder, caseDataUpdater);
+        this.service = new AutoCaseUpdater(
+            caseUpdateDataService,
+            caseFinder,
+            ccdApi,
+            caseDataBuilder,
+            caseDataUpdater,
+            processingLedger
+        );
     }
 
     @Test
@@ -79,6 +95,7 @@ class AutoCaseUpdaterTest {
         assertThat(result.type).isEqualTo(AutoCaseUpdateResultType.ERROR);
     }
 
+    @SuppressWarnings("unchecked")
     @Test
     void should_update_case_if_it_is_found() {
         // given
@@ -106,6 +123,10 @@ class AutoCaseUpdaterTest {
         given(caseDataBuilder.getBuilder(updateDataResponse.caseDetails.caseData, envelope.id))
             .willReturn(caseDataContentBuilder);
 
+        var caseDataContent = CaseDataContent.builder().build();
+        var startEventResponse = StartEventResponse.builder().caseDetails(existingCaseDetails).build();
+        given(caseDataContentBuilder.apply(startEventResponse)).willReturn(caseDataContent);
+
         // when
         var result = service.updateCase(envelope);
 
@@ -113,19 +134,78 @@ class AutoCaseUpdaterTest {
         assertThat(result.type).isEqualTo(AutoCaseUpdateResultType.OK);
         assertThat(result.caseId).isEqualTo(existingCaseDetails.getId());
 
-        // should request data from appropriate service
-        verify(caseUpdateDataService)
-            .getCaseUpdateData(envelope.container, existingCaseDetails, envelope);
-
         // should call CCD to update given case
+        var builderCaptor = ArgumentCaptor.forClass(Function.class);
         verify(ccdApi)
             .updateCase(
                 eq(existingCaseDetails.getJurisdiction()),
                 eq(existingCaseDetails.getCaseTypeId()),
                 eq(EventIds.ATTACH_SCANNED_DOCS_WITH_OCR),
                 eq(existingCaseDetails.getId().toString()),
-                eq(caseDataContentBuilder),
+                builderCaptor.capture(),
                 anyString()
             );
+        assertThat(builderCaptor.getValue().apply(startEventResponse)).isSameAs(caseDataContent);
+
+        // should request data from appropriate service
+        verify(caseUpdateDataService)
+            .getCaseUpdateData(envelope.container, existingCaseDetails, envelope);
+
+        verify(processingLedger).record(envelope.id, CASE_UPDATED, existingCaseDetails.getId());
+        verify(caseFinder).recordEnvelopeAttachedTo(envelope, existingCaseDetails.getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void should_work_out_case_data_from_case_returned_by_started_event() {
+        // given
+        CaseDetails existingCaseDetails = sampleCaseDetails();
+        Envelope envelope = sampleEnvelope();
+        given(caseFinder.findCase(envelope)).willReturn(Optional.of(existingCaseDetails));
+
+        // when
+        service.updateCase(envelope);
+
+        // then
+        var builderCaptor = ArgumentCaptor.forClass(Function.class);
+        verify(ccdApi).updateCase(any(), any(), any(), any(), builderCaptor.capture(), anyString());
+
+        // case updated since it was found, e.g. by the event which made CCD reject the update with a conflict
+        Map<String, Object> currentCaseData = Map.of("bulkScanEnvelopes", List.of());
+        CaseDetails currentCase = CaseDetails.builder().id(existingCaseDetails.getId()).data(currentCaseData).build();
+        var startEventResponse = StartEventResponse.builder().caseDetails(currentCase).build();
+
+        SuccessfulUpdateResponse updateDataResponse = sampleUpdateDataResponse();
+        given(caseUpdateDataService.getCaseUpdateData(envelope.container, currentCase, envelope))
+            .willReturn(updateDataResponse);
+        Map<String, Object> caseDataWithHashes = Map.of("field", "hashes");
+        given(caseDataUpdater.setDocumentHash(envelope, updateDataResponse.caseDetails.caseData))
+            .willReturn(caseDataWithHashes);
+        Map<String, Object> updatedCaseData = Map.of("field", "value");
+        given(caseDataUpdater.updateEnvelopeReferences(
+            caseDataWithHashes, envelope.id, CaseAction.UPDATE, currentCaseData
+        )).willReturn(updatedCaseData);
+        given(caseDataBuilder.getBuilder(updatedCaseData, envelope.id)).willReturn(caseDataContentBuilder);
+
+        builderCaptor.getValue().apply(startEventResponse);
+
+        verify(caseDataContentBuilder).apply(startEventResponse);
+        verify(caseUpdateDataService, never()).getCaseUpdateData(envelope.container, existingCaseDetails, envelope);
+    }
+
+    @Test
+    void should_not_update_case_again_if_update_is_recorded_in_processing_ledger() {
+        // given
+        Envelope envelope = sampleEnvelope();
+        given(processingLedger.find(envelope.id, CASE_UPDATED, Long.class)).willReturn(Optional.of(123L));
+
+        // when
+        var result = service.updateCase(envelope);
+
+        // then
+        assertThat(result.type).isEqualTo(AutoCaseUpdateResultType.OK);
+        assertThat(result.caseId).isEqualTo(123L);
+
+        verifyNoInteractions(caseFinder, caseUpdateDataService, ccdApi);
     }
 }
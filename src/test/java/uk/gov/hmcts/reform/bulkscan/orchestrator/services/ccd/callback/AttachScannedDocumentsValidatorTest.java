@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.callback;
 import com.google.common.collect.ImmutableMap;
 import org.junit.jupiter.api.Test;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.DuplicateDocsException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseDocumentsIndex;
 
 import java.util.List;
 import java.util.Map;
@@ -31,7 +32,7 @@ class AttachScannedDocumentsValidatorTest {
 
         // when, then
         assertThatCode(() -> VALIDATOR.verifyExceptionRecordAddsNoDuplicates(
-            targetCaseDocuments,
+            CaseDocumentsIndex.of(targetCaseDocuments),
             exceptionRecordDocuments,
             exceptionRecordReference,
             "target-ref"
@@ -50,7 +51,7 @@ class AttachScannedDocumentsValidatorTest {
 
         // when, then
         assertThatCode(() -> VALIDATOR.verifyExceptionRecordAddsNoDuplicates(
-            targetCaseDocuments,
+            CaseDocumentsIndex.of(targetCaseDocuments),
             exceptionRecordDocuments,
             "exception-ref",
             "target-ref"
@@ -69,7 +70,7 @@ class AttachScannedDocumentsValidatorTest {
 
         // when, then
         assertThatCode(() -> VALIDATOR.verifyExceptionRecordAddsNoDuplicates(
-            targetCaseDocuments,
+            CaseDocumentsIndex.of(targetCaseDocuments),
             exceptionRecordDocuments,
             "exception-ref",
             "target-ref"
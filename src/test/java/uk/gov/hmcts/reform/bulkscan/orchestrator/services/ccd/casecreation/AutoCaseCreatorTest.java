@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.casecreation;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableMap;
 import feign.FeignException;
 import feign.Request;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
@@ -19,8 +21,11 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ServiceConfigItem;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseAction;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CcdCollectionElement;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.EnvelopeReference;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdApi;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EnvelopeIdLookup;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.config.ServiceConfigProvider;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -31,6 +36,7 @@ import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import static io.vavr.control.Either.left;
@@ -49,6 +55,9 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelope;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.ENVELOPE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CASE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.DOCUMENT_HASHES;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.casecreation.CaseCreationResult.abortedWithoutFailure;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.casecreation.CaseCreationResult.caseAlreadyExists;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.casecreation.CaseCreationResult.caseCreated;
@@ -62,12 +71,19 @@ class AutoCaseCreatorTest {
     private EnvelopeTransformer envelopeTransformer;
     @Mock
     private CcdApi ccdApi;
+
+    @Mock
+    private EnvelopeIdLookup envelopeIdLookup;
     @Mock
     private ServiceConfigProvider serviceConfigProvider;
     @Mock
     private ServiceConfigItem serviceConfigItem;
     @Mock
     private CdamApiClient cdamApiClient;
+    @Mock
+    private EnvelopeProcessingLedger processingLedger;
+    @Mock
+    private CaseReferenceIndex caseReferenceIndex;
 
     private AutoCaseCreator autoCaseCreator;
 
@@ -76,7 +92,15 @@ class AutoCaseCreatorTest {
         given(serviceConfigItem.getAutoCaseCreationEnabled()).willReturn(true);
         given(serviceConfigProvider.getConfig(any())).willReturn(serviceConfigItem);
 
-        autoCaseCreator = new AutoCaseCreator(envelopeTransformer, ccdApi, serviceConfigProvider, cdamApiClient);
+        autoCaseCreator = new AutoCaseCreator(
+            envelopeTransformer,
+            ccdApi,
+            envelopeIdLookup,
+            serviceConfigProvider,
+            cdamApiClient,
+            processingLedger,
+            caseReferenceIndex
+        );
     }
 
     @Test
@@ -115,7 +139,7 @@ class AutoCaseCreatorTest {
 
         var transformationResponse = sampleSuccessfulTransformationResponse();
         given(envelopeTransformer.transformEnvelope(any())).willReturn(right(transformationResponse));
-        given(cdamApiClient.getDocumentHash("BULKSCAN", "uuid1")).willReturn("hash");
+        given(cdamApiClient.getDocumentHashes("BULKSCAN", List.of("uuid1"))).willReturn(Map.of("uuid1", "hash"));
 
         Envelope envelope = envelope(1);
 
@@ -125,7 +149,7 @@ class AutoCaseCreatorTest {
         // then
         assertThat(result).usingRecursiveComparison().isEqualTo(caseCreated(newCaseId));
 
-        verify(ccdApi).getCaseRefsByEnvelopeId(envelope.id, envelope.container);
+        verify(envelopeIdLookup).getCaseRefsByEnvelopeId(envelope.id, envelope.container);
 
         verify(ccdApi).createCase(
             eq(envelope.jurisdiction),
@@ -136,6 +160,113 @@ class AutoCaseCreatorTest {
         );
     }
 
+    @Test
+    void should_record_completed_steps_in_processing_ledger() {
+        // given
+        long newCaseId = 1234L;
+        given(ccdApi.createCase(any(), any(), any(), any(), any())).willReturn(newCaseId);
+
+        var transformationResponse = sampleSuccessfulTransformationResponse();
+        given(envelopeTransformer.transformEnvelope(any())).willReturn(right(transformationResponse));
+        given(cdamApiClient.getDocumentHashes("BULKSCAN", List.of("uuid1"))).willReturn(Map.of("uuid1", "hash"));
+
+        Envelope envelope = envelope(1);
+
+        // when
+        autoCaseCreator.createCase(envelope);
+
+        // then
+        verify(processingLedger).record(envelope.id, DOCUMENT_HASHES, Map.of("uuid1", "hash"));
+        verify(processingLedger).record(envelope.id, CASE_ID, newCaseId);
+    }
+
+    @Test
+    void should_resume_case_creation_from_steps_recorded_in_processing_ledger() {
+        // given
+        long newCaseId = 1234L;
+        given(ccdApi.createCase(any(), any(), any(), any(), any())).willReturn(newCaseId);
+
+        given(envelopeTransformer.transformEnvelope(any()))
+            .willReturn(right(sampleSuccessfulTransformationResponse()));
+        Envelope envelope = envelope(1);
+        given(processingLedger.find(envelope.id, CASE_ID, Long.class)).willReturn(Optional.empty());
+        given(processingLedger.find(
+            eq(envelope.id),
+            eq(DOCUMENT_HASHES),
+            ArgumentMatchers.<TypeReference<Map<String, String>>>any()
+        )).willReturn(Optional.of(new HashMap<>(Map.of("uuid1", "hash"))));
+
+        // when
+        var result = autoCaseCreator.createCase(envelope);
+
+        // then
+        assertThat(result).usingRecursiveComparison().isEqualTo(caseCreated(newCaseId));
+        verifyNoInteractions(cdamApiClient);
+    }
+
+    @Test
+    void should_not_search_for_case_when_case_id_is_recorded_in_processing_ledger() {
+        // given
+        Envelope envelope = envelope(1);
+        given(processingLedger.find(envelope.id, CASE_ID, Long.class)).willReturn(Optional.of(1234L));
+
+        // when
+        var result = autoCaseCreator.createCase(envelope);
+
+        // then
+        assertThat(result).usingRecursiveComparison().isEqualTo(caseAlreadyExists(1234L));
+        verifyNoInteractions(ccdApi, envelopeTransformer, cdamApiClient);
+    }
+
+    @Test
+    void should_not_search_for_case_when_ledger_shows_no_earlier_ccd_write() {
+        // given
+        long newCaseId = 1234L;
+        given(ccdApi.createCase(any(), any(), any(), any(), any())).willReturn(newCaseId);
+        given(envelopeTransformer.transformEnvelope(any())).willReturn(right(sampleSuccessfulTransformationResponse()));
+
+        Envelope envelope = envelope(1);
+        given(processingLedger.canSkipCcdSearch(envelope.id)).willReturn(true);
+
+        // when
+        var result = autoCaseCreator.createCase(envelope);
+
+        // then
+        assertThat(result).usingRecursiveComparison().isEqualTo(caseCreated(newCaseId));
+        verify(envelopeIdLookup, never()).getCaseRefsByEnvelopeId(any(), any());
+        verify(processingLedger).recordCcdWriteStarted(envelope.id);
+    }
+
+    @Test
+    void should_not_search_for_case_when_case_is_found_in_case_reference_index() {
+        // given
+        Envelope envelope = envelope(1);
+        given(caseReferenceIndex.findCaseIds(ENVELOPE_ID, envelope.id, envelope.container)).willReturn(List.of(1234L));
+
+        // when
+        var result = autoCaseCreator.createCase(envelope);
+
+        // then
+        assertThat(result).usingRecursiveComparison().isEqualTo(caseAlreadyExists(1234L));
+        verifyNoInteractions(envelopeIdLookup, ccdApi, envelopeTransformer, cdamApiClient);
+    }
+
+    @Test
+    void should_record_created_case_in_case_reference_index() {
+        // given
+        long newCaseId = 1234L;
+        given(ccdApi.createCase(any(), any(), any(), any(), any())).willReturn(newCaseId);
+        given(envelopeTransformer.transformEnvelope(any())).willReturn(right(sampleSuccessfulTransformationResponse()));
+
+        Envelope envelope = envelope(1);
+
+        // when
+        autoCaseCreator.createCase(envelope);
+
+        // then
+        verify(caseReferenceIndex).record(ENVELOPE_ID, envelope.id, envelope.container, newCaseId);
+    }
+
     @Test
     void should_not_create_case_when_transformation_fails() {
         verifyCaseIsNotCreatedWhenTransformationFails(
@@ -155,7 +286,7 @@ class AutoCaseCreatorTest {
         // given
         var transformationResponse = sampleSuccessfulTransformationResponse();
         given(envelopeTransformer.transformEnvelope(any())).willReturn(right(transformationResponse));
-        given(cdamApiClient.getDocumentHash("BULKSCAN", "uuid1")).willReturn("hash");
+        given(cdamApiClient.getDocumentHashes("BULKSCAN", List.of("uuid1"))).willReturn(Map.of("uuid1", "hash"));
 
         Envelope envelope = envelope(1);
 
@@ -211,7 +342,7 @@ class AutoCaseCreatorTest {
         CaseCreationResult expectedResult
     ) {
         // given
-        given(ccdApi.getCaseRefsByEnvelopeId(any(), any())).willReturn(existingCaseIds);
+        given(envelopeIdLookup.getCaseRefsByEnvelopeId(any(), any())).willReturn(existingCaseIds);
 
         Envelope envelope = envelope(1);
 
@@ -221,7 +352,7 @@ class AutoCaseCreatorTest {
         // then
         assertThat(result).usingRecursiveComparison().isEqualTo(expectedResult);
 
-        verify(ccdApi).getCaseRefsByEnvelopeId(envelope.id, envelope.container);
+        verify(envelopeIdLookup).getCaseRefsByEnvelopeId(envelope.id, envelope.container);
         verify(ccdApi, never()).createCase(any(), any(), any(), any(), any());
     }
 
@@ -253,7 +384,7 @@ class AutoCaseCreatorTest {
 
         given(envelopeTransformer.transformEnvelope(any()))
             .willReturn(right(sampleSuccessfulTransformationResponse()));
-        given(cdamApiClient.getDocumentHash("BULKSCAN", "uuid1")).willReturn("hash");
+        given(cdamApiClient.getDocumentHashes("BULKSCAN", List.of("uuid1"))).willReturn(Map.of("uuid1", "hash"));
 
         // when
         var result = autoCaseCreator.createCase(envelope(1));
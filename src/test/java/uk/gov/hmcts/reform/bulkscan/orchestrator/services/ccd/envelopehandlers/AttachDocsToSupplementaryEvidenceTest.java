@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.common.collect.ImmutableMap;
+import feign.FeignException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +23,7 @@ import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import static java.util.Arrays.asList;
@@ -37,6 +39,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.AUTH_DETAILS;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.fileContentAsBytes;
 
 @ExtendWith(MockitoExtension.class)
@@ -206,4 +209,109 @@ class AttachDocsToSupplementaryEvidenceTest {
         // then
         verify(ccdApi, never()).attachScannedDocs(any(), any(), any(), any(), any(), any(), any());
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void should_attach_documents_to_case_by_its_id_using_case_from_started_event() {
+        // given
+        given(ccdApi.authenticateJurisdiction(any())).willReturn(AUTH_DETAILS);
+
+        Envelope envelope = SampleData.envelope(2);
+        var supplementaryEvidence = mock(SupplementaryEvidence.class);
+        given(mapper.getDocsToAdd(any(), any())).willReturn(envelope.documents);
+        given(mapper.map(any(), any(), any(), any())).willReturn(supplementaryEvidence);
+
+        CaseDetails startedCase = CaseDetails.builder()
+            .id(1539007368674134L)
+            .jurisdiction(JURSIDICTION)
+            .data(new HashMap<>())
+            .build();
+        StartEventResponse startEventResponse = StartEventResponse.builder()
+            .caseDetails(startedCase)
+            .token("token123")
+            .build();
+        given(ccdApi.attachScannedDocsByCaseId(any(), any(), any(), any(), any(), anyString()))
+            .willReturn(startedCase);
+
+        // when
+        Optional<Long> caseId = attacher.attachToCaseById(envelope);
+
+        // then
+        assertThat(caseId).contains(1539007368674134L);
+
+        var caseDataBuilderCaptor = ArgumentCaptor.forClass(Function.class);
+        verify(ccdApi).attachScannedDocsByCaseId(
+            eq(AUTH_DETAILS),
+            eq(envelope.jurisdiction),
+            eq(envelope.caseRef),
+            eq(EVENT_TYPE_ID),
+            caseDataBuilderCaptor.capture(),
+            anyString()
+        );
+
+        var caseDataContent = (Optional<CaseDataContent>) caseDataBuilderCaptor.getValue().apply(startEventResponse);
+        assertThat(caseDataContent).hasValueSatisfying(content -> {
+            assertThat(content.getEventToken()).isEqualTo("token123");
+            assertThat(content.getData()).isSameAs(supplementaryEvidence);
+        });
+        verify(mapper).getDocsToAdd(emptyList(), envelope.documents);
+        verify(mapper).map(emptyList(), null, envelope, envelope.documents);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void should_not_submit_event_when_case_by_its_id_already_has_all_documents() {
+        // given
+        given(ccdApi.authenticateJurisdiction(any())).willReturn(AUTH_DETAILS);
+        given(mapper.getDocsToAdd(any(), any())).willReturn(emptyList()); // no new docs
+
+        CaseDetails startedCase = CaseDetails.builder()
+            .id(1539007368674134L)
+            .jurisdiction(JURSIDICTION)
+            .data(new HashMap<>())
+            .build();
+        given(ccdApi.attachScannedDocsByCaseId(any(), any(), any(), any(), any(), anyString()))
+            .willReturn(startedCase);
+
+        // when
+        Optional<Long> caseId = attacher.attachToCaseById(SampleData.envelope(2));
+
+        // then
+        assertThat(caseId).contains(1539007368674134L);
+
+        var caseDataBuilderCaptor = ArgumentCaptor.forClass(Function.class);
+        verify(ccdApi).attachScannedDocsByCaseId(any(), any(), any(), any(), caseDataBuilderCaptor.capture(), any());
+
+        var startEventResponse = StartEventResponse.builder().caseDetails(startedCase).build();
+        assertThat((Optional<CaseDataContent>) caseDataBuilderCaptor.getValue().apply(startEventResponse)).isEmpty();
+        verify(mapper, never()).map(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_return_empty_when_documents_cannot_be_attached_to_case_by_its_id() {
+        // given
+        given(ccdApi.authenticateJurisdiction(any())).willReturn(AUTH_DETAILS);
+        given(ccdApi.attachScannedDocsByCaseId(any(), any(), any(), any(), any(), anyString()))
+            .willThrow(new UnableToAttachDocumentsException("Event failed"));
+
+        // when
+        Optional<Long> caseId = attacher.attachToCaseById(SampleData.envelope(2));
+
+        // then
+        assertThat(caseId).isEmpty();
+    }
+
+    @Test
+    void should_return_empty_when_ccd_rejects_case_ref_as_invalid_case_id() {
+        // given
+        given(ccdApi.authenticateJurisdiction(any())).willReturn(AUTH_DETAILS);
+        given(ccdApi.attachScannedDocsByCaseId(any(), any(), any(), any(), any(), anyString()))
+            .willThrow(new UnableToAttachDocumentsException("Invalid case ref", mock(FeignException.BadRequest.class)));
+
+        // when
+        Optional<Long> caseId = attacher.attachToCaseById(SampleData.envelope(2));
+
+        // then
+        assertThat(caseId).isEmpty();
+    }
 }
@@ -6,26 +6,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ProcessingDeadlineExceededException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ExceptionRecord;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.ExceptionRecordMapper;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdApi;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticator;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.EnvelopeIdLookup;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger.EnvelopeProcessingLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.ProcessingDeadline;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import java.time.Instant;
 import java.util.UUID;
 import java.util.function.Function;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelope;
@@ -36,9 +43,15 @@ class ExceptionRecordCreatorTest {
     @Mock
     private CcdApi ccdApi;
 
+    @Mock
+    private EnvelopeIdLookup envelopeIdLookup;
+
     @Mock
     private ExceptionRecordMapper exceptionRecordMapper;
 
+    @Mock
+    private EnvelopeProcessingLedger processingLedger;
+
     private static final Long CASE_DETAILS_ID = 234L;
 
     private static final String EVENT_TOKEN = UUID.randomUUID().toString();
@@ -49,14 +62,16 @@ class ExceptionRecordCreatorTest {
     void setUp() {
         exceptionRecordCreator = new CreateExceptionRecord(
             exceptionRecordMapper,
-            ccdApi
+            ccdApi,
+            envelopeIdLookup,
+            processingLedger
         );
     }
 
     @Test
     void should_create_exception_record_when_none_exists_for_the_envelope() {
         // given
-        given(ccdApi.getExceptionRecordRefsByEnvelopeId(any(), any())).willReturn(emptyList());
+        given(envelopeIdLookup.getExceptionRecordRefsByEnvelopeId(any(), any())).willReturn(emptyList());
         Envelope envelope = envelope(1);
         ExceptionRecord expectedExceptionRecord = mock(ExceptionRecord.class);
         given(exceptionRecordMapper.mapEnvelope(envelope)).willReturn(expectedExceptionRecord);
@@ -78,15 +93,36 @@ class ExceptionRecordCreatorTest {
         assertThat(ccdRef).isSameAs(CASE_DETAILS_ID);
         assertExceptionRecordCreated(expectedExceptionRecord, envelope, startEventResponse);
 
-        verify(ccdApi).getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
+        verify(envelopeIdLookup).getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
         verify(exceptionRecordMapper).mapEnvelope(envelope);
     }
 
+    @Test
+    void should_not_search_for_exception_records_when_ledger_shows_no_earlier_ccd_write() {
+        // given
+        Envelope envelope = envelope(1);
+        given(processingLedger.canSkipCcdSearch(envelope.id)).willReturn(true);
+        given(ccdApi.authenticateJurisdiction(envelope.jurisdiction)).willReturn(mock(CcdAuthenticator.class));
+
+        var caseDetails = mock(CaseDetails.class);
+        given(ccdApi.createExceptionRecord(any(), anyString(), anyString(), anyString(), any(), anyString()))
+            .willReturn(caseDetails);
+        given(caseDetails.getId()).willReturn(CASE_DETAILS_ID);
+
+        // when
+        Long ccdRef = exceptionRecordCreator.tryCreateFrom(envelope);
+
+        // then
+        assertThat(ccdRef).isSameAs(CASE_DETAILS_ID);
+        verify(envelopeIdLookup, never()).getExceptionRecordRefsByEnvelopeId(any(), any());
+        verify(processingLedger).recordCcdWriteStarted(envelope.id);
+    }
+
     @Test
     void should_not_create_exception_record_when_one_exists_for_the_envelope() {
         // given
         Long existingExceptionRecordId = 234L;
-        given(ccdApi.getExceptionRecordRefsByEnvelopeId(any(), any()))
+        given(envelopeIdLookup.getExceptionRecordRefsByEnvelopeId(any(), any()))
             .willReturn(newArrayList(existingExceptionRecordId));
 
         Envelope envelope = envelope(1);
@@ -97,7 +133,26 @@ class ExceptionRecordCreatorTest {
         // then
         assertThat(ccdRef).isSameAs(existingExceptionRecordId);
 
-        verify(ccdApi).getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
+        verify(envelopeIdLookup).getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
+        verifyNoMoreInteractions(ccdApi);
+        verifyNoMoreInteractions(exceptionRecordMapper);
+    }
+
+    @Test
+    void should_not_create_exception_record_when_processing_deadline_has_passed() {
+        // given
+        given(envelopeIdLookup.getExceptionRecordRefsByEnvelopeId(any(), any())).willReturn(emptyList());
+        Envelope envelope = envelope(1);
+
+        // when
+        assertThatThrownBy(() -> ProcessingDeadline.runWithin(
+            Instant.now().minusSeconds(1),
+            () -> exceptionRecordCreator.tryCreateFrom(envelope)
+        ))
+            .isInstanceOf(ProcessingDeadlineExceededException.class);
+
+        // then
+        verify(envelopeIdLookup).getExceptionRecordRefsByEnvelopeId(envelope.id, envelope.container);
         verifyNoMoreInteractions(ccdApi);
         verifyNoMoreInteractions(exceptionRecordMapper);
     }
@@ -10,11 +10,15 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseFinder;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.CASE_ID;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.CASE_REF;
@@ -43,7 +47,8 @@ class SupplementaryEvidenceHandlerTest {
             caseFinder,
             evidenceAttacher,
             exceptionRecordCreator,
-            paymentsService
+            paymentsService,
+            false
         );
     }
 
@@ -65,6 +70,7 @@ class SupplementaryEvidenceHandlerTest {
 
         verify(evidenceAttacher).attach(envelope, caseDetails);
         verify(paymentsService).createNewPayment(envelope, caseDetails.getId(), false);
+        verify(caseFinder).recordEnvelopeAttachedTo(envelope, ccdId);
     }
 
     @Test
@@ -105,6 +111,122 @@ class SupplementaryEvidenceHandlerTest {
         verify(paymentsService).createNewPayment(envelope, CASE_ID, true);
     }
 
+    @Test
+    void should_attach_documents_to_case_by_its_id_without_finding_the_case_when_enabled() {
+        // given
+        handler = new SupplementaryEvidenceHandler(
+            caseFinder,
+            evidenceAttacher,
+            exceptionRecordCreator,
+            paymentsService,
+            true
+        );
+        Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1539007368674134");
+        given(evidenceAttacher.attachToCaseById(envelope)).willReturn(Optional.of(1539007368674134L));
+
+        // when
+        var result = handler.handle(envelope);
+
+        // then
+        assertThat(result.envelopeCcdAction).isEqualTo(AUTO_ATTACHED_TO_CASE);
+        assertThat(result.ccdId).isEqualTo(1539007368674134L);
+        verify(paymentsService).createNewPayment(envelope, 1539007368674134L, false);
+        verify(caseFinder).recordEnvelopeAttachedTo(envelope, 1539007368674134L);
+        verify(caseFinder, never()).findCase(any());
+    }
+
+    @Test
+    void should_find_case_when_attaching_documents_to_case_by_its_id_fails() {
+        // given
+        handler = new SupplementaryEvidenceHandler(
+            caseFinder,
+            evidenceAttacher,
+            exceptionRecordCreator,
+            paymentsService,
+            true
+        );
+        Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1539007368674134");
+        given(evidenceAttacher.attachToCaseById(envelope)).willReturn(Optional.empty());
+        given(caseFinder.findCase(envelope)).willReturn(Optional.empty());
+        given(exceptionRecordCreator.tryCreateFrom(envelope)).willReturn(CASE_ID);
+
+        // when
+        var result = handler.handle(envelope);
+
+        // then
+        assertThat(result.envelopeCcdAction).isEqualTo(EXCEPTION_RECORD);
+        assertThat(result.ccdId).isEqualTo(CASE_ID);
+        verify(paymentsService).createNewPayment(envelope, CASE_ID, true);
+    }
+
+    @Test
+    void should_attach_documents_from_all_envelopes_to_case_together() {
+        // given
+        Envelope envelope1 = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, String.valueOf(CASE_ID));
+        Envelope envelope2 = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, String.valueOf(CASE_ID));
+        given(caseFinder.findCase(envelope1)).willReturn(Optional.of(caseDetails));
+        given(evidenceAttacher.attach(List.of(envelope1, envelope2), caseDetails)).willReturn(true);
+        given(caseDetails.getId()).willReturn(CASE_ID);
+
+        // when
+        var results = handler.handle(List.of(envelope1, envelope2));
+
+        // then
+        assertThat(results).hasSize(2).allSatisfy(result -> {
+            assertThat(result.envelopeCcdAction).isEqualTo(AUTO_ATTACHED_TO_CASE);
+            assertThat(result.ccdId).isEqualTo(CASE_ID);
+        });
+        verify(paymentsService).createNewPayment(envelope1, CASE_ID, false);
+        verify(paymentsService).createNewPayment(envelope2, CASE_ID, false);
+        verify(caseFinder).recordEnvelopeAttachedTo(envelope1, CASE_ID);
+        verify(caseFinder).recordEnvelopeAttachedTo(envelope2, CASE_ID);
+        verify(evidenceAttacher, never()).attach(any(Envelope.class), any());
+    }
+
+    @Test
+    void should_handle_envelopes_one_by_one_when_attaching_them_together_fails() {
+        // given
+        Envelope envelope1 = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, String.valueOf(CASE_ID));
+        Envelope envelope2 = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, String.valueOf(CASE_ID));
+        given(caseFinder.findCase(any())).willReturn(Optional.of(caseDetails));
+        given(evidenceAttacher.attach(List.of(envelope1, envelope2), caseDetails)).willReturn(false);
+        given(evidenceAttacher.attach(envelope1, caseDetails)).willReturn(true);
+        given(evidenceAttacher.attach(envelope2, caseDetails)).willReturn(false);
+        given(caseDetails.getId()).willReturn(CASE_ID);
+        Long erId = 9876L;
+        given(exceptionRecordCreator.tryCreateFrom(envelope2)).willReturn(erId);
+
+        // when
+        var results = handler.handle(List.of(envelope1, envelope2));
+
+        // then
+        assertThat(results.get(0).envelopeCcdAction).isEqualTo(AUTO_ATTACHED_TO_CASE);
+        assertThat(results.get(1).envelopeCcdAction).isEqualTo(EXCEPTION_RECORD);
+        assertThat(results.get(1).ccdId).isEqualTo(erId);
+        verify(paymentsService).createNewPayment(envelope1, CASE_ID, false);
+        verify(paymentsService).createNewPayment(envelope2, erId, true);
+    }
+
+    @Test
+    void should_handle_envelopes_one_by_one_when_case_found_is_not_the_one_with_their_case_id() {
+        // given
+        Envelope envelope1 = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234");
+        Envelope envelope2 = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234");
+        // case found by legacy case ref, which may differ between the envelopes
+        given(caseFinder.findCase(any())).willReturn(Optional.of(caseDetails));
+        given(caseDetails.getId()).willReturn(CASE_ID);
+        given(evidenceAttacher.attach(any(Envelope.class), any())).willReturn(true);
+
+        // when
+        var results = handler.handle(List.of(envelope1, envelope2));
+
+        // then
+        assertThat(results).hasSize(2);
+        verify(evidenceAttacher, never()).attach(anyList(), any());
+        verify(evidenceAttacher).attach(envelope1, caseDetails);
+        verify(evidenceAttacher).attach(envelope2, caseDetails);
+    }
+
     @Test
     void should_throw_an_exception_if_envelope_classification_is_not_correct() {
         // given
@@ -0,0 +1,130 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ConcurrencyLimitExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = Duration.ofSeconds(3).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+        "ccd",
+        4,
+        2,
+        6,
+        Duration.ofSeconds(2),
+        0.5,
+        Duration.ofMillis(50)
+    );
+
+    @Test
+    void should_reject_call_when_limit_is_reached() {
+        // given
+        acquire(4);
+
+        // when
+        assertThatThrownBy(limiter::acquire)
+            .isInstanceOf(ConcurrencyLimitExceededException.class)
+            .hasMessage("Concurrency limit of 4 calls to ccd reached, no permit within 50 ms");
+
+        // then
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void should_let_waiting_call_through_when_permit_is_released() throws Exception {
+        // given
+        var slowLimiter = new AdaptiveConcurrencyLimiter(
+            "ccd", 2, 2, 2, Duration.ofSeconds(2), 0.5, Duration.ofSeconds(5)
+        );
+        slowLimiter.acquire();
+        slowLimiter.acquire();
+
+        // when
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(slowLimiter::acquire);
+        slowLimiter.release(FAST, false);
+
+        // then
+        waiting.get(5, TimeUnit.SECONDS);
+        assertThat(slowLimiter.getInFlight()).isEqualTo(2);
+        assertThat(slowLimiter.getRejected()).isZero();
+    }
+
+    @Test
+    void should_shrink_limit_when_call_is_slow() {
+        // given
+        acquire(1);
+
+        // when
+        limiter.release(SLOW, false);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void should_shrink_limit_when_downstream_is_overloaded() {
+        // given
+        acquire(1);
+
+        // when
+        limiter.release(FAST, true);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void should_not_shrink_limit_below_minimum() {
+        // when
+        for (int i = 0; i < 5; i++) {
+            acquire(1);
+            limiter.release(FAST, true);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void should_grow_limit_when_it_is_reached_by_fast_calls() {
+        // when
+        for (int round = 0; round < 10; round++) {
+            int limit = limiter.getLimit();
+            acquire(limit);
+            for (int i = 0; i < limit; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    void should_not_grow_limit_when_it_is_not_reached() {
+        // when
+        for (int i = 0; i < 100; i++) {
+            acquire(1);
+            limiter.release(FAST, false);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    private void acquire(int permits) {
+        for (int i = 0; i < permits; i++) {
+            limiter.acquire();
+        }
+    }
+}
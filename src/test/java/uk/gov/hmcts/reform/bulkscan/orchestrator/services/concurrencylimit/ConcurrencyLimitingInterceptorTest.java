@@ -0,0 +1,135 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.concurrencylimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ConcurrencyLimitExceededException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingInterceptorTest {
+
+    private static final URI TRANSFORMATION_URI = URI.create("http://service-a:8080/transform");
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void should_keep_limit_when_downstream_responds_with_client_error() throws Exception {
+        // given
+        var limiters = limiters(true);
+        given(execution.execute(any(), any()))
+            .willReturn(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND));
+
+        // when
+        ClientHttpResponse response = intercept(limiters);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(limitGauge()).isEqualTo(4);
+        assertThat(meterRegistry.get("downstream.concurrency.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void should_shrink_limit_when_downstream_responds_with_server_error() throws Exception {
+        // given
+        var limiters = limiters(true);
+        given(execution.execute(any(), any()))
+            .willReturn(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE));
+
+        // when
+        intercept(limiters);
+
+        // then
+        assertThat(limitGauge()).isEqualTo(2);
+    }
+
+    @Test
+    void should_shrink_limit_when_call_fails() throws Exception {
+        // given
+        var limiters = limiters(true);
+        given(execution.execute(any(), any())).willThrow(new IOException("Read timed out"));
+
+        // when
+        assertThatThrownBy(() -> intercept(limiters)).isInstanceOf(IOException.class);
+
+        // then
+        assertThat(limitGauge()).isEqualTo(2);
+    }
+
+    @Test
+    void should_reject_call_and_count_rejection_when_limit_is_reached() {
+        // given
+        var limiters = limiters(true);
+        AdaptiveConcurrencyLimiter limiter = limiters.forUri(TRANSFORMATION_URI);
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+
+        // when
+        assertThatThrownBy(() -> intercept(limiters)).isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        // then
+        verifyNoInteractions(execution);
+        assertThat(
+            meterRegistry.get("downstream.concurrency.rejected").tag("downstream", "service-a:8080")
+                .functionCounter()
+                .count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void should_pass_call_through_when_limits_are_disabled() throws Exception {
+        // given
+        var limiters = limiters(false);
+        given(execution.execute(any(), any()))
+            .willReturn(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE));
+
+        // when
+        intercept(limiters);
+
+        // then
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private ClientHttpResponse intercept(DownstreamConcurrencyLimiters limiters) throws IOException {
+        return new ConcurrencyLimitingInterceptor(limiters)
+            .intercept(new MockClientHttpRequest(HttpMethod.POST, TRANSFORMATION_URI), new byte[0], execution);
+    }
+
+    private double limitGauge() {
+        return meterRegistry.get("downstream.concurrency.limit").tag("downstream", "service-a:8080").gauge().value();
+    }
+
+    private DownstreamConcurrencyLimiters limiters(boolean enabled) {
+        return new DownstreamConcurrencyLimiters(
+            enabled,
+            4,
+            2,
+            10,
+            Duration.ofSeconds(2),
+            0.5,
+            Duration.ofMillis(50),
+            meterRegistry
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class S2sTokenHolderTest {
+
+    @Mock
+    private AuthTokenGenerator tokenGenerator;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        refresher.shutdownNow();
+    }
+
+    @Test
+    void should_share_token_until_it_is_refreshed() {
+        // given
+        String token = jwt(Instant.now().plus(Duration.ofHours(1)));
+        given(tokenGenerator.generate()).willReturn(token);
+
+        var tokenHolder = new S2sTokenHolder(tokenGenerator, Duration.ofMinutes(5), meterRegistry, refresher);
+
+        // when
+        String token1 = tokenHolder.generate();
+        String token2 = tokenHolder.generate();
+
+        // then
+        assertThat(token1).isEqualTo(token);
+        assertThat(token2).isEqualTo(token);
+        verify(tokenGenerator).generate();
+        assertThat(meterRegistry.get("s2s.token.refresh").tag("result", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_rotate_token_in_background_before_it_expires() {
+        // given
+        String expiringToken = jwt(Instant.now().plus(Duration.ofSeconds(3)));
+        String newToken = jwt(Instant.now().plus(Duration.ofHours(1)));
+        given(tokenGenerator.generate()).willReturn(expiringToken, newToken);
+
+        var tokenHolder = new S2sTokenHolder(tokenGenerator, Duration.ofSeconds(2), meterRegistry, refresher);
+
+        // when
+        tokenHolder.start();
+
+        // then
+        await()
+            .atMost(2500, TimeUnit.MILLISECONDS)
+            .until(tokenHolder::generate, newToken::equals);
+        verify(tokenGenerator, times(2)).generate();
+    }
+
+    @Test
+    void should_keep_using_current_token_when_refresh_fails() {
+        // given
+        String token = jwt(Instant.now().plus(Duration.ofSeconds(4)));
+        given(tokenGenerator.generate())
+            .willReturn(token)
+            .willThrow(new IllegalStateException("S2S unavailable"));
+
+        var tokenHolder = new S2sTokenHolder(tokenGenerator, Duration.ofSeconds(3), meterRegistry, refresher);
+        tokenHolder.start();
+
+        // when
+        await()
+            .atMost(5, TimeUnit.SECONDS)
+            .until(() -> meterRegistry.get("s2s.token.refresh").tag("result", "failure").timer().count() == 1);
+
+        // then
+        assertThat(tokenHolder.generate()).isEqualTo(token);
+    }
+
+    @Test
+    void should_fetch_token_once_for_concurrent_callers_on_virtual_threads() throws Exception {
+        // given
+        String token = jwt(Instant.now().plus(Duration.ofHours(1)));
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch fetchFinished = new CountDownLatch(1);
+        given(tokenGenerator.generate()).willAnswer(invocation -> {
+            fetchStarted.countDown();
+            fetchFinished.await();
+            return token;
+        });
+
+        var tokenHolder = new S2sTokenHolder(tokenGenerator, Duration.ofMinutes(5), meterRegistry, refresher);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // when
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                tokens.add(executor.submit(tokenHolder::generate));
+            }
+            fetchStarted.await();
+            fetchFinished.countDown();
+
+            // then
+            for (Future<String> callerToken : tokens) {
+                assertThat(callerToken.get(5, TimeUnit.SECONDS)).isEqualTo(token);
+            }
+        }
+        verify(tokenGenerator).generate();
+    }
+
+    private static String jwt(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return "Bearer "
+            + encoder.encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8))
+            + "."
+            + encoder.encodeToString(
+                ("{\"sub\":\"bulk_scan_orchestrator\",\"exp\":" + expiry.getEpochSecond() + "}")
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+            + ".signature";
+    }
+}
@@ -1,5 +1,7 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.cache;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +14,13 @@ import uk.gov.hmcts.reform.idam.client.models.TokenResponse;
 import uk.gov.hmcts.reform.idam.client.models.UserInfo;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
@@ -29,6 +35,9 @@ class IdamCachedClientTest {
     @Mock
     private JurisdictionToUserMapping users;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
     private IdamCachedClient idamCachedClient;
 
     private long refreshTokenBeforeExpiry = 2879;
@@ -76,10 +85,18 @@ class IdamCachedClientTest {
         this.idamCachedClient = new IdamCachedClient(
             idamApi,
             users,
-            new IdamCacheExpiry(refreshTokenBeforeExpiry)
+            new IdamCacheExpiry(refreshTokenBeforeExpiry),
+            0,
+            meterRegistry,
+            executor
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
     @Test
     void should_get_credentials_when_no_error() {
         String jurisdiction = "divorce";
@@ -158,7 +175,10 @@ class IdamCachedClientTest {
         IdamCachedClient idamCachedClientQuickExpiry = new IdamCachedClient(
             idamApi,
             users,
-            new IdamCacheExpiry(28798)
+            new IdamCacheExpiry(28798),
+            0,
+            meterRegistry,
+            executor
         );
 
         String jurisdiction = "probate";
@@ -205,7 +225,7 @@ class IdamCachedClientTest {
 
         CachedIdamCredential cachedIdamCredential1 = idamCachedClient.getIdamCredentials(jurisdiction);
 
-        idamCachedClient.removeAccessTokenFromCache(jurisdiction);
+        idamCachedClient.removeAccessTokenFromCache(jurisdiction, cachedIdamCredential1.accessToken);
 
         CachedIdamCredential cachedIdamCredential2 = idamCachedClient.getIdamCredentials(jurisdiction);
 
@@ -218,4 +238,90 @@ class IdamCachedClientTest {
         verify(idamApi, times(2)).getAccessTokenResponse(any(), any());
         verify(idamApi, times(2)).getUserInfo(any());
     }
+
+    @Test
+    void should_rethrow_idam_failure_and_not_cache_it() {
+        String jurisdiction = "divorce";
+
+        given(users.getUser(jurisdiction)).willReturn(new Credential(USERNAME, PASSWORD));
+        given(idamApi.getAccessTokenResponse(USERNAME, PASSWORD))
+            .willThrow(new IllegalStateException("IDAM unavailable"))
+            .willReturn(TOKEN_RESPONSE_1);
+        given(idamApi.getUserInfo(JWT_WITH_BEARER_1)).willReturn(USER_INFO);
+
+        assertThatThrownBy(() -> idamCachedClient.getIdamCredentials(jurisdiction))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("IDAM unavailable");
+
+        CachedIdamCredential cachedIdamCredential = idamCachedClient.getIdamCredentials(jurisdiction);
+
+        assertThat(cachedIdamCredential.accessToken).isEqualTo(JWT_WITH_BEARER_1);
+        verify(idamApi, times(2)).getAccessTokenResponse(any(), any());
+    }
+
+    @Test
+    void should_keep_credential_which_replaced_removed_one() {
+        String jurisdiction = "probate";
+
+        given(users.getUser(jurisdiction)).willReturn(new Credential(USERNAME, PASSWORD));
+        given(idamApi.getAccessTokenResponse(USERNAME, PASSWORD)).willReturn(TOKEN_RESPONSE_1, TOKEN_RESPONSE_2);
+        given(idamApi.getUserInfo(JWT_WITH_BEARER_1)).willReturn(USER_INFO);
+        given(idamApi.getUserInfo(JWT_WITH_BEARER_2)).willReturn(USER_INFO);
+
+        CachedIdamCredential rejectedCredential = idamCachedClient.getIdamCredentials(jurisdiction);
+        idamCachedClient.removeAccessTokenFromCache(jurisdiction, rejectedCredential.accessToken);
+        CachedIdamCredential newCredential = idamCachedClient.getIdamCredentials(jurisdiction);
+
+        // another caller rejected with the same token at the same time
+        idamCachedClient.removeAccessTokenFromCache(jurisdiction, rejectedCredential.accessToken);
+
+        assertThat(idamCachedClient.getIdamCredentials(jurisdiction)).isSameAs(newCredential);
+        verify(idamApi, times(2)).getAccessTokenResponse(any(), any());
+    }
+
+    @Test
+    void should_refresh_credential_ahead_of_expiry_without_blocking_callers() {
+        // credential cached for 10 seconds, refreshed after 1 second
+        SimpleMeterRegistry refreshMeterRegistry = new SimpleMeterRegistry();
+        IdamCachedClient idamCachedClientRefreshingAhead = new IdamCachedClient(
+            idamApi,
+            users,
+            new IdamCacheExpiry(28790),
+            9,
+            refreshMeterRegistry,
+            executor
+        );
+
+        String jurisdiction = "probate";
+
+        // refreshed credential is cached for less than refresh ahead time, so it is not refreshed again
+        TokenResponse refreshedTokenResponse = new TokenResponse(
+            JWT_2,
+            "28795",
+            "ID_TOKEN_xxxx_123",
+            "REFRESH_TOKEN_xyxyx123",
+            "openid profile roles",
+            "Bearer"
+        );
+        given(users.getUser(jurisdiction)).willReturn(new Credential(USERNAME, PASSWORD));
+        given(idamApi.getAccessTokenResponse(USERNAME, PASSWORD)).willReturn(TOKEN_RESPONSE_1, refreshedTokenResponse);
+        given(idamApi.getUserInfo(JWT_WITH_BEARER_1)).willReturn(USER_INFO);
+        given(idamApi.getUserInfo(JWT_WITH_BEARER_2)).willReturn(USER_INFO);
+
+        CachedIdamCredential cachedIdamCredential1 = idamCachedClientRefreshingAhead.getIdamCredentials(jurisdiction);
+
+        await()
+            .atMost(5, TimeUnit.SECONDS)
+            .until(
+                () -> idamCachedClientRefreshingAhead.getIdamCredentials(jurisdiction).accessToken,
+                JWT_WITH_BEARER_2::equals
+            );
+
+        assertThat(cachedIdamCredential1.accessToken).isEqualTo(JWT_WITH_BEARER_1);
+        assertThat(refreshMeterRegistry.get("idam.credentials.refresh").tag("result", "success").timer().count())
+            .isEqualTo(1);
+        assertThat(refreshMeterRegistry.get("cache.gets").tag("cache", "idam-credentials").tag("result", "miss")
+            .functionCounter().count()).isEqualTo(1);
+        verify(idamApi, times(2)).getAccessTokenResponse(any(), any());
+    }
 }
@@ -0,0 +1,157 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.processingledger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.config.ObjectMapperConfiguration;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.EnvelopeProcessingLedgerRepository;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CASE_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.CCD_WRITE_STARTED;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.processingledger.ProcessingStep.DOCUMENT_HASHES;
+
+@ExtendWith(MockitoExtension.class)
+class EnvelopeProcessingLedgerTest {
+
+    private static final String ENVELOPE_ID = "envelope-id";
+
+    private final ObjectMapper objectMapper = new ObjectMapperConfiguration().objectMapper();
+
+    @Mock
+    private EnvelopeProcessingLedgerRepository repository;
+
+    @Test
+    void should_read_recorded_case_id() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+
+        ledger.record(ENVELOPE_ID, CASE_ID, 1234L);
+
+        var jsonCaptor = ArgumentCaptor.forClass(String.class);
+        verify(repository).upsert(any(), any(), jsonCaptor.capture());
+        given(repository.findOutput(ENVELOPE_ID, CASE_ID)).willReturn(Optional.of(jsonCaptor.getValue()));
+
+        // when
+        var result = ledger.find(ENVELOPE_ID, CASE_ID, Long.class);
+
+        // then
+        assertThat(result).contains(1234L);
+    }
+
+    @Test
+    void should_read_recorded_document_hashes() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+        given(repository.findOutput(ENVELOPE_ID, DOCUMENT_HASHES)).willReturn(Optional.of("{\"uuid1\":\"hash1\"}"));
+
+        // when
+        var result = ledger.find(ENVELOPE_ID, DOCUMENT_HASHES, new TypeReference<Map<String, String>>() {});
+
+        // then
+        assertThat(result).contains(Map.of("uuid1", "hash1"));
+    }
+
+    @Test
+    void should_not_fail_when_ledger_is_unavailable() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+        var exception = new DataAccessResourceFailureException("test");
+        given(repository.findOutput(ENVELOPE_ID, CASE_ID)).willThrow(exception);
+        willThrow(exception).given(repository).upsert(any(), any(), any());
+
+        // when
+        ledger.record(ENVELOPE_ID, CASE_ID, 123L);
+        var result = ledger.find(ENVELOPE_ID, CASE_ID, Long.class);
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void should_not_use_repository_when_disabled() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, false, true);
+
+        // when
+        ledger.record(ENVELOPE_ID, CASE_ID, 123L);
+        var result = ledger.find(ENVELOPE_ID, CASE_ID, Long.class);
+
+        // then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void should_allow_skipping_ccd_search_when_no_ccd_write_is_recorded() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+        given(repository.findOutput(ENVELOPE_ID, CCD_WRITE_STARTED)).willReturn(Optional.empty());
+
+        // when
+        // then
+        assertThat(ledger.canSkipCcdSearch(ENVELOPE_ID)).isTrue();
+    }
+
+    @Test
+    void should_not_allow_skipping_ccd_search_when_ccd_write_is_recorded() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+        given(repository.findOutput(ENVELOPE_ID, CCD_WRITE_STARTED))
+            .willReturn(Optional.of("\"2024-01-01T00:00:00Z\""));
+
+        // when
+        // then
+        assertThat(ledger.canSkipCcdSearch(ENVELOPE_ID)).isFalse();
+    }
+
+    @Test
+    void should_not_allow_skipping_ccd_search_when_ledger_is_unavailable() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+        given(repository.findOutput(ENVELOPE_ID, CCD_WRITE_STARTED))
+            .willThrow(new DataAccessResourceFailureException("test"));
+
+        // when
+        // then
+        assertThat(ledger.canSkipCcdSearch(ENVELOPE_ID)).isFalse();
+    }
+
+    @Test
+    void should_not_allow_skipping_ccd_search_when_fast_path_is_disabled() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, false);
+
+        // when
+        // then
+        assertThat(ledger.canSkipCcdSearch(ENVELOPE_ID)).isFalse();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void should_fail_when_ccd_write_cannot_be_recorded() {
+        // given
+        var ledger = new EnvelopeProcessingLedger(repository, objectMapper, true, true);
+        var exception = new DataAccessResourceFailureException("test");
+        willThrow(exception).given(repository).upsert(eq(ENVELOPE_ID), eq(CCD_WRITE_STARTED), any());
+
+        // when
+        // then
+        assertThatThrownBy(() -> ledger.recordCcdWriteStarted(ENVELOPE_ID)).isSameAs(exception);
+    }
+}
@@ -0,0 +1,217 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.NotificationSendingException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.BatchingProcessedEnvelopeNotifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.AUTO_ATTACHED_TO_CASE;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.EXCEPTION_RECORD;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingProcessedEnvelopeNotifierTest {
+
+    @Mock
+    private ServiceBusSenderClient queueClient;
+
+    @Mock
+    private ServiceBusMessageBatch batch;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BatchingProcessedEnvelopeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new BatchingProcessedEnvelopeNotifier(
+            queueClient,
+            new ObjectMapper(),
+            10,
+            Duration.ofMillis(200),
+            Duration.ofSeconds(5),
+            meterRegistry
+        );
+        notifier.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        notifier.stop();
+    }
+
+    @Test
+    void should_send_notification_in_a_batch() {
+        // given
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+
+        // when
+        notifier.notify("envelope-id", 123L, AUTO_ATTACHED_TO_CASE);
+
+        // then
+        var messageCaptor = ArgumentCaptor.forClass(ServiceBusMessage.class);
+        verify(batch).tryAddMessage(messageCaptor.capture());
+        verify(queueClient).sendMessages(batch);
+
+        ServiceBusMessage message = messageCaptor.getValue();
+        assertThat(message.getMessageId()).isEqualTo("envelope-id");
+        assertThat(message.getContentType()).isEqualTo("application/json");
+        assertThat(message.getBody().toString()).isEqualTo(
+            "{\"envelope_id\":\"envelope-id\",\"ccd_id\":\"123\",\"envelope_ccd_action\":\"AUTO_ATTACHED_TO_CASE\"}"
+        );
+
+        assertThat(meterRegistry.counter("processed_envelopes.notifications", "result", "sent").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void should_send_concurrent_notifications_together() throws Exception {
+        // given
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        try {
+            // when
+            List<Future<?>> futures = IntStream.range(0, 5)
+                .<Future<?>>mapToObj(i -> executor.submit(() -> notifier.notify("id" + i, (long) i, EXCEPTION_RECORD)))
+                .toList();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        verify(batch, times(5)).tryAddMessage(any());
+        verify(queueClient, atMost(5)).sendMessages(batch);
+        assertThat(meterRegistry.summary("processed_envelopes.notifications.batch_size").totalAmount())
+            .isEqualTo(5);
+    }
+
+    @Test
+    void should_start_new_batch_when_message_does_not_fit() {
+        // given
+        ServiceBusMessageBatch secondBatch = mock(ServiceBusMessageBatch.class);
+        given(queueClient.createMessageBatch()).willReturn(batch, secondBatch);
+        given(batch.tryAddMessage(any())).willReturn(false);
+        given(secondBatch.tryAddMessage(any())).willReturn(true);
+
+        // when
+        notifier.notify("envelope-id", 123L, AUTO_ATTACHED_TO_CASE);
+
+        // then
+        verify(queueClient).sendMessages(secondBatch);
+    }
+
+    @Test
+    void should_throw_exception_when_sending_batch_fails() {
+        // given
+        ServiceBusException exceptionToThrow = new ServiceBusException(
+            new IllegalStateException("test exception"),
+            ServiceBusErrorSource.UNKNOWN
+        );
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+        willThrow(exceptionToThrow).given(queueClient).sendMessages(any(ServiceBusMessageBatch.class));
+
+        // when
+        assertThatThrownBy(() -> notifier.notify("envelopeId123", 2321L, EXCEPTION_RECORD))
+            .isInstanceOf(NotificationSendingException.class)
+            .hasMessage("An error occurred when trying to send notification about successfully processed envelope")
+            .hasCause(exceptionToThrow);
+
+        // then
+        assertThat(meterRegistry.counter("processed_envelopes.notifications", "result", "failed").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void should_not_send_notification_when_caller_stops_waiting_for_it() throws Exception {
+        // given the caller gives up before the sender stops waiting for other notifications to join the batch
+        notifier.stop();
+        notifier = new BatchingProcessedEnvelopeNotifier(
+            queueClient,
+            new ObjectMapper(),
+            10,
+            Duration.ofMillis(300),
+            Duration.ofMillis(50),
+            meterRegistry
+        );
+        notifier.start();
+
+        // when
+        assertThatThrownBy(() -> notifier.notify("envelope-id", 123L, AUTO_ATTACHED_TO_CASE))
+            .isInstanceOf(NotificationSendingException.class)
+            .hasCauseInstanceOf(TimeoutException.class);
+
+        // then
+        Thread.sleep(500);
+        verifyNoInteractions(queueClient);
+    }
+
+    @Test
+    void should_fail_waiting_notifications_when_stopped() throws Exception {
+        // given
+        CountDownLatch sending = new CountDownLatch(1);
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+        willAnswer(invocation -> {
+            sending.countDown();
+            new CountDownLatch(1).await();
+            return null;
+        }).given(queueClient).sendMessages(any(ServiceBusMessageBatch.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> sent = executor.submit(() -> notifier.notify("id1", 1L, EXCEPTION_RECORD));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> waiting = executor.submit(() -> notifier.notify("id2", 2L, EXCEPTION_RECORD));
+
+            // when
+            notifier.stop();
+
+            // then callers do not wait for the send timeout
+            assertThatThrownBy(() -> sent.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(NotificationSendingException.class);
+            assertThatThrownBy(() -> waiting.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(NotificationSendingException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
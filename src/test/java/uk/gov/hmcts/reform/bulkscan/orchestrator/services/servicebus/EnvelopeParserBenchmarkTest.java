@@ -0,0 +1,117 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.azure.core.util.BinaryData;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkHelper.Result;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.EnvelopeParser;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkHelper.measure;
+
+/**
+ * Compares envelope parsing with the shared envelope reader against the previous approach
+ * of copying the message body and reading it with a plain object mapper.
+ *
+ * <p>Run with {@code RUN_BENCHMARKS=true ./gradlew test --tests '*EnvelopeParserBenchmarkTest'}.</p>
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class EnvelopeParserBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeParserBenchmarkTest.class);
+
+    private static final int DOCUMENTS = 500;
+    private static final int OCR_FIELDS = 2_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    private static final ObjectMapper plainMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
+
+    @Test
+    void should_compare_allocation_and_latency_of_envelope_parsing() throws Exception {
+        BinaryData body = BinaryData.fromBytes(largeEnvelopeJson());
+
+        Result previous = measure(
+            WARMUP_ITERATIONS,
+            MEASURED_ITERATIONS,
+            () -> plainMapper.readValue(body.toBytes(), Envelope.class),
+            EnvelopeParserBenchmarkTest::checkParsed
+        );
+        Result current = measure(
+            WARMUP_ITERATIONS,
+            MEASURED_ITERATIONS,
+            () -> EnvelopeParser.parse(body),
+            EnvelopeParserBenchmarkTest::checkParsed
+        );
+
+        log.info(
+            "Envelope of {} bytes with {} documents and {} OCR fields. "
+                + "Previous: {} us, {} KB per parse. Current: {} us, {} KB per parse",
+            body.getLength(),
+            DOCUMENTS,
+            OCR_FIELDS,
+            previous.micros(),
+            previous.kilobytes(),
+            current.micros(),
+            current.kilobytes()
+        );
+
+        assertThat(current.micros()).isPositive();
+    }
+
+    private static void checkParsed(Envelope envelope) {
+        assertThat(envelope.documents).hasSize(DOCUMENTS);
+    }
+
+    private static byte[] largeEnvelopeJson() throws Exception {
+        JSONArray documents = new JSONArray();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.put(new JSONObject()
+                .put("file_name", "document-" + i + ".pdf")
+                .put("control_number", "1000" + i)
+                .put("type", "other")
+                .put("subtype", "subtype")
+                .put("scanned_at", Instant.EPOCH.toString())
+                .put("delivery_date", Instant.EPOCH.toString())
+                .put("uuid", "uuid-" + i)
+            );
+        }
+
+        JSONArray ocrData = new JSONArray();
+        for (int i = 0; i < OCR_FIELDS; i++) {
+            ocrData.put(new JSONObject()
+                .put("metadata_field_name", "field_" + i)
+                .put("metadata_field_value", "value of OCR field number " + i + " ".repeat(40))
+            );
+        }
+
+        return new JSONObject()
+            .put("id", "envelope-id")
+            .put("case_ref", "1234567890123456")
+            .put("po_box", "12345")
+            .put("jurisdiction", "BULKSCAN")
+            .put("container", "bulkscan")
+            .put("zip_file_name", "envelope.zip")
+            .put("form_type", "PERSONAL")
+            .put("delivery_date", Instant.now().toString())
+            .put("opening_date", Instant.now().toString())
+            .put("classification", "new_application")
+            .put("documents", documents)
+            .put("ocr_data", ocrData)
+            .put("ocr_data_validation_warnings", new JSONArray())
+            .toString()
+            .getBytes();
+    }
+}
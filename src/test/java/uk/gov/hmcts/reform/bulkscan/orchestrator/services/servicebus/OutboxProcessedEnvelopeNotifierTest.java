@@ -0,0 +1,61 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.NewProcessedEnvelopeNotification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeOutboxRepository;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.NotificationSendingException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.OutboxProcessedEnvelopeNotifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.AUTO_CREATED_CASE;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxProcessedEnvelopeNotifierTest {
+
+    @Mock
+    private ProcessedEnvelopeOutboxRepository outboxRepository;
+
+    private OutboxProcessedEnvelopeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new OutboxProcessedEnvelopeNotifier(outboxRepository);
+    }
+
+    @Test
+    void should_store_notification_in_outbox() {
+        // when
+        notifier.notify("envelope-id", 123L, AUTO_CREATED_CASE);
+
+        // then
+        var captor = ArgumentCaptor.forClass(NewProcessedEnvelopeNotification.class);
+        verify(outboxRepository).insert(captor.capture());
+        assertThat(captor.getValue().envelopeId).isEqualTo("envelope-id");
+        assertThat(captor.getValue().ccdId).isEqualTo(123L);
+        assertThat(captor.getValue().envelopeCcdAction).isEqualTo(AUTO_CREATED_CASE);
+    }
+
+    @Test
+    void should_throw_exception_when_storing_notification_fails() {
+        // given
+        var exceptionToThrow = new DataAccessResourceFailureException("test exception");
+        given(outboxRepository.insert(any())).willThrow(exceptionToThrow);
+
+        // when
+        // then
+        assertThatThrownBy(() -> notifier.notify("envelope-id", 123L, AUTO_CREATED_CASE))
+            .isInstanceOf(NotificationSendingException.class)
+            .hasMessage("An error occurred when trying to store notification about successfully processed envelope")
+            .hasCause(exceptionToThrow);
+    }
+}
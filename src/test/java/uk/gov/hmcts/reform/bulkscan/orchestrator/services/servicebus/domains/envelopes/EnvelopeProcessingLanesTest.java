@@ -0,0 +1,125 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.casereferenceindex.CaseReferenceIndex;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelope;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.data.casereferenceindex.ReferenceType.LEGACY_ID;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Classification.SUPPLEMENTARY_EVIDENCE;
+
+@ExtendWith(MockitoExtension.class)
+class EnvelopeProcessingLanesTest {
+
+    @Mock
+    private CaseReferenceIndex caseReferenceIndex;
+
+    @Test
+    void should_use_case_ref_as_lane_key_when_present() {
+        var lanes = new EnvelopeProcessingLanes(1, caseReferenceIndex);
+
+        assertThat(lanes.laneKey(envelope("123", "legacy-123", SUPPLEMENTARY_EVIDENCE))).isEqualTo("123");
+        verifyNoInteractions(caseReferenceIndex);
+    }
+
+    @Test
+    void should_use_case_ref_of_legacy_case_ref_as_lane_key_when_known() {
+        // given
+        var lanes = new EnvelopeProcessingLanes(1, caseReferenceIndex);
+        Envelope envelope = envelope(null, "legacy-123", SUPPLEMENTARY_EVIDENCE);
+        given(caseReferenceIndex.findCaseIds(LEGACY_ID, "legacy-123", envelope.container)).willReturn(List.of(123L));
+
+        // when
+        String laneKey = lanes.laneKey(envelope);
+
+        // then
+        assertThat(laneKey).isEqualTo(lanes.laneKey(envelope("123", null, SUPPLEMENTARY_EVIDENCE)));
+    }
+
+    @Test
+    void should_use_legacy_case_ref_as_lane_key_when_its_case_ref_is_not_known() {
+        var lanes = new EnvelopeProcessingLanes(1, caseReferenceIndex);
+
+        assertThat(lanes.laneKey(envelope(null, "legacy-123", SUPPLEMENTARY_EVIDENCE))).isEqualTo("legacy-123");
+    }
+
+    @Test
+    void should_use_legacy_case_ref_as_lane_key_when_case_ref_is_not_a_ccd_id() {
+        var lanes = new EnvelopeProcessingLanes(1, caseReferenceIndex);
+
+        assertThat(lanes.laneKey(envelope("ref-123", "legacy-123", SUPPLEMENTARY_EVIDENCE)))
+            .isEqualTo("legacy-123");
+    }
+
+    @Test
+    void should_use_envelope_id_as_lane_key_when_no_case_is_referenced() {
+        var lanes = new EnvelopeProcessingLanes(1, caseReferenceIndex);
+        Envelope envelope = envelope(null, null, SUPPLEMENTARY_EVIDENCE);
+
+        assertThat(lanes.laneKey(envelope)).isEqualTo(envelope.id);
+    }
+
+    @Test
+    void should_not_process_envelopes_for_the_same_case_concurrently() throws Exception {
+        // given
+        var lanes = new EnvelopeProcessingLanes(16, caseReferenceIndex);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // when
+            var futures = IntStream.range(0, 4)
+                .mapToObj(i -> executor.submit(() -> {
+                    start.await();
+                    return lanes.runInLane(envelope("123", null, SUPPLEMENTARY_EVIDENCE), () -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        sleep();
+                        return inFlight.decrementAndGet();
+                    });
+                }))
+                .toList();
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            // then
+            assertThat(maxInFlight.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_return_result_of_the_task() {
+        var lanes = new EnvelopeProcessingLanes(1, caseReferenceIndex);
+
+        assertThat(lanes.runInLane(envelope(null, null, SUPPLEMENTARY_EVIDENCE), () -> "result"))
+            .isEqualTo("result");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
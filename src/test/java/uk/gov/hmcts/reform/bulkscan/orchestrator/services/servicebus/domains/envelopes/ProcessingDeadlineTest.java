@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.errorhandling.exceptions.ProcessingDeadlineExceededException;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProcessingDeadlineTest {
+
+    @Test
+    void should_not_fail_check_outside_of_envelope_processing() {
+        assertThatCode(() -> ProcessingDeadline.check("step")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void should_not_fail_check_when_deadline_has_not_passed() {
+        String result = ProcessingDeadline.runWithin(Instant.now().plusSeconds(60), () -> {
+            ProcessingDeadline.check("step");
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+    }
+
+    @Test
+    void should_fail_check_when_deadline_has_passed() {
+        assertThatThrownBy(() -> ProcessingDeadline.runWithin(Instant.now().minusSeconds(1), () -> {
+            ProcessingDeadline.check("create case");
+            return "done";
+        }))
+            .isInstanceOf(ProcessingDeadlineExceededException.class)
+            .hasMessageContaining("create case");
+    }
+
+    @Test
+    void should_clear_deadline_after_processing() {
+        assertThatThrownBy(() -> ProcessingDeadline.runWithin(Instant.now().minusSeconds(1), () -> {
+            throw new IllegalStateException("processing failed");
+        }))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThatCode(() -> ProcessingDeadline.check("step")).doesNotThrowAnyException();
+    }
+}
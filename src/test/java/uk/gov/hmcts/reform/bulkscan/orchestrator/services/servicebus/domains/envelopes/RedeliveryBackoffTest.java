@@ -0,0 +1,44 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedeliveryBackoffTest {
+
+    private final RedeliveryBackoff backoff =
+        new RedeliveryBackoff(true, Duration.ofSeconds(30), Duration.ofMinutes(10));
+
+    @Test
+    void should_grow_delay_exponentially_with_jitter() {
+        assertThat(backoff.delayFor(1)).isBetween(Duration.ofSeconds(15), Duration.ofSeconds(30));
+        assertThat(backoff.delayFor(2)).isBetween(Duration.ofSeconds(30), Duration.ofSeconds(60));
+        assertThat(backoff.delayFor(3)).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(120));
+    }
+
+    @Test
+    void should_not_exceed_max_delay() {
+        assertThat(backoff.delayFor(50)).isBetween(Duration.ofMinutes(5), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void should_read_previous_attempts_from_message_properties() {
+        assertThat(RedeliveryBackoff.previousAttempts(Map.of(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, 3)))
+            .isEqualTo(3);
+        assertThat(RedeliveryBackoff.previousAttempts(Map.of(RedeliveryBackoff.RETRY_ATTEMPT_PROPERTY, "2")))
+            .isEqualTo(2);
+        assertThat(RedeliveryBackoff.previousAttempts(Map.of())).isZero();
+    }
+
+    @Test
+    void should_read_original_message_id_from_message_properties() {
+        assertThat(RedeliveryBackoff.originalMessageId(
+            "message-id-retry-1",
+            Map.of(RedeliveryBackoff.ORIGINAL_MESSAGE_ID_PROPERTY, "message-id")
+        )).isEqualTo("message-id");
+        assertThat(RedeliveryBackoff.originalMessageId("message-id", Map.of())).isEqualTo("message-id");
+    }
+}
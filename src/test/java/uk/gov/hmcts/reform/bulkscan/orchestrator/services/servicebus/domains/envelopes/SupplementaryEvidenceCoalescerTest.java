@@ -0,0 +1,134 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Envelope;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeProcessingResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelope;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Classification.NEW_APPLICATION;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.envelopes.model.Classification.SUPPLEMENTARY_EVIDENCE;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.AUTO_ATTACHED_TO_CASE;
+
+class SupplementaryEvidenceCoalescerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    private final List<List<Envelope>> handledBatches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_only_accept_supplementary_evidence_with_ccd_case_id_when_enabled() {
+        // given
+        var coalescer = new SupplementaryEvidenceCoalescer(true, Duration.ofSeconds(1), 10);
+        var disabledCoalescer = new SupplementaryEvidenceCoalescer(false, Duration.ofSeconds(1), 10);
+
+        // then
+        assertThat(coalescer.accepts(envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234"))).isTrue();
+        assertThat(coalescer.accepts(envelope(null, null, SUPPLEMENTARY_EVIDENCE))).isFalse();
+        assertThat(coalescer.accepts(envelope(null, "legacy-ref", SUPPLEMENTARY_EVIDENCE))).isFalse();
+        assertThat(coalescer.accepts(envelope("", "legacy-ref", SUPPLEMENTARY_EVIDENCE))).isFalse();
+        assertThat(coalescer.accepts(envelope("ABC123", "legacy-ref", SUPPLEMENTARY_EVIDENCE))).isFalse();
+        assertThat(coalescer.accepts(envelope(NEW_APPLICATION, JURSIDICTION, "1234"))).isFalse();
+        assertThat(disabledCoalescer.accepts(envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234"))).isFalse();
+    }
+
+    @Test
+    void should_handle_concurrent_envelopes_for_the_same_case_together() throws Exception {
+        // given
+        var coalescer = new SupplementaryEvidenceCoalescer(true, Duration.ofSeconds(5), 3);
+        List<Envelope> envelopes = List.of(
+            envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234"),
+            envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234"),
+            envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234")
+        );
+        Map<Envelope, Long> ccdIds = new IdentityHashMap<>();
+        for (int i = 0; i < envelopes.size(); i++) {
+            ccdIds.put(envelopes.get(i), (long) i);
+        }
+
+        // when
+        List<Future<EnvelopeProcessingResult>> results = envelopes
+            .stream()
+            .map(envelope -> executor.submit(() -> coalescer.handle(envelope, batchHandler(ccdIds::get))))
+            .toList();
+
+        // then
+        for (int i = 0; i < envelopes.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS).ccdId).isEqualTo(i);
+        }
+        // the batch was full, so it did not wait for the whole window
+        assertThat(handledBatches).hasSize(1);
+        assertThat(handledBatches.get(0)).hasSize(3);
+    }
+
+    @Test
+    void should_handle_envelopes_for_different_cases_separately() {
+        // given
+        var coalescer = new SupplementaryEvidenceCoalescer(true, Duration.ofMillis(10), 10);
+
+        // when
+        coalescer.handle(envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234"), batchHandler(envelope -> 1L));
+        coalescer.handle(envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "5678"), batchHandler(envelope -> 2L));
+
+        // then
+        assertThat(handledBatches).hasSize(2);
+        assertThat(handledBatches).allSatisfy(batch -> assertThat(batch).hasSize(1));
+    }
+
+    @Test
+    void should_rethrow_batch_failure_to_all_envelopes_in_batch() {
+        // given
+        var coalescer = new SupplementaryEvidenceCoalescer(true, Duration.ofSeconds(5), 2);
+        var failure = new IllegalStateException("attaching documents failed");
+        Function<List<Envelope>, List<EnvelopeProcessingResult>> failingHandler = envelopes -> {
+            throw failure;
+        };
+
+        // when
+        List<Future<EnvelopeProcessingResult>> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, JURSIDICTION, "1234");
+            results.add(executor.submit(() -> coalescer.handle(envelope, failingHandler)));
+        }
+
+        // then
+        for (Future<EnvelopeProcessingResult> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(failure);
+        }
+    }
+
+    private Function<List<Envelope>, List<EnvelopeProcessingResult>> batchHandler(
+        Function<Envelope, Long> ccdIdProvider
+    ) {
+        return envelopes -> {
+            handledBatches.add(envelopes);
+            return envelopes
+                .stream()
+                .map(envelope -> new EnvelopeProcessingResult(ccdIdProvider.apply(envelope), AUTO_ATTACHED_TO_CASE))
+                .toList();
+        };
+    }
+}
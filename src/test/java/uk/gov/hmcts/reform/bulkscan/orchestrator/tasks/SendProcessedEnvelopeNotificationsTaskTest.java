@@ -0,0 +1,167 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.tasks;
+
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeNotification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.data.processedenvelopeoutbox.ProcessedEnvelopeOutboxRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.domains.processedenvelopes.EnvelopeCcdAction.EXCEPTION_RECORD;
+
+@ExtendWith(MockitoExtension.class)
+class SendProcessedEnvelopeNotificationsTaskTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private ProcessedEnvelopeOutboxRepository outboxRepository;
+
+    @Mock
+    private ServiceBusSenderClient queueClient;
+
+    @Mock
+    private ServiceBusMessageBatch batch;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SendProcessedEnvelopeNotificationsTask task;
+
+    @BeforeEach
+    void setUp() {
+        task = new SendProcessedEnvelopeNotificationsTask(
+            outboxRepository,
+            queueClient,
+            new ObjectMapper(),
+            new TransactionTemplate(transactionManager),
+            BATCH_SIZE
+        );
+    }
+
+    @Test
+    void should_send_pending_notifications_and_delete_them_from_outbox() {
+        // given
+        var notification = notification("envelope-id", 123L);
+        given(outboxRepository.findPendingForUpdate(BATCH_SIZE)).willReturn(List.of(notification));
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+
+        // when
+        task.run();
+
+        // then
+        var messageCaptor = ArgumentCaptor.forClass(ServiceBusMessage.class);
+        verify(batch).tryAddMessage(messageCaptor.capture());
+        verify(queueClient).sendMessages(batch);
+        verify(outboxRepository).delete(List.of(notification.id));
+        verify(transactionManager).commit(any());
+
+        ServiceBusMessage message = messageCaptor.getValue();
+        assertThat(message.getMessageId()).isEqualTo("envelope-id");
+        assertThat(message.getContentType()).isEqualTo("application/json");
+        assertThat(message.getBody().toString()).isEqualTo(
+            "{\"envelope_id\":\"envelope-id\",\"ccd_id\":\"123\",\"envelope_ccd_action\":\"EXCEPTION_RECORD\"}"
+        );
+    }
+
+    @Test
+    void should_keep_sending_batches_until_outbox_is_drained() {
+        // given
+        given(outboxRepository.findPendingForUpdate(BATCH_SIZE))
+            .willReturn(List.of(notification("id1", 1L), notification("id2", 2L)))
+            .willReturn(List.of(notification("id3", 3L)));
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+
+        // when
+        task.run();
+
+        // then
+        verify(outboxRepository, times(2)).findPendingForUpdate(BATCH_SIZE);
+        verify(queueClient, times(2)).sendMessages(batch);
+        verify(outboxRepository, times(2)).delete(any());
+    }
+
+    @Test
+    void should_not_send_anything_when_outbox_is_empty() {
+        // given
+        given(outboxRepository.findPendingForUpdate(anyInt())).willReturn(List.of());
+
+        // when
+        task.run();
+
+        // then
+        verifyNoInteractions(queueClient);
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void should_keep_notifications_in_outbox_when_sending_fails() {
+        // given
+        given(outboxRepository.findPendingForUpdate(BATCH_SIZE)).willReturn(List.of(notification("id1", 1L)));
+        given(queueClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+        willThrow(new ServiceBusException(new IllegalStateException("test"), ServiceBusErrorSource.SEND))
+            .given(queueClient).sendMessages(any(ServiceBusMessageBatch.class));
+
+        // when
+        task.run();
+
+        // then
+        verify(outboxRepository, never()).delete(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void should_start_new_batch_when_notification_does_not_fit() {
+        // given
+        ServiceBusMessageBatch secondBatch = mock(ServiceBusMessageBatch.class);
+        given(outboxRepository.findPendingForUpdate(BATCH_SIZE))
+            .willReturn(List.of(notification("id1", 1L)));
+        given(queueClient.createMessageBatch()).willReturn(batch, secondBatch);
+        given(batch.tryAddMessage(any())).willReturn(false);
+        given(secondBatch.tryAddMessage(any())).willReturn(true);
+
+        // when
+        task.run();
+
+        // then
+        verify(queueClient).sendMessages(secondBatch);
+        verify(outboxRepository).delete(any());
+    }
+
+    private static ProcessedEnvelopeNotification notification(String envelopeId, Long ccdId) {
+        return new ProcessedEnvelopeNotification(
+            UUID.randomUUID(),
+            Instant.now(),
+            envelopeId,
+            ccdId,
+            EXCEPTION_RECORD
+        );
+    }
+}
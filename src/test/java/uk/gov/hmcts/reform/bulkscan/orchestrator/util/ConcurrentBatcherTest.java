@@ -0,0 +1,62 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentBatcherTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final List<List<String>> handledBatches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_return_result_of_own_item_to_each_caller_of_a_batch() throws Exception {
+        // given
+        var batcher = new ConcurrentBatcher<String, String, String>(Duration.ofSeconds(5), 2);
+
+        // when
+        Future<String> result1 = executor.submit(() -> batcher.submit("key", "a", this::toUpperCase));
+        Future<String> result2 = executor.submit(() -> batcher.submit("key", "b", this::toUpperCase));
+
+        // then
+        assertThat(result1.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(result2.get(5, TimeUnit.SECONDS)).isEqualTo("B");
+        assertThat(handledBatches).hasSize(1);
+        assertThat(handledBatches.get(0)).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void should_not_mix_items_with_different_keys() {
+        // given
+        var batcher = new ConcurrentBatcher<String, String, String>(Duration.ofMillis(10), 2);
+
+        // when
+        String result1 = batcher.submit("key1", "a", this::toUpperCase);
+        String result2 = batcher.submit("key2", "b", this::toUpperCase);
+
+        // then
+        assertThat(result1).isEqualTo("A");
+        assertThat(result2).isEqualTo("B");
+        assertThat(handledBatches).containsExactly(List.of("a"), List.of("b"));
+    }
+
+    private List<String> toUpperCase(List<String> items) {
+        handledBatches.add(items);
+        return items.stream().map(String::toUpperCase).toList();
+    }
+}